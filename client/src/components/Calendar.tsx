@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { ChevronLeft, ChevronRight } from 'lucide-react';
-import api from '../utils/api';
+import api, { getCalendarRollups } from '../utils/api';
 
 interface Memory {
   id: string;
@@ -15,6 +15,22 @@ interface Memory {
   createdAt: string;
 }
 
+// One day's activity from the calendar rollups
+interface DayRollup {
+  date: string | number[];
+  photos: number;
+  memories: number;
+  prizes: number;
+  earnings: number;
+  earningsAmount: number;
+}
+
+interface RollupTotals {
+  photos: number;
+  prizes: number;
+  earningsAmount: number;
+}
+
 interface CalendarProps {
   onDayClick: (date: string, memories: Memory[]) => void;
 }
@@ -23,6 +39,8 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
   const [currentDate, setCurrentDate] = useState(new Date());
   const [memories, setMemories] = useState<Memory[]>([]);
   const [loading, setLoading] = useState(false);
+  const [rollupsByDay, setRollupsByDay] = useState<{ [key: number]: DayRollup }>({});
+  const [rollupTotals, setRollupTotals] = useState<RollupTotals | null>(null);
   
   const today = new Date();
   const year = currentDate.getFullYear();
@@ -30,8 +48,31 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
 
   useEffect(() => {
     fetchMemoriesForMonth();
+    fetchRollupsForMonth();
   }, [year, month]);
 
+  // Photo, prize and earnings activity for the month, from one small rollups response
+  const fetchRollupsForMonth = async () => {
+    const pad = (value: number) => String(value).padStart(2, '0');
+    const from = `${year}-${pad(month + 1)}-01`;
+    const to = `${year}-${pad(month + 1)}-${pad(new Date(year, month + 1, 0).getDate())}`;
+    try {
+      const response = await getCalendarRollups(from, to);
+      const byDay: { [key: number]: DayRollup } = {};
+      (response.data.days || []).forEach((rollup: DayRollup) => {
+        // Dates may arrive as [year, month, day] arrays or as YYYY-MM-DD strings
+        const day = Array.isArray(rollup.date) ? rollup.date[2] : Number(rollup.date.split('-')[2]);
+        byDay[day] = rollup;
+      });
+      setRollupsByDay(byDay);
+      setRollupTotals(response.data.totals || null);
+    } catch (error) {
+      console.error('Error fetching calendar rollups:', error);
+      setRollupsByDay({});
+      setRollupTotals(null);
+    }
+  };
+
   const fetchMemoriesForMonth = async () => {
     setLoading(true);
     try {
@@ -214,6 +255,22 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
     }
   };
 
+  // Photos, prizes and earnings; memories are already drawn by title
+  const activityOf = (rollup?: DayRollup) =>
+    rollup ? rollup.photos + rollup.prizes + rollup.earnings : 0;
+  const maxActivity = Math.max(1, ...Object.values(rollupsByDay).map(activityOf));
+
+  const describeActivity = (rollup?: DayRollup) => {
+    if (!rollup) {
+      return undefined;
+    }
+    const parts = [];
+    if (rollup.photos > 0) parts.push(`${rollup.photos} photo${rollup.photos !== 1 ? 's' : ''}`);
+    if (rollup.prizes > 0) parts.push(`${rollup.prizes} prize${rollup.prizes !== 1 ? 's' : ''}`);
+    if (rollup.earnings > 0) parts.push(`$${rollup.earningsAmount} earned`);
+    return parts.length > 0 ? parts.join(', ') : undefined;
+  };
+
   const renderCalendarDays = () => {
     const days = [];
     
@@ -227,11 +284,13 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
       const isToday = today.getFullYear() === year && today.getMonth() === month && today.getDate() === day;
       const dayMemories = memoriesByDay[day] || [];
       const hasMemories = dayMemories.length > 0;
+      const activity = activityOf(rollupsByDay[day]);
       
       days.push(
         <div
           key={day}
           onClick={() => handleDayClick(day)}
+          title={describeActivity(rollupsByDay[day])}
           className={`h-10 md:h-16 flex flex-col items-center justify-center cursor-pointer rounded-lg transition-all duration-200 relative overflow-hidden ${
             isToday
               ? 'bg-gradient-to-br from-blue-500 to-blue-600 text-white font-semibold shadow-md'
@@ -301,6 +360,14 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
               )}
             </div>
           )}
+
+          {/* Activity heat: photos, prizes and earnings that day */}
+          {activity > 0 && (
+            <div
+              className="absolute bottom-0 left-0 right-0 h-1 bg-pink-500"
+              style={{ opacity: 0.25 + 0.75 * (activity / maxActivity) }}
+            />
+          )}
         </div>
       );
     }
@@ -337,6 +404,12 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
         </div>
       </div>
       
+      {rollupTotals && (rollupTotals.photos > 0 || rollupTotals.prizes > 0 || rollupTotals.earningsAmount > 0) && (
+        <p className="-mt-4 mb-4 text-xs text-gray-500">
+          {rollupTotals.photos} photos · {rollupTotals.prizes} prizes · ${rollupTotals.earningsAmount} earned this month
+        </p>
+      )}
+      
       {/* Day headers */}
       <div className="grid grid-cols-7 gap-1 md:gap-2 mb-2">
         {dayNames.map(day => (
@@ -374,6 +447,10 @@ const Calendar: React.FC<CalendarProps> = ({ onDayClick }) => {
           <div className="w-2 h-2 bg-blue-500 rounded-full"></div>
           <span className="hidden sm:inline">Today</span>
         </div>
+        <div className="flex items-center space-x-1.5">
+          <div className="w-3 h-1 bg-pink-500 rounded-full"></div>
+          <span className="hidden sm:inline">Activity</span>
+        </div>
         <div className="flex items-center space-x-1.5 md:hidden">
           <div className="w-1.5 h-1.5 bg-blue-500 rounded-full"></div>
           <span>Has memories</span>
@@ -7,11 +7,13 @@ interface DeveloperData {
   loveCount: number;
   scott: {
     opportunities: number;
-    earningsHistory: any[];
+    earningsCount: number;
+    earningsTotal: number;
   };
   zoe: {
     opportunities: number;
-    earningsHistory: any[];
+    earningsCount: number;
+    earningsTotal: number;
   };
 }
 
@@ -280,7 +282,7 @@ const DeveloperSettings: React.FC = () => {
                   {/* Earnings */}
                   <div>
                     <label className="block text-sm text-apple-secondary-label mb-1">
-                      Earnings History ({data.scott.earningsHistory.length} records)
+                      Earnings History ({data.scott.earningsCount} records)
                     </label>
                     <button
                       onClick={() => clearEarnings('scott')}
@@ -329,7 +331,7 @@ const DeveloperSettings: React.FC = () => {
                   {/* Earnings */}
                   <div>
                     <label className="block text-sm text-apple-secondary-label mb-1">
-                      Earnings History ({data.zoe.earningsHistory.length} records)
+                      Earnings History ({data.zoe.earningsCount} records)
                     </label>
                     <button
                       onClick={() => clearEarnings('zoe')}
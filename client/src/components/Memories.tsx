@@ -1,7 +1,7 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useLocation, useSearchParams } from 'react-router-dom';
 import { Calendar, Plus, Edit2, Trash2, Heart, Star, Gift, Clock, ArrowUpDown } from 'lucide-react';
-import api from '../utils/api';
+import api, { getMemoryPhotos } from '../utils/api';
 import CalendarComponent from './Calendar';
 import DayMemoriesModal from './DayMemoriesModal';
 
@@ -22,6 +22,16 @@ interface Memory {
   }>;
 }
 
+type MemoryPhoto = {
+  id: number;
+  filename: string;
+  originalName: string;
+  caption: string;
+};
+
+// Photos shown per page in the event detail view
+const DETAIL_PHOTOS_PAGE_SIZE = 24;
+
 type MemoryFormData = {
   title: string;
   description: string;
@@ -63,6 +73,11 @@ function Memories() {
   }>>([]);
   const [selectedMemory, setSelectedMemory] = useState<Memory | null>(null);
   const [showDetailModal, setShowDetailModal] = useState(false);
+  const [detailPhotos, setDetailPhotos] = useState<MemoryPhoto[]>([]);
+  const [detailPhotosTotal, setDetailPhotosTotal] = useState(0);
+  const [detailPhotosPage, setDetailPhotosPage] = useState(0);
+  const [loadingDetailPhotos, setLoadingDetailPhotos] = useState(false);
+  const detailMemoryId = useRef<number | null>(null);
   const [selectedPhoto, setSelectedPhoto] = useState<{id: number; filename: string; originalName: string; caption: string} | null>(null);
   const [showPhotoModal, setShowPhotoModal] = useState(false);
 
@@ -331,6 +346,36 @@ function Memories() {
     setShowDetailModal(true);
   };
 
+  // Event photos are paged from the server instead of coming with the memory list
+  useEffect(() => {
+    detailMemoryId.current = selectedMemory?.id ?? null;
+    setDetailPhotos([]);
+    setDetailPhotosTotal(0);
+    setDetailPhotosPage(0);
+    if (selectedMemory?.type === 'event') {
+      loadDetailPhotos(selectedMemory.id, 0);
+    }
+  }, [selectedMemory?.id]);
+
+  const loadDetailPhotos = async (memoryId: number, page: number) => {
+    setLoadingDetailPhotos(true);
+    try {
+      const response = await getMemoryPhotos(memoryId, page, DETAIL_PHOTOS_PAGE_SIZE);
+      // A different memory was opened while this page loaded
+      if (detailMemoryId.current !== memoryId) {
+        return;
+      }
+      const photos: MemoryPhoto[] = response.data.photos || [];
+      setDetailPhotos(prev => (page === 0 ? photos : [...prev, ...photos]));
+      setDetailPhotosTotal(response.data.pagination?.total ?? photos.length);
+      setDetailPhotosPage(page);
+    } catch (error) {
+      console.error('Error fetching memory photos:', error);
+    } finally {
+      setLoadingDetailPhotos(false);
+    }
+  };
+
   const closeMemoryDetail = () => {
     setSelectedMemory(null);
     setShowDetailModal(false);
@@ -857,11 +902,11 @@ function Memories() {
                   </div>
                 </div>
                 
-                {selectedMemory.type === 'event' && selectedMemory.photos && selectedMemory.photos.length > 0 && (
+                {selectedMemory.type === 'event' && detailPhotos.length > 0 && (
                    <div>
-                     <h4 className="text-sm font-medium text-gray-700 mb-3">Photos ({selectedMemory.photos.length})</h4>
+                     <h4 className="text-sm font-medium text-gray-700 mb-3">Photos ({detailPhotosTotal})</h4>
                      <div className="grid grid-cols-2 sm:grid-cols-3 gap-3">
-                       {selectedMemory.photos.map((photo) => (
+                       {detailPhotos.map((photo) => (
                          <div key={photo.id} className="relative group cursor-pointer" onClick={() => openPhotoViewer(photo)}>
                            <img
                              src={`/api/photos/image/${photo.filename}`}
@@ -883,6 +928,15 @@ function Memories() {
                          </div>
                        ))}
                      </div>
+                     {detailPhotos.length < detailPhotosTotal && (
+                       <button
+                         onClick={() => loadDetailPhotos(selectedMemory.id, detailPhotosPage + 1)}
+                         disabled={loadingDetailPhotos}
+                         className="mt-3 w-full px-4 py-2 text-sm text-gray-700 bg-white border border-gray-300 rounded-lg hover:bg-gray-50 transition-colors disabled:opacity-50"
+                       >
+                         {loadingDetailPhotos ? 'Loading...' : `Load more photos (${detailPhotosTotal - detailPhotos.length} left)`}
+                       </button>
+                     )}
                    </div>
                  )}
               </div>
@@ -1,7 +1,9 @@
-import React, { useState, useEffect, useRef } from 'react';
+import React, { useState, useEffect } from 'react';
+import { IMessage, StompSubscription } from '@stomp/stompjs';
 import { Heart, User } from 'lucide-react';
 import { useAuth } from '../contexts/AuthContext';
 import api from '../utils/api';
+import { acquireRealtime, safeUnsubscribe } from '../utils/realtime';
 
 interface PartnerLoveData {
   partnerUsername: string;
@@ -14,7 +16,6 @@ const PartnerLoveCard: React.FC = () => {
   const [partnerData, setPartnerData] = useState<PartnerLoveData | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
-  const eventSourceRef = useRef<EventSource | null>(null);
 
   // Don't render if user is not authenticated
   if (!isAuthenticated || !user) {
@@ -35,76 +36,6 @@ const PartnerLoveCard: React.FC = () => {
     }
   };
 
-  const setupSSE = () => {
-    try {
-      // Close existing connection if any
-      if (eventSourceRef.current) {
-        eventSourceRef.current.close();
-      }
-      
-      // Get JWT token from localStorage
-      const token = localStorage.getItem('token');
-      if (!token) {
-        console.error('No authentication token found for SSE');
-        fetchPartnerLoveCount(); // Fallback to polling
-        return;
-      }
-      
-      const eventSource = new EventSource(`/api/love-updates/subscribe?token=${encodeURIComponent(token)}`, {
-        withCredentials: true
-      });
-      
-      eventSource.addEventListener('partner-love-update', (event) => {
-        try {
-          const data = JSON.parse(event.data);
-          setPartnerData(data);
-          setError(null);
-        } catch (err) {
-          console.error('Error parsing SSE data:', err);
-        }
-      });
-      
-      eventSource.onerror = (error) => {
-        console.error('SSE connection error:', error);
-        setError('Real-time connection lost');
-        
-        // Close the failed connection
-        if (eventSourceRef.current) {
-          eventSourceRef.current.close();
-          eventSourceRef.current = null;
-        }
-        
-        // Attempt to reconnect after a delay
-        setTimeout(() => {
-          // console.log('Attempting to reconnect SSE...');
-          setupSSE();
-        }, 3000);
-        
-        // Fallback to polling in the meantime
-        setTimeout(() => {
-          fetchPartnerLoveCount();
-        }, 1000);
-      };
-      
-      eventSource.onopen = () => {
-        // console.log('SSE connection established');
-        setError(null);
-      };
-      
-      eventSourceRef.current = eventSource;
-      
-    } catch (err) {
-      console.error('Error setting up SSE:', err);
-      // Fallback to initial fetch
-      fetchPartnerLoveCount();
-      
-      // Retry SSE setup after a delay
-      setTimeout(() => {
-        setupSSE();
-      }, 5000);
-    }
-  };
-
   useEffect(() => {
     // Only setup if user is authenticated
     if (!isAuthenticated || !user) {
@@ -114,13 +45,33 @@ const PartnerLoveCard: React.FC = () => {
     // Initial fetch
     fetchPartnerLoveCount();
     
-    // Setup SSE for real-time updates
-    setupSSE();
+    // Real-time updates arrive on the shared realtime connection
+    const subscriptions: StompSubscription[] = [];
+    const handleUpdate = (message: IMessage) => {
+      try {
+        setPartnerData(JSON.parse(message.body));
+        setError(null);
+      } catch (err) {
+        console.error('Error parsing love update:', err);
+      }
+    };
+    
+    const release = acquireRealtime(localStorage.getItem('token'), {
+      onConnect: (client) => {
+        subscriptions.length = 0;
+        subscriptions.push(client.subscribe('/user/queue/love/updates', handleUpdate));
+        // Current value, also refreshes after a reconnect
+        subscriptions.push(client.subscribe('/app/love/partner', handleUpdate));
+        setError(null);
+      },
+      onDisconnect: () => {
+        setError('Real-time connection lost');
+      },
+    });
     
     return () => {
-      if (eventSourceRef.current) {
-        eventSourceRef.current.close();
-      }
+      safeUnsubscribe(subscriptions);
+      release();
     };
   }, [isAuthenticated, user]); // Re-run when authentication state changes
 
@@ -27,6 +27,8 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
   const [savedOpportunities, setSavedOpportunities] = useState(0);
   const [prizes, setPrizes] = useState<Prize[]>([]);
   const [loadingPrizes, setLoadingPrizes] = useState(true);
+  // True while the wheel shows the local fallback prizes, whose ids are not the server's
+  const [usingDefaultPrizes, setUsingDefaultPrizes] = useState(false);
   const [rotation, setRotation] = useState(0);
   const wheelRef = useRef<HTMLDivElement>(null);
 
@@ -69,6 +71,18 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
     { id: 8, amount: 1000, color: '#1F2937', probability: 0.5, prizeName: '$1000', prizeDescription: 'Win $1000 love points', prizeType: 'MONEY', icon: getIconForPrize('MONEY', 1000) },
   ];
 
+  const toPrizes = (configPrizes: any[]): Prize[] =>
+    configPrizes.map((prize: any, index: number) => ({
+      id: prize.id || index + 1,
+      amount: prize.prizeValue,
+      color: prize.color,
+      probability: parseFloat(prize.probability),
+      prizeName: prize.prizeName,
+      prizeDescription: prize.prizeDescription,
+      prizeType: prize.prizeType,
+      icon: getIconForPrize(prize.prizeType, prize.prizeValue)
+    }));
+
   // Check if user has used wheel this week and load saved opportunities and wheel configuration
   useEffect(() => {
     const loadWheelData = async () => {
@@ -84,20 +98,11 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
         
         // Load wheel configuration
         if (configResponse.data.hasConfiguration && configResponse.data.prizes) {
-          const dynamicPrizes = configResponse.data.prizes.map((prize: any, index: number) => ({
-            id: prize.id || index + 1,
-            amount: prize.prizeValue,
-            color: prize.color,
-            probability: parseFloat(prize.probability),
-            prizeName: prize.prizeName,
-            prizeDescription: prize.prizeDescription,
-            prizeType: prize.prizeType,
-            icon: getIconForPrize(prize.prizeType, prize.prizeValue)
-          }));
-          setPrizes(dynamicPrizes);
+          setPrizes(toPrizes(configResponse.data.prizes));
         } else {
           // Fallback to default prizes if no configuration
           setPrizes(getDefaultPrizes());
+          setUsingDefaultPrizes(true);
         }
         
         // console.log('✅ Wheel data loaded:', {
@@ -120,6 +125,7 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
         setSavedOpportunities(opportunities);
         
         setPrizes(getDefaultPrizes());
+        setUsingDefaultPrizes(true);
       } finally {
         setLoadingPrizes(false);
       }
@@ -130,21 +136,7 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
 
 
 
-  const selectPrize = (): Prize => {
-    const random = Math.random() * 100;
-    let cumulative = 0;
-    
-    for (const prize of prizes) {
-      cumulative += prize.probability;
-      if (random <= cumulative) {
-        return prize;
-      }
-    }
-    
-    return prizes[0]; // Fallback
-  };
-
-  const spinWheel = () => {
+  const spinWheel = async () => {
     if (isSpinning) return;
 
     // Check weekly limit
@@ -154,10 +146,35 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
     }
 
     setIsSpinning(true);
-    const selectedPrize = selectPrize();
+
+    // The server draws the prize and records the spin (weekly use or a saved opportunity)
+    let spinResult: any;
+    try {
+      const response = await api.post('/api/wheel/spin');
+      spinResult = response.data;
+    } catch (error: any) {
+      console.error('❌ Error spinning wheel:', error);
+      setIsSpinning(false);
+      alert(error.response?.data?.message || 'Could not spin the wheel. Please try again.');
+      return;
+    }
+
+    // The local defaults are laid out like the server's default wheel but numbered 1-8,
+    // so only a loaded configuration can be matched by id
+    const matchedIndex = usingDefaultPrizes ? -1 : prizes.findIndex(p => p.id === spinResult.prize.id);
+    const prizeIndex = matchedIndex >= 0 ? matchedIndex : spinResult.index;
+    const selectedPrize: Prize = prizes[prizeIndex] || {
+      id: spinResult.prize.id,
+      amount: spinResult.prize.prizeValue,
+      color: spinResult.prize.color,
+      probability: 0,
+      prizeName: spinResult.prize.prizeName,
+      prizeDescription: spinResult.prize.prizeDescription,
+      prizeType: spinResult.prize.prizeType,
+      icon: getIconForPrize(spinResult.prize.prizeType, spinResult.prize.prizeValue)
+    };
 
     // Calculate rotation for smooth animation
-    const prizeIndex = prizes.findIndex(p => p.id === selectedPrize.id);
     const sectionAngle = 360 / prizes.length;
     const targetAngle = (prizeIndex * sectionAngle) + (sectionAngle / 2);
 
@@ -178,41 +195,28 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
       setIsSpinning(false);
       setWonPrize(selectedPrize);
       setShowResult(true);
+      setHasUsedToday(true);
 
-      // Record wheel usage in backend AFTER the animation completes
-      try {
-        const source = savedOpportunities > 0 ? 'saved_opportunity' : 'weekly';
-        await api.post('/api/wheel/use', {
-          prizeAmount: selectedPrize.amount,
-          source: source
-        });
-        // console.log('✅ Wheel usage recorded in backend successfully');
-      } catch (error) {
-        console.error('❌ Error recording wheel usage in backend:', error);
-        // Fallback to localStorage
-        const today = new Date();
-        const startOfWeek = new Date(today.setDate(today.getDate() - today.getDay()));
-        const weekKey = startOfWeek.toDateString();
-        localStorage.setItem('wheelLastUsedWeek', weekKey);
+      // The spin created the default configuration on the server; show its prizes from now on
+      if (usingDefaultPrizes) {
+        try {
+          const configResponse = await api.get('/api/wheel-config/my-wheel');
+          if (configResponse.data.hasConfiguration && configResponse.data.prizes) {
+            setPrizes(toPrizes(configResponse.data.prizes));
+            setUsingDefaultPrizes(false);
+          }
+        } catch (error) {
+          console.error('Error reloading wheel configuration:', error);
+        }
       }
 
-      // Note: Prize recording is handled in handleClaimPrize to avoid duplicates
-
-      setHasUsedToday(true);
-
-      // Use up one opportunity if available
-      if (savedOpportunities > 0) {
+      if (spinResult.source === 'saved_opportunity') {
         try {
-          await api.post('/api/opportunities/use');
-          // Reload opportunities from backend
           const opportunitiesResponse = await api.get('/api/opportunities/stats');
           setSavedOpportunities(opportunitiesResponse.data.unused || 0);
         } catch (error) {
-          console.error('Error using saved opportunity in backend:', error);
-          // Fallback to localStorage
-          const newOpportunities = savedOpportunities - 1;
-          localStorage.setItem('wheelOpportunities', newOpportunities.toString());
-          setSavedOpportunities(newOpportunities);
+          console.error('Error reloading saved opportunities:', error);
+          setSavedOpportunities(Math.max(0, savedOpportunities - 1));
         }
       }
     }, 3200); // Match the CSS animation duration + small buffer (3 seconds + buffer)
@@ -226,14 +230,7 @@ const PrizeWheel: React.FC<PrizeWheelProps> = ({ onClose, level, onPrizeWon }) =
     
     if (!isSpinning && wonPrize) {
       try {
-        // Record the prize win in backend
-        await api.post('/api/wheel-prizes', {
-          prizeType: wonPrize.prizeType,
-          prizeValue: wonPrize.amount,
-          prizeDescription: wonPrize.prizeDescription
-        });
-        // console.log('✅ Prize claimed and recorded:', wonPrize.amount);
-        
+        // The prize was already recorded by the spin
         // Call onPrizeWon callback if provided
         if (onPrizeWon) {
           await onPrizeWon(wonPrize.amount);
@@ -1,4 +1,4 @@
-import React, { useEffect, useRef, useState, useCallback } from 'react';
+import React, { useEffect, useLayoutEffect, useRef, useState, useCallback } from 'react';
 import { 
   Minimize2, 
   Users, 
@@ -6,11 +6,7 @@ import {
   WifiOff,
   Edit3,
   Loader2,
-  Lock,
-  Unlock,
-  Eye,
   AlertCircle,
-  CheckCircle,
   Clock
 } from 'lucide-react';
 import { useTurnBasedNoteStore } from '../stores/turnBasedNoteStore';
@@ -26,6 +22,8 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
   
   const textareaRef = useRef<HTMLTextAreaElement>(null);
   const [cursorPosition, setCursorPosition] = useState(0);
+  // Selection as the user left it, mapped through remote operations
+  const selectionRef = useRef({ start: 0, end: 0 });
   const [isTyping, setIsTyping] = useState(false);
   const typingTimeoutRef = useRef<NodeJS.Timeout>();
   
@@ -39,34 +37,28 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
   
   const {
     content,
+    remoteOperation,
     isConnected,
     isLoading,
     error,
-    hasEditPermission,
-    isLocked,
-    currentEditor,
-    isRequestingEdit,
-    editRequestMessage,
     windowPosition,
     minimizedButtonPosition,
     isMinimized,
     isMaximized,
     typingIndicators,
+    presence,
     
-    setContent,
     setMinimized,
     setMaximized,
     setMinimizedButtonPosition,
     connect,
     disconnect,
-    requestEditControl,
-    releaseEditControl,
-    updateContent,
+    applyLocalEdit,
     sendTypingIndicator,
     updateWindowPosition,
   } = useTurnBasedNoteStore();
   
-  // console.log('TurnBasedNotePad: Store state - isConnected:', isConnected, 'hasEditPermission:', hasEditPermission);
+  // console.log('TurnBasedNotePad: Store state - isConnected:', isConnected);
   
   // Connect to WebSocket on mount
   useEffect(() => {
@@ -90,31 +82,13 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
     };
   }, []); // Remove dependencies to prevent infinite loop
   
-  // Debounced content update to prevent race conditions during fast typing
-  const debouncedUpdateRef = useRef<NodeJS.Timeout>();
-  
-  // Handle text changes (only when user has edit permission)
+  // Handle text changes; each one goes to the server as an operation, no edit lock needed
   const handleTextChange = useCallback((e: React.ChangeEvent<HTMLTextAreaElement>) => {
-    if (!hasEditPermission) {
-      console.warn('User attempted to edit without permission');
-      return;
-    }
-    
     const newContent = e.target.value;
-    // console.log('Text change detected:', { newContent, hasEditPermission });
-    
-    // Update local content immediately for responsive UI
-    setContent(newContent);
-    
-    // Clear existing debounced update
-    if (debouncedUpdateRef.current) {
-      clearTimeout(debouncedUpdateRef.current);
-    }
+    // console.log('Text change detected:', { newContent });
     
-    // Debounce server updates to prevent race conditions during fast typing
-    debouncedUpdateRef.current = setTimeout(() => {
-      updateContent(newContent);
-    }, 300); // 300ms debounce delay
+    selectionRef.current = { start: e.target.selectionStart, end: e.target.selectionEnd };
+    applyLocalEdit(newContent);
     
     // Handle typing indicator
     if (!isTyping) {
@@ -132,26 +106,25 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
       sendTypingIndicator(false);
     }, 1000);
     
-  }, [hasEditPermission, setContent, updateContent, isTyping, sendTypingIndicator]);
+  }, [applyLocalEdit, isTyping, sendTypingIndicator]);
   
   // Handle cursor position changes
-  const handleCursorChange = useCallback((e: React.ChangeEvent<HTMLTextAreaElement>) => {
-    const newPosition = e.target.selectionStart;
-    setCursorPosition(newPosition);
+  const handleCursorChange = useCallback((e: React.SyntheticEvent<HTMLTextAreaElement>) => {
+    const textarea = e.currentTarget;
+    selectionRef.current = { start: textarea.selectionStart, end: textarea.selectionEnd };
+    setCursorPosition(textarea.selectionStart);
   }, []);
   
-  // Handle edit control request
-  const handleRequestEdit = useCallback(async () => {
-    // console.log('Requesting edit control...');
-    const granted = await requestEditControl();
-    // console.log('Edit control request result:', granted);
-  }, [requestEditControl]);
-  
-  // Handle edit control release
-  const handleReleaseEdit = useCallback(async () => {
-    // console.log('Releasing edit control...');
-    await releaseEditControl();
-  }, [releaseEditControl]);
+  // Keep the caret on the same text when the other user's edit lands before it
+  useLayoutEffect(() => {
+    const textarea = textareaRef.current;
+    if (!remoteOperation || !textarea || document.activeElement !== textarea) return;
+    
+    const start = remoteOperation.transformIndex(selectionRef.current.start);
+    const end = remoteOperation.transformIndex(selectionRef.current.end);
+    textarea.setSelectionRange(start, end);
+    selectionRef.current = { start, end };
+  }, [remoteOperation]);
   
   // Handle window controls
   const handleMinimize = useCallback(() => {
@@ -281,15 +254,7 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
       return { icon: WifiOff, color: 'text-red-500', text: 'Disconnected' };
     }
     
-    if (hasEditPermission) {
-      return { icon: Edit3, color: 'text-green-500', text: 'Editing' };
-    }
-    
-    if (isLocked && currentEditor) {
-      return { icon: Lock, color: 'text-orange-500', text: `${currentEditor.username} is editing` };
-    }
-    
-    return { icon: Eye, color: 'text-blue-500', text: 'Viewing' };
+    return { icon: Edit3, color: 'text-green-500', text: 'Editing' };
   };
   
   const statusInfo = getStatusIndicator();
@@ -309,6 +274,9 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
   
   const typingText = getTypingText();
   
+  // The other user's presence, once the server has reported it
+  const partnerPresence = Object.values(presence).find(p => p.userId !== user?.id);
+  
   // Minimized button drag handlers - moved to top level to avoid conditional hook calls
   const handleMinimizedMouseDown = useCallback((e: React.MouseEvent) => {
     if (e.button !== 0) return; // Only left click
@@ -565,6 +533,17 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
                 {statusInfo.text}
               </span>
             </div>
+            {partnerPresence && (
+              <>
+                <div className="w-px h-4" style={{ backgroundColor: 'var(--apple-separator)' }}></div>
+                <div className="flex items-center space-x-1">
+                  <Users className={`w-4 h-4 ${partnerPresence.online ? 'text-green-500' : 'text-gray-400'}`} />
+                  <span className="text-sm" style={{ color: 'var(--apple-secondary-label)' }}>
+                    {partnerPresence.username} {partnerPresence.online ? 'online' : 'offline'}
+                  </span>
+                </div>
+              </>
+            )}
           </div>
         </div>
         
@@ -619,23 +598,19 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
 
       
       {/* Error/Message Bar */}
-      {(error || editRequestMessage) && (
+      {error && (
         <div 
           className="flex items-center space-x-2 text-sm"
           style={{
             padding: '8px 16px',
             borderBottom: '1px solid var(--apple-separator)',
-            backgroundColor: error ? '#FFEBEE' : '#E3F2FD',
-            color: error ? '#FF3B30' : 'var(--apple-blue)',
+            backgroundColor: '#FFEBEE',
+            color: '#FF3B30',
             fontFamily: 'var(--font-body)',
           }}
         >
-          {error ? (
-            <AlertCircle className="w-4 h-4" style={{ color: '#FF3B30' }} />
-          ) : (
-            <CheckCircle className="w-4 h-4" style={{ color: 'var(--apple-blue)' }} />
-          )}
-          <span>{error || editRequestMessage}</span>
+          <AlertCircle className="w-4 h-4" style={{ color: '#FF3B30' }} />
+          <span>{error}</span>
         </div>
       )}
       
@@ -652,11 +627,9 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
           onChange={handleTextChange}
           onSelect={handleCursorChange}
           placeholder={
-            hasEditPermission 
-              ? "Start writing your shared notes here..." 
-              : isLocked 
-                ? `${currentEditor?.username || 'Another user'} is currently editing. You can read but not edit.`
-                : "Click 'Request Edit' to start editing..."
+            isConnected
+              ? "Start writing your shared notes here..."
+              : "Reconnecting..."
           }
           className="w-full h-full resize-none border-none outline-none"
           style={{ 
@@ -669,73 +642,9 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
             color: 'var(--apple-label)', // Always use normal text color, not grayed out
             cursor: 'text', // Always allow text cursor for selection
           }}
-          readOnly={!hasEditPermission} // Use readOnly instead of disabled to allow text selection
+          readOnly={!isConnected} // Use readOnly instead of disabled to allow text selection
         />
         
-        {/* Floating Edit Control Buttons */}
-        <div 
-          className="absolute flex items-center space-x-2"
-          style={{
-            bottom: '16px',
-            right: '16px',
-            zIndex: 10,
-          }}
-        >
-          {!hasEditPermission && !isLocked && (
-            <button
-              onClick={handleRequestEdit}
-              disabled={isRequestingEdit}
-              className="px-3 py-2 rounded-lg text-xs font-medium transition-all duration-200 disabled:opacity-50 disabled:cursor-not-allowed flex items-center space-x-1 shadow-lg"
-              style={{
-                backgroundColor: isRequestingEdit ? 'var(--apple-gray-3)' : 'var(--apple-blue)',
-                color: 'white',
-                border: 'none',
-                fontFamily: 'var(--font-body)',
-                backdropFilter: 'blur(10px)',
-                WebkitBackdropFilter: 'blur(10px)',
-              }}
-              title={isRequestingEdit ? "Requesting edit permission..." : "Request edit permission"}
-            >
-              {isRequestingEdit ? (
-                <>
-                  <Loader2 className="w-3 h-3 animate-spin" />
-                  <span>Requesting</span>
-                </>
-              ) : (
-                <>
-                  <Edit3 className="w-3 h-3" />
-                  <span>Edit</span>
-                </>
-              )}
-            </button>
-          )}
-          
-          {hasEditPermission && (
-            <button
-              onClick={handleReleaseEdit}
-              className="px-3 py-2 rounded-lg text-xs font-medium transition-all duration-200 flex items-center space-x-1 shadow-lg"
-              style={{
-                backgroundColor: '#FF3B30',
-                color: 'white',
-                border: 'none',
-                fontFamily: 'var(--font-body)',
-                backdropFilter: 'blur(10px)',
-                WebkitBackdropFilter: 'blur(10px)',
-              }}
-              onMouseEnter={(e) => {
-                e.currentTarget.style.backgroundColor = '#FF6B60';
-              }}
-              onMouseLeave={(e) => {
-                e.currentTarget.style.backgroundColor = '#FF3B30';
-              }}
-              title="Stop editing and release control"
-            >
-              <Unlock className="w-3 h-3" />
-              <span>Stop</span>
-            </button>
-          )}
-        </div>
-        
         {/* Typing Indicators */}
         {typingText && (
           <div 
@@ -784,12 +693,6 @@ const TurnBasedNotePad: React.FC<TurnBasedNotePadProps> = ({ onClose }) => {
         
         <div className="flex items-center space-x-3">
           <span>{content.length} characters</span>
-          {hasEditPermission && (
-            <div className="flex items-center space-x-1 font-medium" style={{ color: 'var(--apple-blue)' }}>
-              <Edit3 className="w-3 h-3" />
-              <span>Editing</span>
-            </div>
-          )}
         </div>
       </div>
     </div>
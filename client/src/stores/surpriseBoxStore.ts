@@ -1,6 +1,6 @@
 import { create } from 'zustand';
-import { Client, IMessage } from '@stomp/stompjs';
-import SockJS from 'sockjs-client';
+import { Client, IMessage, StompSubscription } from '@stomp/stompjs';
+import { acquireRealtime, safeUnsubscribe } from '../utils/realtime';
 import axios from 'axios';
 
 export interface SurpriseBox {
@@ -139,33 +139,7 @@ const getApiUrl = () => {
   return import.meta.env.VITE_API_URL || 'http://localhost:8080';
 };
 
-// Helper function to get the proper WebSocket URL
-const getWebSocketUrl = () => {
-  // For production (non-localhost), always use the same origin as the current page
-  if (window.location.hostname !== 'localhost') {
-    return window.location.origin;
-  }
-  
-  // For local development, check if we have a custom API URL
-  const apiUrl = import.meta.env.VITE_API_URL;
-  if (apiUrl) {
-    // If the page is loaded over HTTPS, ensure the API URL is also HTTPS
-    if (window.location.protocol === 'https:' && apiUrl.startsWith('http:')) {
-      return apiUrl.replace('http:', 'https:');
-    }
-    return apiUrl;
-  }
-  
-  // Local development default - use HTTPS if the page is loaded over HTTPS
-  if (window.location.protocol === 'https:') {
-    return 'https://localhost:8080';
-  }
-  
-  return 'http://localhost:8080';
-};
-
 const API_BASE_URL = `${getApiUrl()}/api`;
-const WS_URL = getWebSocketUrl();
 
 // Debounce utility to prevent rapid successive calls
 const debounceMap = new Map<string, NodeJS.Timeout>();
@@ -180,6 +154,10 @@ const debounce = (key: string, fn: () => void, delay: number = 1000) => {
   debounceMap.set(key, timeoutId);
 };
 
+// Membership in the shared realtime connection and this store's subscriptions on it
+let releaseRealtime: (() => void) | null = null;
+const subscriptions: StompSubscription[] = [];
+
 export const useSurpriseBoxStore = create<SurpriseBoxState>((set, get) => ({
   // Initial state
   ownedBoxes: [],
@@ -726,144 +704,80 @@ export const useSurpriseBoxStore = create<SurpriseBoxState>((set, get) => ({
   
   // WebSocket
   connectWebSocket: (token?: string) => {
-    // Get token from parameter or localStorage
     const authToken = token || localStorage.getItem('token');
     
-    // console.log('🔌 Attempting WebSocket connection...');
-    // console.log('Token present:', !!authToken);
-    // console.log('Token value:', authToken ? `${authToken.substring(0, 20)}...` : 'null');
-    // console.log('WebSocket URL:', `${WS_URL}/ws`);
-    
-    const { stompClient } = get();
-    
-    if (!authToken) {
-      // console.log('❌ No authentication token found, cannot connect to WebSocket');
-      // console.log('💡 Please log in first to enable real-time notifications');
-      // console.log('🧪 For testing purposes, attempting connection without token...');
-      // For testing, we'll continue without token to see connection behavior
-    }
-    
-    if (stompClient && stompClient.connected) {
+    if (releaseRealtime) {
       // console.log('✅ Already connected to WebSocket');
       return; // Already connected
     }
 
-    const client = new Client({
-      webSocketFactory: () => new SockJS(`${WS_URL}/ws`),
-      connectHeaders: authToken ? {
-        Authorization: `Bearer ${authToken}`
-      } : {},
-      debug: (str) => {
-        // console.log('STOMP Debug:', str);
+    // Surprise box updates share the tab's realtime connection
+    releaseRealtime = acquireRealtime(authToken, {
+      onConnect: (client) => {
+        // console.log('✅ Connected to surprise box WebSocket');
+        set({ stompClient: client, isConnected: true });
+        
+        // Subscriptions from a previous connection died with it
+        subscriptions.length = 0;
+        
+        // Subscribe to user-specific updates
+        subscriptions.push(client.subscribe('/user/queue/surprise-box/updates', (message) => {
+          // console.log('📨 Received WebSocket notification:', message.body);
+          const notification: WebSocketNotification = JSON.parse(message.body);
+          const { notifications } = get();
+          set({ notifications: [notification, ...notifications] });
+          
+          // Refresh relevant data based on notification type with debouncing
+          switch (notification.type) {
+            case 'BOX_DROPPED':
+              debounce('loadReceivedBoxes', () => get().loadReceivedBoxes(), 1000);
+              debounce('loadActiveBox', () => get().loadActiveBox(), 1000);
+              break;
+            case 'BOX_OPENED':
+              debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
+              break;
+            case 'BOX_APPROVED':
+              debounce('loadPrizeHistory', () => get().loadPrizeHistory(), 1000);
+              debounce('loadPrizeStats', () => get().loadPrizeStats(), 1000);
+              break;
+            case 'BOX_REJECTED':
+              debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
+              break;
+            case 'BOX_EXPIRED':
+              debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
+              break;
+            case 'BOX_CANCELLED':
+              debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
+              break;
+            default:
+              // console.log('🤷 Unknown notification type:', notification.type);
+          }
+        }));
+        // console.log('📡 WebSocket subscription established');
+        
+        // Send initial subscription message
+        client.publish({
+          destination: '/app/surprise-box/subscribe',
+          body: JSON.stringify({ action: 'subscribe' })
+        });
+      },
+      onDisconnect: () => {
+        // console.log('🔌 Disconnected from surprise box WebSocket');
+        set({ isConnected: false });
+      },
+      onError: () => {
+        set({ isConnected: false });
       },
-      reconnectDelay: 5000,
-      heartbeatIncoming: 4000,
-      heartbeatOutgoing: 4000,
     });
-
-    client.onConnect = (frame) => {
-      // console.log('✅ Connected to surprise box WebSocket:', frame);
-      set({ stompClient: client, isConnected: true });
-      
-      // Subscribe to user-specific updates
-      const subscription = client.subscribe('/user/queue/surprise-box/updates', (message) => {
-        // console.log('📨 Received WebSocket notification:', message.body);
-        const notification: WebSocketNotification = JSON.parse(message.body);
-        const { notifications } = get();
-        set({ notifications: [notification, ...notifications] });
-        
-        // Refresh relevant data based on notification type with debouncing
-        switch (notification.type) {
-          case 'BOX_DROPPED':
-            // console.log('🎁 BOX_DROPPED notification - triggering refresh');
-            debounce('loadReceivedBoxes', () => get().loadReceivedBoxes(), 1000);
-            debounce('loadActiveBox', () => get().loadActiveBox(), 1000);
-            break;
-          case 'BOX_OPENED':
-            // console.log('📦 BOX_OPENED notification - triggering refresh');
-            debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
-            break;
-          case 'BOX_APPROVED':
-            // console.log('✅ BOX_APPROVED notification - triggering refresh');
-            debounce('loadPrizeHistory', () => get().loadPrizeHistory(), 1000);
-            debounce('loadPrizeStats', () => get().loadPrizeStats(), 1000);
-            break;
-          case 'BOX_REJECTED':
-            // console.log('❌ BOX_REJECTED notification - triggering refresh');
-            debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
-            break;
-          case 'BOX_EXPIRED':
-            // console.log('⏰ BOX_EXPIRED notification - triggering refresh');
-            debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
-            break;
-          case 'BOX_CANCELLED':
-            // console.log('🚫 BOX_CANCELLED notification - triggering refresh');
-            debounce('loadOwnedBoxes', () => get().loadOwnedBoxes(), 1000);
-            break;
-          default:
-            // console.log('🤷 Unknown notification type:', notification.type);
-        }
-      });
-      // console.log('📡 WebSocket subscription established');
-      
-      // Subscribe to ping responses
-      const pongSubscription = client.subscribe('/user/queue/surprise-box/pong', (message) => {
-        // console.log('🏓 Received pong:', message.body);
-      });
-      // console.log('📡 Subscribed to ping responses');
-      
-      // Send initial subscription message
-      client.publish({
-        destination: '/app/surprise-box/subscribe',
-        body: JSON.stringify({ action: 'subscribe' })
-      });
-      // console.log('📤 Sent initial subscription message');
-      
-      // Set up periodic ping
-      const pingInterval = setInterval(() => {
-        if (client.connected) {
-          client.publish({
-            destination: '/app/surprise-box/ping',
-            body: JSON.stringify({ timestamp: Date.now() })
-          });
-          // console.log('🏓 Sent ping');
-        }
-      }, 30000); // Every 30 seconds
-      
-      // Store interval for cleanup
-      (client as any).pingInterval = pingInterval;
-    };
-
-    client.onStompError = (frame) => {
-      console.error('❌ STOMP error:', frame);
-      set({ isConnected: false });
-    };
-
-    client.onDisconnect = () => {
-      // console.log('🔌 Disconnected from surprise box WebSocket');
-      set({ isConnected: false });
-      
-      // Clear ping interval if it exists
-      if ((client as any).pingInterval) {
-        clearInterval((client as any).pingInterval);
-      }
-    };
-
-    // console.log('🚀 Activating STOMP client...');
-    set({ stompClient: client });
-    client.activate();
   },
   
   disconnectWebSocket: () => {
-    const { stompClient } = get();
-    if (stompClient) {
-      // Clear ping interval if it exists
-      if ((stompClient as any).pingInterval) {
-        clearInterval((stompClient as any).pingInterval);
-      }
-      stompClient.deactivate();
-      set({ stompClient: null, isConnected: false });
+    safeUnsubscribe(subscriptions);
+    if (releaseRealtime) {
+      releaseRealtime();
+      releaseRealtime = null;
     }
+    set({ stompClient: null, isConnected: false });
   },
   
   addNotification: (notification) => {
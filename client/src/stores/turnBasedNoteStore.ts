@@ -1,50 +1,8 @@
 import { create } from 'zustand';
-import { Client } from '@stomp/stompjs';
-import SockJS from 'sockjs-client';
+import { Client, StompSubscription } from '@stomp/stompjs';
+import { acquireRealtime, safeUnsubscribe } from '../utils/realtime';
 import { isMobileDevice, getMobileWindowDimensions, getMobileWindowPosition } from '../utils/deviceDetection';
-
-// Helper function to get the proper WebSocket URL
-const getWebSocketUrl = () => {
-  // For production (non-localhost), always use the same origin as the current page
-  if (window.location.hostname !== 'localhost') {
-    return window.location.origin;
-  }
-  
-  // For local development, check if we have a custom API URL
-  const apiUrl = import.meta.env.VITE_API_URL;
-  if (apiUrl) {
-    // If the page is loaded over HTTPS, ensure the API URL is also HTTPS
-    if (window.location.protocol === 'https:' && apiUrl.startsWith('http:')) {
-      return apiUrl.replace('http:', 'https:');
-    }
-    return apiUrl;
-  }
-  
-  // Local development default - use HTTPS if the page is loaded over HTTPS
-  if (window.location.protocol === 'https:') {
-    return 'https://localhost:8080';
-  }
-  
-  return 'http://localhost:8080';
-};
-
-// Helper function to get API base URL
-const getApiUrl = () => {
-  const wsUrl = getWebSocketUrl();
-  return `${wsUrl}/api`;
-};
-
-export interface EditSession {
-  id: number;
-  noteId: number;
-  currentEditor: {
-    id: number;
-    username: string;
-  };
-  lockAcquiredAt: string;
-  lastActivityAt: string;
-  isActive: boolean;
-}
+import { OperationComponent, TextOperation } from '../utils/textOperation';
 
 export interface EditControlMessage {
   type: 'REQUEST_EDIT_CONTROL' | 'GRANT_EDIT_CONTROL' | 'DENY_EDIT_CONTROL' | 
@@ -60,6 +18,17 @@ export interface EditControlMessage {
   message?: string;
 }
 
+export interface NoteOperationMessage {
+  type: 'OPERATION' | 'RESYNC';
+  noteId: number;
+  revision: number;
+  operation?: OperationComponent[];
+  clientOpId?: string;
+  userId?: number;
+  userName?: string;
+  content?: string;
+}
+
 export interface WindowPosition {
   id?: number;
   userId: number;
@@ -77,21 +46,27 @@ export interface TypingIndicator {
   timestamp: string;
 }
 
+export interface PresenceMessage {
+  type: 'PRESENCE';
+  userId: number;
+  username: string;
+  online: boolean;
+  typing: boolean;
+  timestamp: string;
+}
+
 interface TurnBasedNoteState {
   // Note content and metadata
   noteId: number | null;
   content: string;
+  // Server revision the content is based on, not counting our unacknowledged edits
+  revision: number;
+  // Last remote operation applied to content, so the editor can move its caret
+  remoteOperation: TextOperation | null;
   isConnected: boolean;
   isLoading: boolean;
   error: string | null;
   
-  // Edit control state
-  hasEditPermission: boolean;
-  isLocked: boolean;
-  currentEditor: { id: number; username: string } | null;
-  isRequestingEdit: boolean;
-  editRequestMessage: string | null;
-  
   // Window management
   windowPosition: WindowPosition | null;
   minimizedButtonPosition: { x: number; y: number } | null;
@@ -101,13 +76,13 @@ interface TurnBasedNoteState {
   
   // Collaboration state
   typingIndicators: TypingIndicator[];
+  presence: Record<number, PresenceMessage>;
   
   // WebSocket client
   stompClient: Client | null;
   sessionId: string | null;
   
   // Actions
-  setContent: (content: string) => void;
   setNoteId: (noteId: number) => void;
   setWindowPosition: (position: WindowPosition) => void;
   setMinimizedButtonPosition: (position: { x: number; y: number }) => void;
@@ -117,10 +92,8 @@ interface TurnBasedNoteState {
   setError: (error: string | null) => void;
   setLoading: (loading: boolean) => void;
   
-  // Edit control actions
-  requestEditControl: () => Promise<boolean>;
-  releaseEditControl: () => Promise<void>;
-  updateContent: (content: string) => Promise<void>;
+  // Editing action, both users may type at once
+  applyLocalEdit: (content: string) => void;
   
   // WebSocket actions
   connect: (token: string) => Promise<void>;
@@ -131,27 +104,27 @@ interface TurnBasedNoteState {
   // Collaboration actions
   updateTypingIndicator: (indicator: TypingIndicator) => void;
   removeTypingIndicator: (userId: number) => void;
-  
-  // API actions
-  fetchEditStatus: () => Promise<void>;
-  fetchNoteContent: () => Promise<void>;
 }
 
+// Membership in the shared realtime connection and this store's subscriptions on it
+let releaseRealtime: (() => void) | null = null;
+const subscriptions: StompSubscription[] = [];
+
+// Delta protocol state. At most one operation is in flight; edits made while it
+// awaits its broadcast are composed into the buffer and sent after it.
+let outstanding: { operation: TextOperation; clientOpId: string } | null = null;
+let buffer: TextOperation | null = null;
+
 export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
   // Initial state
   noteId: 1, // Default to note ID 1
   content: '',
+  revision: 0,
+  remoteOperation: null,
   isConnected: false,
   isLoading: false,
   error: null,
   
-  // Edit control state
-  hasEditPermission: false,
-  isLocked: false,
-  currentEditor: null,
-  isRequestingEdit: false,
-  editRequestMessage: null,
-  
   windowPosition: (() => {
     // Try to restore window position from localStorage
     try {
@@ -194,12 +167,12 @@ export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
   isMaximized: false,
   
   typingIndicators: [],
+  presence: {},
   
   stompClient: null,
   sessionId: null,
   
   // Basic actions
-  setContent: (content: string) => set({ content }),
   setNoteId: (noteId: number) => set({ noteId }),
   setWindowPosition: (position: WindowPosition) => set({ windowPosition: position }),
   setMinimizedButtonPosition: (position: { x: number; y: number }) => set({ minimizedButtonPosition: position }),
@@ -209,182 +182,24 @@ export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
   setError: (error: string | null) => set({ error }),
   setLoading: (loading: boolean) => set({ isLoading: loading }),
   
-  // Edit control actions
-  requestEditControl: async () => {
-    const state = get();
-    if (!state.noteId || state.isRequestingEdit) return false;
-    
-    set({ isRequestingEdit: true, editRequestMessage: null });
-    
-    try {
-      const token = localStorage.getItem('token');
-      if (!token) {
-        throw new Error('No authentication token');
-      }
-      
-      const response = await fetch(`${getApiUrl()}/edit-control/request/${state.noteId}`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${token}`,
-        },
-        body: JSON.stringify({ sessionId: state.sessionId }),
-      });
-      
-      if (!response.ok) {
-        throw new Error('Failed to request edit control');
-      }
-      
-      const result = await response.json();
-      
-      if (result.granted) {
-        set({
-          hasEditPermission: true,
-          isLocked: true,
-          currentEditor: result.session.currentEditor,
-          isRequestingEdit: false,
-          editRequestMessage: null, // Remove the message
-        });
-        
-        // Send WebSocket message for real-time updates
-        if (state.stompClient?.connected) {
-          state.stompClient.publish({
-            destination: '/app/shared-note/edit-control',
-            body: JSON.stringify({
-              type: 'REQUEST_EDIT_CONTROL',
-              noteId: state.noteId,
-              sessionId: state.sessionId,
-            }),
-          });
-        }
-        
-        return true;
-      } else {
-        set({
-          hasEditPermission: false,
-          currentEditor: result.currentEditor || null,
-          isRequestingEdit: false,
-          editRequestMessage: result.message || 'Edit control denied',
-        });
-        return false;
-      }
-    } catch (error) {
-      console.error('Error requesting edit control:', error);
-      set({
-        isRequestingEdit: false,
-        editRequestMessage: 'Failed to request edit control',
-        error: error instanceof Error ? error.message : 'Unknown error',
-      });
-      return false;
-    }
-  },
-  
-  releaseEditControl: async () => {
-    const state = get();
-    if (!state.noteId || !state.hasEditPermission) return;
-    
-    try {
-      const token = localStorage.getItem('token');
-      if (!token) {
-        throw new Error('No authentication token');
-      }
-      
-      const response = await fetch(`${getApiUrl()}/edit-control/release/${state.noteId}`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${token}`,
-        },
-      });
-      
-      if (!response.ok) {
-        throw new Error('Failed to release edit control');
-      }
-      
-      set({
-        hasEditPermission: false,
-        isLocked: false,
-        currentEditor: null,
-        editRequestMessage: null, // Remove the message
-      });
-      
-      // Send WebSocket message for real-time updates
-      if (state.stompClient?.connected) {
-        state.stompClient.publish({
-          destination: '/app/shared-note/edit-control',
-          body: JSON.stringify({
-            type: 'RELEASE_EDIT_CONTROL',
-            noteId: state.noteId,
-            sessionId: state.sessionId,
-          }),
-        });
-      }
-      
-    } catch (error) {
-      console.error('Error releasing edit control:', error);
-      set({
-        error: error instanceof Error ? error.message : 'Unknown error',
-      });
-    }
-  },
-  
-  updateContent: async (content: string) => {
-    const state = get();
-    if (!state.noteId || !state.hasEditPermission) {
-      console.warn('Cannot update content: no edit permission');
-      return;
-    }
+  applyLocalEdit: (content: string) => {
+    const operation = TextOperation.diff(get().content, content);
+    if (operation.isNoop()) return;
     
-    try {
-      const token = localStorage.getItem('token');
-      if (!token) {
-        throw new Error('No authentication token');
-      }
-      
-      // Don't update local content here - it's already updated in the component
-      // This prevents overwriting user input during fast typing
-      
-      // Send to server
-      const response = await fetch(`${getApiUrl()}/edit-control/content/${state.noteId}`, {
-        method: 'PUT',
-        headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${token}`,
-        },
-        body: JSON.stringify({ content }),
-      });
-      
-      if (!response.ok) {
-        throw new Error('Failed to update content');
-      }
-      
-      // Send WebSocket message for real-time updates
-      if (state.stompClient?.connected) {
-        state.stompClient.publish({
-          destination: '/app/shared-note/edit-control',
-          body: JSON.stringify({
-            type: 'CONTENT_UPDATE',
-            noteId: state.noteId,
-            content,
-            cursorPosition: 0, // TODO: Get actual cursor position
-          }),
-        });
-      }
-      
-    } catch (error) {
-      console.error('Error updating content:', error);
-      set({
-        error: error instanceof Error ? error.message : 'Unknown error',
-      });
+    set({ content });
+    if (outstanding) {
+      buffer = buffer ? buffer.compose(operation) : operation;
+    } else {
+      sendOperation(operation);
     }
   },
   
-  // WebSocket connection
+  // WebSocket connection, shared with the other realtime streams
   connect: async (token: string) => {
     // console.log('TurnBasedNoteStore: connect() called');
     
     const state = get();
-    if (state.stompClient?.connected || state.isLoading) {
+    if (releaseRealtime || state.isLoading) {
       // console.log('Already connected or connecting to WebSocket, skipping connection');
       return;
     }
@@ -392,85 +207,67 @@ export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
     set({ isLoading: true, error: null });
     
     try {
-      const wsUrl = getWebSocketUrl();
-      // console.log('WebSocket URL:', wsUrl);
-      
-      const socket = new SockJS(`${wsUrl}/ws`);
       const sessionId = Date.now() + Math.random().toString(36);
       
-      const client = new Client({
-        webSocketFactory: () => socket,
-        connectHeaders: {
-          Authorization: `Bearer ${token}`,
+      releaseRealtime = acquireRealtime(token, {
+        onConnect: (client) => {
+          // console.log('Connected to turn-based note WebSocket');
+          set({ 
+            isConnected: true, 
+            isLoading: false, 
+            stompClient: client,
+            sessionId,
+          });
+          
+          // Subscriptions from a previous connection died with it
+          subscriptions.length = 0;
+          
+          // Subscribe to operations from both users, our own come back as acknowledgements
+          subscriptions.push(client.subscribe('/topic/shared-note/operations', (message) => {
+            const data: NoteOperationMessage = JSON.parse(message.body);
+            handleOperation(data);
+          }));
+          
+          // Full content when our operation could not be placed
+          subscriptions.push(client.subscribe('/user/queue/shared-note/operations', (message) => {
+            const data: NoteOperationMessage = JSON.parse(message.body);
+            handleResync(data);
+          }));
+          
+          // Subscribe to typing indicators
+          subscriptions.push(client.subscribe('/topic/shared-note/typing', (message) => {
+            const data: EditControlMessage = JSON.parse(message.body);
+            handleTypingUpdate(data);
+          }));
+          
+          // Subscribe to initial content updates
+          subscriptions.push(client.subscribe('/user/queue/shared-note/updates', (message) => {
+            const data = JSON.parse(message.body);
+            handleInitialContent(data);
+          }));
+          
+          // Current presence once on subscribe, then each change as it happens
+          subscriptions.push(client.subscribe('/app/presence', (message) => {
+            const data: PresenceMessage[] = JSON.parse(message.body);
+            handlePresenceSnapshot(data);
+          }));
+          subscriptions.push(client.subscribe('/topic/presence', (message) => {
+            const data: PresenceMessage = JSON.parse(message.body);
+            handlePresenceUpdate(data);
+          }));
+          
+          // Request initial note content after all subscriptions are set up
+          setTimeout(() => requestSnapshot(client), 100);
         },
-        debug: (str) => {
-          // console.log('STOMP Debug:', str);
+        onDisconnect: () => {
+          // console.log('Disconnected from turn-based note WebSocket');
+          set({ isConnected: false });
+        },
+        onError: () => {
+          set({ error: 'Connection error', isLoading: false, isConnected: false });
         },
-        reconnectDelay: 5000,
-        heartbeatIncoming: 4000,
-        heartbeatOutgoing: 4000,
       });
       
-      client.onConnect = (frame) => {
-        // console.log('Connected to turn-based note WebSocket:', frame);
-        set({ 
-          isConnected: true, 
-          isLoading: false, 
-          stompClient: client,
-          sessionId,
-        });
-        
-        // Subscribe to edit control messages
-        client.subscribe('/user/queue/shared-note/edit-control', (message) => {
-          const data: EditControlMessage = JSON.parse(message.body);
-          handleEditControlMessage(data);
-        });
-        
-        // Subscribe to edit control broadcasts
-        client.subscribe('/topic/shared-note/edit-control', (message) => {
-          const data: EditControlMessage = JSON.parse(message.body);
-          handleEditControlBroadcast(data);
-        });
-        
-        // Subscribe to content updates
-        client.subscribe('/topic/shared-note/content', (message) => {
-          const data: EditControlMessage = JSON.parse(message.body);
-          handleContentUpdate(data);
-        });
-        
-        // Subscribe to typing indicators
-        client.subscribe('/topic/shared-note/typing', (message) => {
-          const data: EditControlMessage = JSON.parse(message.body);
-          handleTypingUpdate(data);
-        });
-        
-        // Subscribe to initial content updates
-        client.subscribe('/user/queue/shared-note/updates', (message) => {
-          const data = JSON.parse(message.body);
-          handleInitialContent(data);
-        });
-        
-        // Request initial note content after all subscriptions are set up
-        setTimeout(() => {
-          client.publish({
-            destination: '/app/shared-note/subscribe',
-            body: JSON.stringify({})
-          });
-        }, 100);
-      };
-      
-      client.onStompError = (frame) => {
-        console.error('STOMP error:', frame);
-        set({ error: 'Connection error', isLoading: false, isConnected: false });
-      };
-      
-      client.onDisconnect = () => {
-        // console.log('Disconnected from turn-based note WebSocket');
-        set({ isConnected: false });
-      };
-      
-      client.activate();
-      
     } catch (error) {
       console.error('Failed to connect to WebSocket:', error);
       set({ error: 'Failed to connect', isLoading: false });
@@ -478,16 +275,17 @@ export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
   },
   
   disconnect: () => {
-    const state = get();
-    if (state.stompClient) {
-      state.stompClient.deactivate();
-      set({ stompClient: null, isConnected: false, sessionId: null });
+    safeUnsubscribe(subscriptions);
+    if (releaseRealtime) {
+      releaseRealtime();
+      releaseRealtime = null;
     }
+    set({ stompClient: null, isConnected: false, isLoading: false, sessionId: null });
   },
   
   sendTypingIndicator: (isTyping: boolean) => {
     const state = get();
-    if (!state.stompClient?.connected || !state.hasEditPermission) return;
+    if (!state.stompClient?.connected) return;
     
     state.stompClient.publish({
       destination: '/app/shared-note/edit-control',
@@ -538,120 +336,9 @@ export const useTurnBasedNoteStore = create<TurnBasedNoteState>((set, get) => ({
       typingIndicators: state.typingIndicators.filter(t => t.userId !== userId),
     }));
   },
-  
-  // API actions
-  fetchEditStatus: async () => {
-    const state = get();
-    if (!state.noteId) return;
-    
-    try {
-      const token = localStorage.getItem('token');
-      if (!token) return;
-      
-      const response = await fetch(`${getApiUrl()}/edit-control/status/${state.noteId}`, {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-        },
-      });
-      
-      if (response.ok) {
-        const status = await response.json();
-        set({
-          hasEditPermission: status.hasEditPermission,
-          isLocked: status.isLocked,
-          currentEditor: status.currentEditor,
-        });
-      }
-    } catch (error) {
-      console.error('Error fetching edit status:', error);
-    }
-  },
-  
-  fetchNoteContent: async () => {
-    const state = get();
-    if (!state.noteId) return;
-    
-    try {
-      const token = localStorage.getItem('token');
-      if (!token) return;
-      
-      const response = await fetch(`${getApiUrl()}/edit-control/content/${state.noteId}`, {
-        headers: {
-          'Authorization': `Bearer ${token}`,
-        },
-      });
-      
-      if (response.ok) {
-        const data = await response.json();
-        set({
-          content: data.content,
-          hasEditPermission: data.hasEditPermission,
-        });
-      }
-    } catch (error) {
-      console.error('Error fetching note content:', error);
-    }
-  },
 }));
 
 // Message handlers
-function handleEditControlMessage(data: EditControlMessage) {
-  // console.log('Received edit control message:', data);
-  // 
-  const state = useTurnBasedNoteStore.getState();
-  
-  switch (data.type) {
-    case 'GRANT_EDIT_CONTROL':
-      set({
-        hasEditPermission: true,
-        isLocked: true,
-        currentEditor: { id: data.userId, username: data.username || 'Unknown' },
-        isRequestingEdit: false,
-        editRequestMessage: null, // Remove the message
-      });
-      break;
-      
-    case 'DENY_EDIT_CONTROL':
-      set({
-        hasEditPermission: false,
-        isRequestingEdit: false,
-        editRequestMessage: data.message || 'Edit control denied',
-      });
-      break;
-  }
-}
-
-function handleEditControlBroadcast(data: EditControlMessage) {
-  // console.log('Received edit control broadcast:', data);
-  
-  switch (data.type) {
-    case 'EDIT_CONTROL_GRANTED':
-      set({
-        isLocked: true,
-        currentEditor: { id: data.userId, username: data.userName || data.username || 'Unknown' },
-      });
-      break;
-      
-    case 'EDIT_CONTROL_RELEASED':
-      set({
-        isLocked: false,
-        currentEditor: null,
-      });
-      break;
-  }
-}
-
-function handleContentUpdate(data: EditControlMessage) {
-  // console.log('Received content update:', data);
-  
-  // Only update content from WebSocket if we don't have edit permission
-  // This prevents overwriting local changes during fast typing
-  const state = useTurnBasedNoteStore.getState();
-  if (data.content !== undefined && !state.hasEditPermission) {
-    set({ content: data.content });
-  }
-}
-
 function handleTypingUpdate(data: EditControlMessage) {
   // console.log('Received typing update:', data);
   
@@ -667,13 +354,117 @@ function handleTypingUpdate(data: EditControlMessage) {
   }
 }
 
+function handlePresenceSnapshot(data: PresenceMessage[]) {
+  const presence: Record<number, PresenceMessage> = {};
+  data.forEach((entry) => {
+    presence[entry.userId] = entry;
+  });
+  set({ presence });
+}
+
+function handlePresenceUpdate(data: PresenceMessage) {
+  set({
+    presence: { ...useTurnBasedNoteStore.getState().presence, [data.userId]: data },
+  });
+}
+
 function handleInitialContent(data: any) {
   // console.log('Received initial content:', data);
   
   if (data.type === 'INITIAL_CONTENT') {
+    // Edits still in flight from a previous connection are dropped with the old revision
+    outstanding = null;
+    buffer = null;
     set({
       content: data.content || '',
+      revision: data.revision || 0,
       noteId: data.noteId || 1,
+      remoteOperation: null,
+    });
+  }
+}
+
+function handleOperation(data: NoteOperationMessage) {
+  const state = useTurnBasedNoteStore.getState();
+  if (data.noteId !== state.noteId || data.revision <= state.revision) return;
+  
+  // Operations arrive in revision order; a gap means one was missed
+  if (data.revision !== state.revision + 1) {
+    if (state.stompClient) {
+      requestSnapshot(state.stompClient);
+    }
+    return;
+  }
+  
+  if (outstanding && data.clientOpId === outstanding.clientOpId) {
+    // Our operation was applied; send what was typed meanwhile
+    outstanding = null;
+    set({ revision: data.revision });
+    if (buffer) {
+      const next = buffer;
+      buffer = null;
+      sendOperation(next);
+    }
+    return;
+  }
+  
+  // Rebase our unacknowledged edits on the remote operation and vice versa,
+  // the same transform the server applies to our operation when it arrives
+  let operation = TextOperation.fromJSON(data.operation || []);
+  if (outstanding) {
+    const [outstandingPrime, operationPrime] = TextOperation.transform(outstanding.operation, operation);
+    outstanding = { ...outstanding, operation: outstandingPrime };
+    operation = operationPrime;
+  }
+  if (buffer) {
+    [buffer, operation] = TextOperation.transform(buffer, operation);
+  }
+  
+  set({
+    content: operation.apply(state.content),
+    revision: data.revision,
+    remoteOperation: operation,
+  });
+}
+
+function handleResync(data: NoteOperationMessage) {
+  if (data.type !== 'RESYNC' || data.noteId !== useTurnBasedNoteStore.getState().noteId) return;
+  
+  // The server could not place our operation; its content replaces our unacknowledged edits
+  outstanding = null;
+  buffer = null;
+  set({
+    content: data.content || '',
+    revision: data.revision,
+    remoteOperation: null,
+  });
+}
+
+function sendOperation(operation: TextOperation) {
+  const { stompClient, noteId, revision } = useTurnBasedNoteStore.getState();
+  const clientOpId = `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+  outstanding = { operation, clientOpId };
+  
+  if (stompClient?.connected) {
+    stompClient.publish({
+      destination: '/app/shared-note/operation',
+      body: JSON.stringify({
+        type: 'OPERATION',
+        noteId,
+        revision,
+        operation: operation.toJSON(),
+        clientOpId,
+      }),
+    });
+  }
+}
+
+// The server answers on /user/queue/shared-note/updates with INITIAL_CONTENT
+function requestSnapshot(client: Client) {
+  if (client.connected) {
+    client.publish({
+      destination: '/app/shared-note/subscribe',
+      body: JSON.stringify({}),
     });
   }
 }
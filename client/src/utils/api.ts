@@ -66,6 +66,16 @@ export const getMemoriesForMonth = (year: number, month: number) => {
   return api.get(`/api/memories/month/${year}/${month}`);
 };
 
+// One page of the photos attached to an event memory, newest first
+export const getMemoryPhotos = (memoryId: number, page = 0, limit = 50) => {
+  return api.get(`/api/memories/${memoryId}/photos`, { params: { page, limit } });
+};
+
+// Per-day counts of photos, memories, prizes and earnings; dates are YYYY-MM-DD, inclusive
+export const getCalendarRollups = (from: string, to: string) => {
+  return api.get('/api/calendar/rollups', { params: { from, to } });
+};
+
 // Export the API URL for use in image sources
 export const API_BASE_URL = apiUrl;
 
@@ -0,0 +1,109 @@
+import { Client } from '@stomp/stompjs';
+import SockJS from 'sockjs-client';
+
+// One STOMP connection per tab carries every realtime stream: shared note,
+// surprise boxes, love updates and presence. Each feature registers a listener
+// that (re)subscribes whenever the connection comes up, and the connection is
+// closed when the last listener is released. The STOMP heartbeat keeps it alive,
+// so features do not need pings of their own.
+
+export interface RealtimeListener {
+  onConnect: (client: Client) => void;
+  onDisconnect?: () => void;
+  onError?: (message: string) => void;
+}
+
+// Helper function to get the proper WebSocket URL
+export const getWebSocketUrl = () => {
+  // For production (non-localhost), always use the same origin as the current page
+  if (window.location.hostname !== 'localhost') {
+    return window.location.origin;
+  }
+  
+  // For local development, check if we have a custom API URL
+  const apiUrl = import.meta.env.VITE_API_URL;
+  if (apiUrl) {
+    // If the page is loaded over HTTPS, ensure the API URL is also HTTPS
+    if (window.location.protocol === 'https:' && apiUrl.startsWith('http:')) {
+      return apiUrl.replace('http:', 'https:');
+    }
+    return apiUrl;
+  }
+  
+  // Local development default - use HTTPS if the page is loaded over HTTPS
+  if (window.location.protocol === 'https:') {
+    return 'https://localhost:8080';
+  }
+  
+  return 'http://localhost:8080';
+};
+
+let client: Client | null = null;
+const listeners = new Set<RealtimeListener>();
+
+const createClient = (token: string | null) => {
+  const stompClient = new Client({
+    webSocketFactory: () => new SockJS(`${getWebSocketUrl()}/ws`),
+    connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
+    debug: () => {},
+    reconnectDelay: 5000,
+    heartbeatIncoming: 10000,
+    heartbeatOutgoing: 10000,
+  });
+
+  stompClient.onConnect = () => {
+    listeners.forEach((listener) => listener.onConnect(stompClient));
+  };
+
+  stompClient.onWebSocketClose = () => {
+    listeners.forEach((listener) => listener.onDisconnect?.());
+  };
+
+  stompClient.onStompError = (frame) => {
+    console.error('STOMP error:', frame);
+    const message = frame.headers['message'] || 'Connection error';
+    listeners.forEach((listener) => listener.onError?.(message));
+  };
+
+  return stompClient;
+};
+
+/**
+ * Join the shared connection. Returns a function that leaves it again; the
+ * caller should unsubscribe its own subscriptions first.
+ */
+export const acquireRealtime = (token: string | null, listener: RealtimeListener): (() => void) => {
+  listeners.add(listener);
+
+  if (!client) {
+    client = createClient(token);
+    client.activate();
+  } else if (client.connected) {
+    listener.onConnect(client);
+  }
+
+  return () => {
+    if (!listeners.delete(listener)) {
+      return;
+    }
+    if (listeners.size === 0 && client) {
+      const closing = client;
+      client = null;
+      closing.deactivate();
+    }
+  };
+};
+
+/**
+ * Unsubscribe without failing when the connection is already gone
+ */
+export const safeUnsubscribe = (subscriptions: { unsubscribe: () => void }[]) => {
+  subscriptions.forEach((subscription) => {
+    try {
+      subscription.unsubscribe();
+    } catch {
+      // Connection already closed, the broker dropped the subscription
+    }
+  });
+  subscriptions.length = 0;
+};
@@ -0,0 +1,244 @@
+// Plain text operation for the shared note delta protocol, the client half of
+// the server's TextOperation. An operation walks the whole document: a positive
+// number retains that many characters, a negative number deletes that many and
+// a string is inserted. JSON form and transform rules follow ot.js, so both
+// sides agree on how concurrent edits merge.
+
+export type OperationComponent = number | string;
+
+const isRetain = (op: OperationComponent | undefined): op is number => typeof op === 'number' && op > 0;
+const isDelete = (op: OperationComponent | undefined): op is number => typeof op === 'number' && op < 0;
+const isInsert = (op: OperationComponent | undefined): op is string => typeof op === 'string';
+
+export class TextOperation {
+  ops: OperationComponent[] = [];
+  baseLength = 0;
+  targetLength = 0;
+
+  static fromJSON(components: OperationComponent[]): TextOperation {
+    const operation = new TextOperation();
+    components.forEach((component) => {
+      if (isRetain(component)) {
+        operation.retain(component);
+      } else if (isDelete(component)) {
+        operation.delete(-component);
+      } else if (isInsert(component)) {
+        operation.insert(component);
+      } else {
+        throw new Error(`Invalid operation component: ${component}`);
+      }
+    });
+    return operation;
+  }
+
+  // Operation that turns oldText into newText, touching only the changed middle part
+  static diff(oldText: string, newText: string): TextOperation {
+    let prefix = 0;
+    const maxPrefix = Math.min(oldText.length, newText.length);
+    while (prefix < maxPrefix && oldText[prefix] === newText[prefix]) {
+      prefix++;
+    }
+
+    let suffix = 0;
+    const maxSuffix = maxPrefix - prefix;
+    while (suffix < maxSuffix
+        && oldText[oldText.length - 1 - suffix] === newText[newText.length - 1 - suffix]) {
+      suffix++;
+    }
+
+    return new TextOperation()
+      .retain(prefix)
+      .delete(oldText.length - prefix - suffix)
+      .insert(newText.slice(prefix, newText.length - suffix))
+      .retain(suffix);
+  }
+
+  retain(n: number): TextOperation {
+    if (n === 0) return this;
+    this.baseLength += n;
+    this.targetLength += n;
+    const last = this.ops[this.ops.length - 1];
+    if (isRetain(last)) {
+      this.ops[this.ops.length - 1] = last + n;
+    } else {
+      this.ops.push(n);
+    }
+    return this;
+  }
+
+  insert(text: string): TextOperation {
+    if (text === '') return this;
+    this.targetLength += text.length;
+    const ops = this.ops;
+    const last = ops[ops.length - 1];
+    if (isInsert(last)) {
+      ops[ops.length - 1] = last + text;
+    } else if (isDelete(last)) {
+      // Keep inserts before deletes so equivalent operations have one representation
+      const beforeLast = ops[ops.length - 2];
+      if (isInsert(beforeLast)) {
+        ops[ops.length - 2] = beforeLast + text;
+      } else {
+        ops.splice(ops.length - 1, 0, text);
+      }
+    } else {
+      ops.push(text);
+    }
+    return this;
+  }
+
+  delete(n: number): TextOperation {
+    if (n === 0) return this;
+    this.baseLength += n;
+    const last = this.ops[this.ops.length - 1];
+    if (isDelete(last)) {
+      this.ops[this.ops.length - 1] = last - n;
+    } else {
+      this.ops.push(-n);
+    }
+    return this;
+  }
+
+  isNoop(): boolean {
+    return this.ops.length === 0 || (this.ops.length === 1 && isRetain(this.ops[0]));
+  }
+
+  apply(text: string): string {
+    if (text.length !== this.baseLength) {
+      throw new Error('Operation does not match the document length');
+    }
+    const parts: string[] = [];
+    let index = 0;
+    this.ops.forEach((op) => {
+      if (isRetain(op)) {
+        parts.push(text.slice(index, index + op));
+        index += op;
+      } else if (isInsert(op)) {
+        parts.push(op);
+      } else {
+        index -= op;
+      }
+    });
+    return parts.join('');
+  }
+
+  // Where a caret at index ends up once this operation is applied
+  transformIndex(index: number): number {
+    let remaining = index;
+    let newIndex = index;
+    for (const op of this.ops) {
+      if (isRetain(op)) {
+        remaining -= op;
+      } else if (isInsert(op)) {
+        newIndex += op.length;
+      } else {
+        newIndex -= Math.min(remaining, -op);
+        remaining += op;
+      }
+      if (remaining < 0) break;
+    }
+    return newIndex;
+  }
+
+  // One operation with the effect of this one followed by next
+  compose(next: TextOperation): TextOperation {
+    if (this.targetLength !== next.baseLength) {
+      throw new Error('Operations cannot be composed: lengths differ');
+    }
+    const composed = new TextOperation();
+    const ops1 = this.ops;
+    const ops2 = next.ops;
+    let i1 = 0;
+    let i2 = 0;
+    let op1 = ops1[i1++];
+    let op2 = ops2[i2++];
+    while (op1 !== undefined || op2 !== undefined) {
+      if (isDelete(op1)) {
+        composed.delete(-op1);
+        op1 = ops1[i1++];
+        continue;
+      }
+      if (isInsert(op2)) {
+        composed.insert(op2);
+        op2 = ops2[i2++];
+        continue;
+      }
+      if (op1 === undefined || op2 === undefined) {
+        throw new Error('Operations cannot be composed: lengths differ');
+      }
+
+      if (isRetain(op1) && isRetain(op2)) {
+        const n = Math.min(op1, op2);
+        composed.retain(n);
+        op1 = op1 > n ? op1 - n : ops1[i1++];
+        op2 = op2 > n ? op2 - n : ops2[i2++];
+      } else if (isInsert(op1) && isDelete(op2)) {
+        const n = Math.min(op1.length, -op2);
+        op1 = op1.length > n ? op1.slice(n) : ops1[i1++];
+        op2 = -op2 > n ? op2 + n : ops2[i2++];
+      } else if (isInsert(op1) && isRetain(op2)) {
+        const n = Math.min(op1.length, op2);
+        composed.insert(op1.slice(0, n));
+        op1 = op1.length > n ? op1.slice(n) : ops1[i1++];
+        op2 = op2 > n ? op2 - n : ops2[i2++];
+      } else if (isRetain(op1) && isDelete(op2)) {
+        const n = Math.min(op1, -op2);
+        composed.delete(n);
+        op1 = op1 > n ? op1 - n : ops1[i1++];
+        op2 = -op2 > n ? op2 + n : ops2[i2++];
+      }
+    }
+    return composed;
+  }
+
+  // For a and b made against the same document, returns [a', b'] such that
+  // a then b' and b then a' give the same text. Inserts at the same place put a's first.
+  static transform(a: TextOperation, b: TextOperation): [TextOperation, TextOperation] {
+    if (a.baseLength !== b.baseLength) {
+      throw new Error('Operations cannot be transformed: base lengths differ');
+    }
+    const aPrime = new TextOperation();
+    const bPrime = new TextOperation();
+    const ops1 = a.ops;
+    const ops2 = b.ops;
+    let i1 = 0;
+    let i2 = 0;
+    let op1 = ops1[i1++];
+    let op2 = ops2[i2++];
+    while (op1 !== undefined || op2 !== undefined) {
+      if (isInsert(op1)) {
+        aPrime.insert(op1);
+        bPrime.retain(op1.length);
+        op1 = ops1[i1++];
+        continue;
+      }
+      if (isInsert(op2)) {
+        aPrime.retain(op2.length);
+        bPrime.insert(op2);
+        op2 = ops2[i2++];
+        continue;
+      }
+      if (op1 === undefined || op2 === undefined) {
+        throw new Error('Operations cannot be transformed: lengths differ');
+      }
+
+      const n = Math.min(Math.abs(op1), Math.abs(op2));
+      if (isRetain(op1) && isRetain(op2)) {
+        aPrime.retain(n);
+        bPrime.retain(n);
+      } else if (isDelete(op1) && isRetain(op2)) {
+        aPrime.delete(n);
+      } else if (isRetain(op1) && isDelete(op2)) {
+        bPrime.delete(n);
+      }
+      // Both deleting the same text: nothing left to do for either side
+      op1 = Math.abs(op1) > n ? op1 - Math.sign(op1) * n : ops1[i1++];
+      op2 = Math.abs(op2) > n ? op2 - Math.sign(op2) * n : ops2[i2++];
+    }
+    return [aPrime, bPrime];
+  }
+
+  toJSON(): OperationComponent[] {
+    return this.ops;
+  }
+}
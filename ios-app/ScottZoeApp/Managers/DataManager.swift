@@ -224,13 +224,23 @@ class DataManager: ObservableObject {
         )
     }
     
-    func useWheel(prizeAmount: Int, source: String = "weekly") async throws {
-        let wheelData: [String: Any] = [
-            "prizeAmount": prizeAmount,
-            "source": source
-        ]
+    // Prize values in wheel order; empty until the owner's wheel is configured
+    func fetchWheelPrizes() async throws -> [Int] {
+        let response = try await APIClient.shared.get("/api/wheel-config/my-wheel")
+        let prizes = response["prizes"] as? [[String: Any]] ?? []
+        
+        return prizes.compactMap { $0["prizeValue"] as? Int }
+    }
+    
+    // The server draws and records the prize
+    func spinWheel() async throws -> WheelSpinResult {
+        let response = try await APIClient.shared.post("/api/wheel/spin")
         
-        _ = try await APIClient.shared.post("/api/wheel/use", body: wheelData)
+        guard let index = response["index"] as? Int,
+              let prizeAmount = response["prizeAmount"] as? Int else {
+            throw APIError.invalidData
+        }
+        return WheelSpinResult(index: index, prizeAmount: prizeAmount)
     }
     
     func fetchOpportunityStats() async throws -> OpportunityStats {
@@ -146,45 +146,22 @@ class LoveCounterManager: ObservableObject {
     
     // MARK: - Prize Wheel Actions
     
-    func spinWheel() -> Int {
-        let prizes = [1, 2, 3, 5, 8, 13, 21, 34]
-        let weights = [30, 25, 20, 15, 5, 3, 1, 1] // Higher chance for smaller prizes
-        
-        let totalWeight = weights.reduce(0, +)
-        let randomValue = Int.random(in: 1...totalWeight)
-        
-        var currentWeight = 0
-        for (index, weight) in weights.enumerated() {
-            currentWeight += weight
-            if randomValue <= currentWeight {
-                return prizes[index]
-            }
-        }
-        
-        return prizes[0] // Fallback
-    }
-    
-    func useWheel(prizeAmount: Int) async {
-        // Update local state immediately
-        await MainActor.run {
-            let currentDate = ISO8601DateFormatter().string(from: Date())
-            wheelStats = WheelStats(
-                canUseThisWeek: false,
-                lastUsedDate: currentDate,
-                totalEarnings: wheelStats.totalEarnings + prizeAmount
-            )
-            saveLocalData()
-        }
-        
-        // Try to sync with server
+    func fetchWheelPrizes() async -> [Int] {
         do {
-            try await dataManager.useWheel(prizeAmount: prizeAmount)
+            return try await dataManager.fetchWheelPrizes()
         } catch {
-            print("Failed to sync wheel use with server: \(error)")
-            // Keep local changes
+            print("Failed to load wheel prizes: \(error)")
+            return []
         }
     }
     
+    // Only the server draws prizes, so a failed spin changes nothing locally
+    func useWheel() async throws -> WheelSpinResult {
+        let result = try await dataManager.spinWheel()
+        await loadData()
+        return result
+    }
+    
     func useOpportunity() async {
         guard opportunityStats.unused > 0 else { return }
         
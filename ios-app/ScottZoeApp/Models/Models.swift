@@ -205,6 +205,14 @@ struct WheelStats: Codable {
     }
 }
 
+// MARK: - Wheel Spin Result Model
+
+// The prize the server drew: its position on the wheel and the love points it awarded
+struct WheelSpinResult {
+    let index: Int
+    let prizeAmount: Int
+}
+
 // MARK: - Opportunity Stats Model
 
 struct OpportunityStats: Codable {
@@ -77,12 +77,15 @@ struct LoveCounterView: View {
             PrizeWheelView(
                 wheelRotation: $wheelRotation,
                 isSpinning: $isSpinning,
-                onSpin: { prize in
+                loadPrizes: {
+                    await loveCounterManager.fetchWheelPrizes()
+                },
+                onSpin: {
+                    try await loveCounterManager.useWheel()
+                },
+                onPrizeWon: { prize in
                     selectedPrize = prize
                     showingPrizeAlert = true
-                    Task {
-                        await loveCounterManager.useWheel(prizeAmount: prize)
-                    }
                 }
             )
         }
@@ -10,14 +10,23 @@ import SwiftUI
 struct PrizeWheelView: View {
     @Binding var wheelRotation: Double
     @Binding var isSpinning: Bool
-    let onSpin: (Int) -> Void
+    let loadPrizes: () async -> [Int]
+    let onSpin: () async throws -> WheelSpinResult
+    let onPrizeWon: (Int) -> Void
     
     @Environment(\.dismiss) private var dismiss
     @State private var selectedPrize: Int?
+    @State private var errorMessage: String?
+    @State private var showingError = false
     
-    private let prizes = [1, 2, 3, 5, 8, 13, 21, 34]
+    // Laid out like the server's default wheel until the configured prizes load
+    @State private var prizes = [1, 5, 10, 25, 77, 100, 500, 1000]
     private let colors: [Color] = [.red, .orange, .yellow, .green, .blue, .purple, .pink, .indigo]
     
+    private var segmentAngle: Double {
+        360.0 / Double(prizes.count)
+    }
+    
     var body: some View {
         NavigationView {
             VStack(spacing: 40) {
@@ -51,8 +60,9 @@ struct PrizeWheelView: View {
                     ForEach(0..<prizes.count, id: \.self) { index in
                         WheelSegment(
                             prize: prizes[index],
-                            color: colors[index],
-                            angle: Double(index) * 45.0,
+                            color: colors[index % colors.count],
+                            angle: Double(index) * segmentAngle,
+                            span: segmentAngle,
                             rotation: wheelRotation
                         )
                     }
@@ -133,6 +143,19 @@ struct PrizeWheelView: View {
                     }
                 }
             }
+            .alert("Spin Failed", isPresented: $showingError) {
+                Button("OK", role: .cancel) {
+                    errorMessage = nil
+                }
+            } message: {
+                Text(errorMessage ?? "The wheel could not be spun. Please try again.")
+            }
+            .task {
+                let configuredPrizes = await loadPrizes()
+                if !configuredPrizes.isEmpty {
+                    prizes = configuredPrizes
+                }
+            }
         }
     }
     
@@ -146,33 +169,44 @@ struct PrizeWheelView: View {
         isSpinning = true
         selectedPrize = nil
         
-        // Calculate random rotation (multiple full rotations + random position)
-        let baseRotation = Double.random(in: 1080...2160) // 3-6 full rotations
-        let finalRotation = wheelRotation + baseRotation
-        
-        // Animate the spin
-        withAnimation(.easeOut(duration: 3.0)) {
-            wheelRotation = finalRotation
-        }
-        
-        // Determine the winning prize after animation
-        DispatchQueue.main.asyncAfter(deadline: .now() + 3.0) {
-            let normalizedRotation = finalRotation.truncatingRemainder(dividingBy: 360)
-            let segmentAngle = 360.0 / Double(prizes.count)
-            let prizeIndex = Int((360 - normalizedRotation + segmentAngle / 2) / segmentAngle) % prizes.count
-            
-            let wonPrize = prizes[prizeIndex]
+        Task { @MainActor in
+            // The server draws and records the prize; the wheel only shows it
+            let result: WheelSpinResult
+            do {
+                result = try await onSpin()
+            } catch {
+                isSpinning = false
+                errorMessage = error.localizedDescription
+                showingError = true
+                return
+            }
             
-            withAnimation(.spring()) {
-                selectedPrize = wonPrize
+            // Stop with the drawn segment under the pointer at 12 o'clock (270° from the segment origin)
+            let targetRotation = 270 - Double(result.index) * segmentAngle
+            var offset = (targetRotation - wheelRotation).truncatingRemainder(dividingBy: 360)
+            if offset < 0 {
+                offset += 360
             }
+            let finalRotation = wheelRotation + Double(Int.random(in: 3...5)) * 360 + offset
             
-            // Success haptic
-            let successFeedback = UINotificationFeedbackGenerator()
-            successFeedback.notificationOccurred(.success)
+            // Animate the spin
+            withAnimation(.easeOut(duration: 3.0)) {
+                wheelRotation = finalRotation
+            }
             
-            isSpinning = false
-            onSpin(wonPrize)
+            // Show the prize after animation
+            DispatchQueue.main.asyncAfter(deadline: .now() + 3.0) {
+                withAnimation(.spring()) {
+                    selectedPrize = result.prizeAmount
+                }
+                
+                // Success haptic
+                let successFeedback = UINotificationFeedbackGenerator()
+                successFeedback.notificationOccurred(.success)
+                
+                isSpinning = false
+                onPrizeWon(result.prizeAmount)
+            }
         }
     }
 }
@@ -181,6 +215,7 @@ struct WheelSegment: View {
     let prize: Int
     let color: Color
     let angle: Double
+    let span: Double
     let rotation: Double
     
     var body: some View {
@@ -189,8 +224,8 @@ struct WheelSegment: View {
             Path { path in
                 let center = CGPoint(x: 150, y: 150)
                 let radius: CGFloat = 150
-                let startAngle = Angle.degrees(angle - 22.5)
-                let endAngle = Angle.degrees(angle + 22.5)
+                let startAngle = Angle.degrees(angle - span / 2)
+                let endAngle = Angle.degrees(angle + span / 2)
                 
                 path.move(to: center)
                 path.addArc(
@@ -207,8 +242,8 @@ struct WheelSegment: View {
                 Path { path in
                     let center = CGPoint(x: 150, y: 150)
                     let radius: CGFloat = 150
-                    let startAngle = Angle.degrees(angle - 22.5)
-                    let endAngle = Angle.degrees(angle + 22.5)
+                    let startAngle = Angle.degrees(angle - span / 2)
+                    let endAngle = Angle.degrees(angle + span / 2)
                     
                     path.move(to: center)
                     path.addArc(
@@ -255,6 +290,8 @@ struct Triangle: Shape {
     PrizeWheelView(
         wheelRotation: .constant(0),
         isSpinning: .constant(false),
-        onSpin: { _ in }
+        loadPrizes: { [] },
+        onSpin: { WheelSpinResult(index: 0, prizeAmount: 1) },
+        onPrizeWon: { _ in }
     )
 }
\ No newline at end of file
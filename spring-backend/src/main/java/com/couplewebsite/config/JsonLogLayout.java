@@ -0,0 +1,96 @@
+package com.couplewebsite.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * One JSON object per log line: timestamp, level, logger, thread, message, MDC
+ * entries and the stack trace if there is one. Runs on the async appender's worker
+ * thread, so it reuses one buffer per thread.
+ */
+public class JsonLogLayout extends LayoutBase<ILoggingEvent> {
+
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringBuilder json = buffers.get();
+        json.setLength(0);
+
+        json.append("{\"timestamp\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.getTimeStamp()), json);
+        json.append("\",\"level\":\"").append(event.getLevel().toString());
+        json.append("\",\"logger\":");
+        appendString(json, event.getLoggerName());
+        json.append(",\"thread\":");
+        appendString(json, event.getThreadName());
+        json.append(",\"message\":");
+        appendString(json, event.getFormattedMessage());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                json.append(',');
+                appendString(json, entry.getKey());
+                json.append(':');
+                appendString(json, entry.getValue());
+            }
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            json.append(",\"exception\":");
+            appendString(json, ThrowableProxyUtil.asString(throwable));
+        }
+
+        json.append('}').append(CoreConstants.LINE_SEPARATOR);
+        String line = json.toString();
+        if (json.capacity() > MAX_RETAINED_CAPACITY) {
+            // Don't keep a huge buffer around after one large stack trace
+            buffers.remove();
+        }
+        return line;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00");
+                        json.append(Character.forDigit(c >> 4, 16));
+                        json.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,27 @@
+package com.couplewebsite.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer metrics for the async logging pipeline: events dropped under overload
+ * and events waiting to be written.
+ */
+@Component
+public class LoggingMetrics {
+
+    @Autowired
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logging.events.dropped", MeteredAsyncAppender.class,
+                        appender -> MeteredAsyncAppender.droppedCount())
+                .description("Log events dropped because the async queue was full")
+                .register(meterRegistry);
+
+        Gauge.builder("logging.queue.depth", MeteredAsyncAppender::queueDepth)
+                .description("Log events waiting for the async writer")
+                .register(meterRegistry);
+    }
+}
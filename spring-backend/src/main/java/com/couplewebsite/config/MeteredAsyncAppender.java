@@ -0,0 +1,65 @@
+package com.couplewebsite.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback async appender that counts the events it drops.
+ *
+ * Configured with neverBlock, a full queue drops the event instead of stalling the
+ * request thread, and below the discarding threshold TRACE to INFO events are
+ * discarded first. Logback starts before Spring, so counts are kept statically and
+ * exposed as metrics by {@link LoggingMetrics}.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private static final Set<MeteredAsyncAppender> RUNNING = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void start() {
+        super.start();
+        if (isStarted()) {
+            RUNNING.add(this);
+        }
+    }
+
+    @Override
+    public void stop() {
+        RUNNING.remove(this);
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Same checks the base class makes before dropping, so the count is close
+        int remaining = getRemainingCapacity();
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            DROPPED.increment();
+        }
+        super.append(event);
+    }
+
+    /**
+     * Events dropped by all running appenders since startup
+     */
+    public static long droppedCount() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * Events waiting to be written across all running appenders
+     */
+    public static int queueDepth() {
+        int depth = 0;
+        for (MeteredAsyncAppender appender : RUNNING) {
+            depth += appender.getNumberOfElementsInQueue();
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,165 @@
+package com.couplewebsite.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Classifies request paths for the servlet filters without regexes or allocation.
+ *
+ * Public exact paths and prefixes live in one trie walked from the start of the
+ * path; file extensions live in tries walked from the end. Each lookup is a single
+ * pass over at most the length of the path.
+ */
+@Component
+public class PathClassifier {
+
+    private static final String[] PUBLIC_PATHS = {
+        "/", "/index.html", "/scott", "/zoe", "/health",
+        "/api/auth/login", "/api/auth/validate",
+        "/api/photos", "/api/photos/test", "/api/categories"
+    };
+
+    private static final String[] PUBLIC_PREFIXES = {
+        "/assets/", "/static/", "/uploads/", "/api/photos/image/",
+        "/api/health", "/api/debug/", "/actuator/health"
+    };
+
+    private static final String[] PUBLIC_EXTENSIONS = {
+        ".css", ".js", ".html", ".ico", ".png", ".jpg", ".jpeg", ".gif", ".svg", ".woff", ".woff2", ".ttf"
+    };
+
+    private static final Map<String, String> STATIC_MIME_TYPES = Map.ofEntries(
+        Map.entry(".css", "text/css"),
+        Map.entry(".js", "application/javascript"),
+        Map.entry(".svg", "image/svg+xml"),
+        Map.entry(".ico", "image/x-icon"),
+        Map.entry(".png", "image/png"),
+        Map.entry(".jpg", "image/jpeg"),
+        Map.entry(".jpeg", "image/jpeg"),
+        Map.entry(".woff", "font/woff"),
+        Map.entry(".woff2", "font/woff2"),
+        Map.entry(".ttf", "font/ttf"),
+        Map.entry(".eot", "application/vnd.ms-fontobject")
+    );
+
+    // Files under /assets/ also get a type for JSON
+    private static final String ASSETS_PREFIX = "/assets/";
+    private static final String JSON_EXTENSION = ".json";
+    private static final String JSON_MIME_TYPE = "application/json";
+
+    private final Trie<Boolean> publicPaths = new Trie<>(false);
+    private final Trie<Boolean> publicExtensions = new Trie<>(true);
+    private final Trie<String> staticTypes = new Trie<>(true);
+    private final Trie<String> assetTypes = new Trie<>(true);
+
+    public PathClassifier() {
+        for (String path : PUBLIC_PATHS) {
+            publicPaths.add(path, Boolean.TRUE, false);
+        }
+        for (String prefix : PUBLIC_PREFIXES) {
+            publicPaths.add(prefix, Boolean.TRUE, true);
+        }
+        for (String extension : PUBLIC_EXTENSIONS) {
+            publicExtensions.add(extension, Boolean.TRUE, true);
+        }
+        STATIC_MIME_TYPES.forEach((extension, type) -> {
+            staticTypes.add(extension, type, true);
+            assetTypes.add(extension, type, true);
+        });
+        assetTypes.add(JSON_EXTENSION, JSON_MIME_TYPE, true);
+    }
+
+    /**
+     * Whether a path is served without JWT authentication
+     */
+    public boolean isPublic(String path) {
+        return publicPaths.match(path) != null || publicExtensions.match(path) != null;
+    }
+
+    /**
+     * MIME type for a static resource path, or null if the path is not one
+     */
+    public String staticMimeType(String path) {
+        return path.startsWith(ASSETS_PREFIX) ? assetTypes.match(path) : staticTypes.match(path);
+    }
+
+    /**
+     * Character trie over exact keys and prefixes. A reversed trie walks keys and
+     * paths from the end, so its "prefixes" match suffixes such as file extensions.
+     */
+    private static final class Trie<V> {
+
+        private final boolean reversed;
+        private final Node<V> root = new Node<>();
+
+        Trie(boolean reversed) {
+            this.reversed = reversed;
+        }
+
+        void add(String key, V value, boolean prefix) {
+            Node<V> node = root;
+            int length = key.length();
+            for (int i = 0; i < length; i++) {
+                node = node.getOrAdd(key.charAt(reversed ? length - 1 - i : i));
+            }
+            if (prefix) {
+                node.prefixValue = value;
+            } else {
+                node.exactValue = value;
+            }
+        }
+
+        V match(String path) {
+            Node<V> node = root;
+            int length = path.length();
+            for (int i = 0; i < length; i++) {
+                if (node.prefixValue != null) {
+                    return node.prefixValue;
+                }
+                node = node.get(path.charAt(reversed ? length - 1 - i : i));
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node.prefixValue != null ? node.prefixValue : node.exactValue;
+        }
+    }
+
+    // Fan-out is a handful of characters, so children are scanned linearly
+    private static final class Node<V> {
+
+        private char[] keys = new char[0];
+        private Node<V>[] children = newArray(0);
+        private V exactValue;
+        private V prefixValue;
+
+        Node<V> get(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node<V> getOrAdd(char c) {
+            Node<V> child = get(c);
+            if (child == null) {
+                child = new Node<>();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                keys[keys.length - 1] = c;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <V> Node<V>[] newArray(int size) {
+            return (Node<V>[]) new Node[size];
+        }
+    }
+}
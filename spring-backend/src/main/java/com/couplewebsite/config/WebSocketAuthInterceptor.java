@@ -1,6 +1,7 @@
 package com.couplewebsite.config;
 
 import com.couplewebsite.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,8 +40,9 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                 try {
                     String token = authToken.substring(7);
                     
-                    if (jwtUtil.validateToken(token)) {
-                        String username = jwtUtil.extractUsername(token);
+                    Claims claims = jwtUtil.verify(token);
+                    if (claims != null) {
+                        String username = claims.getSubject();
                         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                         
                         Authentication authentication = new UsernamePasswordAuthenticationToken(
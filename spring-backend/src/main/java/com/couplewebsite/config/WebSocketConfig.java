@@ -1,31 +1,90 @@
 package com.couplewebsite.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+    
     @Autowired
     private WebSocketAuthInterceptor webSocketAuthInterceptor;
+    
+    @Autowired
+    private WebSocketMetrics webSocketMetrics;
+    
+    @Value("${websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+    
+    @Value("${websocket.inbound.max-pool-size:8}")
+    private int inboundMaxPoolSize;
+    
+    @Value("${websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+    
+    @Value("${websocket.outbound.core-pool-size:4}")
+    private int outboundCorePoolSize;
+    
+    @Value("${websocket.outbound.max-pool-size:8}")
+    private int outboundMaxPoolSize;
+    
+    @Value("${websocket.outbound.queue-capacity:1000}")
+    private int outboundQueueCapacity;
+    
+    @Value("${websocket.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+    
+    @Value("${websocket.virtual-threads:false}")
+    private boolean virtualThreads;
+    
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+    
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    
+    @Value("${websocket.transport.send-time-limit:15000}")
+    private int sendTimeLimit;
 
+    private TaskScheduler messageBrokerTaskScheduler;
+    
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker to carry the messages back to the client
-        // on destinations prefixed with "/topic" and "/queue"
-        config.enableSimpleBroker("/topic", "/queue");
+        // on destinations prefixed with "/topic" and "/queue". One STOMP heartbeat keeps the
+        // connection alive for every stream, so streams need no pings of their own.
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[] {heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         
         // Designate the "/app" prefix for messages that are bound for methods annotated with @MessageMapping
         config.setApplicationDestinationPrefixes("/app");
         
         // Set user destination prefix for private messages
         config.setUserDestinationPrefix("/user");
+        
+        // Deliver messages to each session in publish order (shared note operations rely on it)
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -41,8 +100,59 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*");
     }
     
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Bound what a single slow client can hold on the server: once a session's
+        // pending frames exceed the buffer or time limit the session is closed
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .addDecoratorFactory(webSocketMetrics.sessionTracker());
+    }
+    
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor);
+        ThreadPoolTaskExecutor executor = createChannelExecutor("ws-inbound-",
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+        webSocketMetrics.bindExecutor("inbound", executor);
+        
+        registration.taskExecutor(executor);
+        registration.interceptors(webSocketAuthInterceptor, webSocketMetrics.droppedFrameCounter("inbound"));
+    }
+    
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        ThreadPoolTaskExecutor executor = createChannelExecutor("ws-outbound-",
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+        webSocketMetrics.bindExecutor("outbound", executor);
+        
+        registration.taskExecutor(executor);
+        registration.interceptors(webSocketMetrics.droppedFrameCounter("outbound"));
+    }
+    
+    /**
+     * Build a bounded channel executor. The executor is initialized by Spring when it
+     * is exposed as the clientInbound/OutboundChannelExecutor bean.
+     */
+    private ThreadPoolTaskExecutor createChannelExecutor(String threadNamePrefix, int corePoolSize,
+                                                         int maxPoolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        
+        if (virtualThreads) {
+            try {
+                executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+            } catch (UnsupportedOperationException e) {
+                logger.warn("Virtual threads requested for {} but not supported by this JVM, using platform threads",
+                        threadNamePrefix);
+            }
+        }
+        
+        return executor;
     }
 }
\ No newline at end of file
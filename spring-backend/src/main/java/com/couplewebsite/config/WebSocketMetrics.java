@@ -0,0 +1,125 @@
+package com.couplewebsite.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation for the STOMP broker: channel executor queue depth,
+ * open WebSocket sessions and frames that could not be delivered.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private final Counter slowSessionsClosed;
+
+    @Autowired
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+
+        this.slowSessionsClosed = Counter.builder("websocket.sessions.closed.slow")
+                .description("Sessions closed because they exceeded the send buffer or send time limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register queue depth and active thread gauges for a channel executor
+     */
+    public void bindExecutor(String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("websocket.channel.queue.depth", executor, WebSocketMetrics::queueDepth)
+                .description("Messages waiting for a channel executor thread")
+                .tag("channel", channel)
+                .register(meterRegistry);
+
+        Gauge.builder("websocket.channel.threads.active", executor, WebSocketMetrics::activeThreads)
+                .description("Channel executor threads currently processing a message")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Channel interceptor that counts messages rejected by a full executor queue
+     */
+    public ChannelInterceptor droppedFrameCounter(String channel) {
+        Counter dropped = Counter.builder("websocket.frames.dropped")
+                .description("Messages that could not be handed to the channel executor")
+                .tag("channel", channel)
+                .register(meterRegistry);
+
+        return new ChannelInterceptor() {
+            @Override
+            public void afterSendCompletion(Message<?> message, MessageChannel messageChannel, boolean sent, Exception ex) {
+                if (!sent || ex != null) {
+                    dropped.increment();
+                }
+            }
+        };
+    }
+
+    /**
+     * Handler decorator that tracks open sessions and sessions dropped for being too slow
+     */
+    public WebSocketHandlerDecoratorFactory sessionTracker() {
+        return handler -> new SessionTrackingHandler(handler);
+    }
+
+    private static double queueDepth(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getQueueSize();
+        } catch (IllegalStateException e) {
+            // Executor not initialized yet
+            return 0;
+        }
+    }
+
+    private static double activeThreads(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getActiveCount();
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
+
+    private class SessionTrackingHandler extends WebSocketHandlerDecorator {
+
+        SessionTrackingHandler(WebSocketHandler delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+            activeSessions.incrementAndGet();
+            super.afterConnectionEstablished(session);
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+            activeSessions.decrementAndGet();
+            if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                slowSessionsClosed.increment();
+            }
+            super.afterConnectionClosed(session, closeStatus);
+        }
+    }
+}
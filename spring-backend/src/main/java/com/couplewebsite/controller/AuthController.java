@@ -6,6 +6,7 @@ import com.couplewebsite.entity.User;
 import com.couplewebsite.security.CustomUserDetailsService;
 import com.couplewebsite.security.JwtUtil;
 import com.couplewebsite.service.SettingsService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -122,9 +123,10 @@ public class AuthController {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
                 
-                if (jwtUtil.validateToken(token)) {
-                    String username = jwtUtil.extractUsername(token);
-                    Long userId = jwtUtil.extractUserId(token);
+                Claims claims = jwtUtil.verify(token);
+                if (claims != null) {
+                    String username = claims.getSubject();
+                    Long userId = JwtUtil.userId(claims);
                     
                     Map<String, Object> response = new HashMap<>();
                     response.put("valid", true);
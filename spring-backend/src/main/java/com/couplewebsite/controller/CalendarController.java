@@ -0,0 +1,65 @@
+package com.couplewebsite.controller;
+
+import com.couplewebsite.service.CalendarRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarController.class);
+
+    // Ten years of days per request
+    private static final long MAX_RANGE_DAYS = 3660;
+
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+
+    /**
+     * Per-day counts of photos, memories, wheel prizes and earnings between from and
+     * to (inclusive). Only days with activity are returned.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<?> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "to must not be before from"));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range is limited to " + MAX_RANGE_DAYS + " days"));
+        }
+
+        try {
+            List<CalendarRollupService.DayRollup> days = calendarRollupService.getRange(from, to);
+
+            Map<String, Object> totals = new HashMap<>();
+            totals.put("photos", days.stream().mapToInt(CalendarRollupService.DayRollup::photos).sum());
+            totals.put("memories", days.stream().mapToInt(CalendarRollupService.DayRollup::memories).sum());
+            totals.put("prizes", days.stream().mapToInt(CalendarRollupService.DayRollup::prizes).sum());
+            totals.put("earnings", days.stream().mapToInt(CalendarRollupService.DayRollup::earnings).sum());
+            totals.put("earningsAmount", days.stream().mapToLong(CalendarRollupService.DayRollup::earningsAmount).sum());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("from", from);
+            response.put("to", to);
+            response.put("days", days);
+            response.put("totals", totals);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error loading calendar rollups for {} to {}", from, to, e);
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to load calendar rollups"));
+        }
+    }
+}
@@ -66,9 +66,9 @@ public class CategoryController {
     @GetMapping
     public ResponseEntity<?> getAllCategories() {
         try {
-            logger.info("Fetching all categories with photo counts");
+            logger.debug("Fetching all categories with photo counts");
             List<Category> categories = categoryService.getAllCategoriesWithPhotoCounts();
-            logger.info("Found {} categories", categories.size());
+            logger.debug("Found {} categories", categories.size());
             
             List<Map<String, Object>> categoryResponses = categories.stream()
                     .map(this::createCategoryResponseWithCount)
@@ -188,7 +188,7 @@ public class CategoryController {
             Map<String, Object> response = new HashMap<>();
             response.put("totalCategories", allCategories.size());
             response.put("message", "Total categories in database: " + allCategories.size());
-            logger.info("Category count endpoint: Found {} categories", allCategories.size());
+            logger.debug("Category count endpoint: Found {} categories", allCategories.size());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error getting category count", e);
@@ -204,12 +204,12 @@ public class CategoryController {
     @GetMapping("/admin/debug")
     public ResponseEntity<?> debugCategories() {
         try {
-            logger.info("Debug: Checking raw categories");
+            logger.debug("Debug: Checking raw categories");
             List<Category> allCategories = categoryService.getAllCategories();
-            logger.info("Debug: Found {} raw categories", allCategories.size());
+            logger.debug("Debug: Found {} raw categories", allCategories.size());
             
             List<Category> categoriesWithCounts = categoryService.getAllCategoriesWithPhotoCounts();
-            logger.info("Debug: Found {} categories with counts", categoriesWithCounts.size());
+            logger.debug("Debug: Found {} categories with counts", categoriesWithCounts.size());
             
             Map<String, Object> debugInfo = new HashMap<>();
             debugInfo.put("rawCategoriesCount", allCategories.size());
@@ -238,7 +238,7 @@ public class CategoryController {
     
     @GetMapping("/{categoryId}/debug-photos")
     public ResponseEntity<?> debugPhotosEndpoint(@PathVariable Long categoryId) {
-        logger.info("Debug photos endpoint for category ID: {}", categoryId);
+        logger.debug("Debug photos endpoint for category ID: {}", categoryId);
         
         try {
             // Get basic category info
@@ -281,7 +281,7 @@ public class CategoryController {
      */
     @GetMapping("/{categoryId}/photos")
     public ResponseEntity<?> getPhotosByCategory(@PathVariable Long categoryId) {
-        logger.info("Getting all photos for category ID: {}", categoryId);
+        logger.debug("Getting all photos for category ID: {}", categoryId);
         
         try {
             // First check if category exists
@@ -291,13 +291,13 @@ public class CategoryController {
                 return ResponseEntity.notFound().build();
             }
             
-            logger.info("Category found: {}", basicCategoryOpt.get().getName());
+            logger.debug("Category found: {}", basicCategoryOpt.get().getName());
             
             // Try most basic query first
             Optional<Category> categoryOpt;
             try {
                 categoryOpt = categoryService.getCategoryByIdWithAllPhotos(categoryId);
-                logger.info("Basic query executed successfully");
+                logger.debug("Basic query executed successfully");
                 if (categoryOpt.isEmpty()) {
                     logger.warn("Basic query returned empty, trying simplified query");
                     categoryOpt = categoryService.getCategoryByIdWithPhotosSimple(categoryId);
@@ -318,14 +318,14 @@ public class CategoryController {
             }
             
             Category category = categoryOpt.get();
-            logger.info("Category loaded with {} photos", category.getPhotos().size());
+            logger.debug("Category loaded with {} photos", category.getPhotos().size());
             
             List<Map<String, Object>> photoResponses = category.getPhotos().stream()
                     .filter(photo -> !photo.getIsDeleted())
                     .map(this::createPhotoResponseWithStats)
                     .collect(Collectors.toList());
             
-            logger.info("Found {} non-deleted photos for category ID: {}", photoResponses.size(), categoryId);
+            logger.debug("Found {} non-deleted photos for category ID: {}", photoResponses.size(), categoryId);
             return ResponseEntity.ok(photoResponses);
             
         } catch (Exception e) {
@@ -3,11 +3,12 @@ package com.couplewebsite.controller;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.entity.Love;
 import com.couplewebsite.entity.SavedOpportunity;
-import com.couplewebsite.entity.Earnings;
+import com.couplewebsite.entity.UserStats;
 import com.couplewebsite.service.UserService;
 import com.couplewebsite.service.LoveService;
 import com.couplewebsite.service.SavedOpportunityService;
 import com.couplewebsite.service.EarningsService;
+import com.couplewebsite.service.UserStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +17,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -38,6 +38,9 @@ public class DeveloperController {
     @Autowired
     private EarningsService earningsService;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
     /**
      * Verify developer password
      */
@@ -96,24 +99,14 @@ public class DeveloperController {
             // Get love stats
             LoveService.LoveStats loveStats = loveService.getLoveStats();
             
-            // Get opportunities for both users
-            SavedOpportunityService.OpportunityStats scottOpportunities = savedOpportunityService.getOpportunityStats(scott);
-            SavedOpportunityService.OpportunityStats zoeOpportunities = savedOpportunityService.getOpportunityStats(zoe);
-            
-            // Get earnings history for both users
-            List<Earnings> scottEarnings = earningsService.getEarningsHistory(scott);
-            List<Earnings> zoeEarnings = earningsService.getEarningsHistory(zoe);
+            // Opportunity and earnings totals for both users, one row each
+            UserStats scottStats = userStatsService.getStats(scott);
+            UserStats zoeStats = userStatsService.getStats(zoe);
             
             Map<String, Object> response = new HashMap<>();
             response.put("loveCount", loveStats.getTotalCount());
-            response.put("scott", Map.of(
-                "opportunities", scottOpportunities.getUnused(),
-                "earningsHistory", scottEarnings
-            ));
-            response.put("zoe", Map.of(
-                "opportunities", zoeOpportunities.getUnused(),
-                "earningsHistory", zoeEarnings
-            ));
+            response.put("scott", createUserStatsResponse(scottStats));
+            response.put("zoe", createUserStatsResponse(zoeStats));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -235,4 +228,12 @@ public class DeveloperController {
             return ResponseEntity.status(500).body(Map.of("message", "Server error"));
         }
     }
+    
+    private Map<String, Object> createUserStatsResponse(UserStats stats) {
+        return Map.of(
+            "opportunities", stats.getOpportunitiesUnused(),
+            "earningsCount", stats.getEarningsCount(),
+            "earningsTotal", stats.getEarningsTotal()
+        );
+    }
 }
\ No newline at end of file
@@ -2,11 +2,11 @@ package com.couplewebsite.controller;
 
 import com.couplewebsite.entity.Earnings;
 import com.couplewebsite.entity.User;
+import com.couplewebsite.security.CurrentUser;
 import com.couplewebsite.service.EarningsService;
-import com.couplewebsite.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,14 +21,12 @@ public class EarningsController {
     @Autowired
     private EarningsService earningsService;
 
-    @Autowired
-    private UserService userService;
-
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getTotalEarnings(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> getTotalEarnings(@CurrentUser User user) {
         try {
-            String username = authentication.getName();
-            User user = userService.findByUsername(username);
+            if (user == null) {
+                return ResponseEntity.status(401).build();
+            }
             
             Integer totalEarnings = earningsService.getTotalEarnings(user);
             
@@ -45,13 +43,19 @@ public class EarningsController {
         }
     }
 
+    /**
+     * Add an award. Clients that may retry send an Idempotency-Key header (or an
+     * idempotencyKey field); a repeat with the same key returns the first award.
+     */
     @PostMapping
     public ResponseEntity<Map<String, Object>> addEarnings(
             @RequestBody Map<String, Object> request,
-            Authentication authentication) {
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKeyHeader,
+            @CurrentUser User user) {
         try {
-            String username = authentication.getName();
-            User user = userService.findByUsername(username);
+            if (user == null) {
+                return ResponseEntity.status(401).build();
+            }
             
             Integer amount = (Integer) request.get("amount");
             String source = (String) request.get("source");
@@ -62,15 +66,39 @@ public class EarningsController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
-            Earnings earnings = earningsService.addEarnings(user, amount, source != null ? source : "unknown");
+            Object idempotencyKeyValue = request.get("idempotencyKey");
+            if (idempotencyKeyValue != null && !(idempotencyKeyValue instanceof String)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Invalid idempotency key");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
+            String idempotencyKey = idempotencyKeyHeader != null
+                    ? idempotencyKeyHeader
+                    : (String) idempotencyKeyValue;
+            
+            Earnings earnings;
+            try {
+                earnings = earningsService.addEarnings(user, amount, source != null ? source : "unknown", idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request with the same key won; answer with its award
+                if (idempotencyKey == null) {
+                    throw e;
+                }
+                earnings = earningsService.findByIdempotencyKey(user, idempotencyKey).orElseThrow(() -> e);
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("amount", amount);
+            response.put("amount", earnings.getAmount());
             response.put("total", earnings.getTotalAfter());
             response.put("source", earnings.getSource());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to add earnings");
@@ -79,10 +107,11 @@ public class EarningsController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<Earnings>> getEarningsHistory(Authentication authentication) {
+    public ResponseEntity<List<Earnings>> getEarningsHistory(@CurrentUser User user) {
         try {
-            String username = authentication.getName();
-            User user = userService.findByUsername(username);
+            if (user == null) {
+                return ResponseEntity.status(401).build();
+            }
 
             List<Earnings> history = earningsService.getEarningsHistory(user);
             return ResponseEntity.ok(history);
@@ -92,10 +121,11 @@ public class EarningsController {
     }
 
     @PostMapping("/test")
-    public ResponseEntity<Map<String, Object>> testEarnings(Authentication authentication) {
+    public ResponseEntity<Map<String, Object>> testEarnings(@CurrentUser User user) {
         try {
-            String username = authentication.getName();
-            User user = userService.findByUsername(username);
+            if (user == null) {
+                return ResponseEntity.status(401).build();
+            }
 
             // Add test earnings
             Earnings earnings = earningsService.addEarnings(user, 50, "test");
@@ -105,7 +135,7 @@ public class EarningsController {
             response.put("message", "Test earnings added successfully");
             response.put("amount", 50);
             response.put("total", earnings.getTotalAfter());
-            response.put("userTotalEarnings", user.getTotalEarnings());
+            response.put("userTotalEarnings", earnings.getTotalAfter());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -5,6 +5,8 @@ import com.couplewebsite.entity.EditSession;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.entity.SharedNote;
 import com.couplewebsite.service.EditControlService;
+import com.couplewebsite.service.PresenceRegistry;
+import com.couplewebsite.service.SharedNoteDocumentService;
 import com.couplewebsite.service.UserService;
 import com.couplewebsite.service.SharedNoteService;
 import org.slf4j.Logger;
@@ -14,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +37,12 @@ public class EditControlController {
     @Autowired
     private SharedNoteService sharedNoteService;
     
+    @Autowired
+    private SharedNoteDocumentService sharedNoteDocumentService;
+    
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+    
     /**
      * Get current edit session status for a note
      */
@@ -101,8 +110,8 @@ public class EditControlController {
                 return ResponseEntity.status(400).body(Map.of("error", "Session ID is required"));
             }
             
-            // Update user session
-            editControlService.createOrUpdateUserSession(user.getId(), sessionId);
+            // Update user presence
+            presenceRegistry.heartbeat(user, sessionId);
             
             // Request edit control
             Optional<EditSession> sessionOpt = editControlService.requestEditControl(noteId, user);
@@ -115,14 +124,15 @@ public class EditControlController {
                 EditSession session = sessionOpt.get();
                 response.put("granted", true);
                 response.put("message", "Edit control granted");
-                response.put("session", Map.of(
-                    "id", session.getId(),
-                    "currentEditor", Map.of(
-                        "id", session.getCurrentEditor().getId(),
-                        "username", session.getCurrentEditor().getUsername()
-                    ),
-                    "lockAcquiredAt", session.getLockAcquiredAt()
+                // Edit sessions are held in memory and may not have a database id yet
+                Map<String, Object> sessionInfo = new HashMap<>();
+                sessionInfo.put("id", session.getId());
+                sessionInfo.put("currentEditor", Map.of(
+                    "id", session.getCurrentEditor().getId(),
+                    "username", session.getCurrentEditor().getUsername()
                 ));
+                sessionInfo.put("lockAcquiredAt", session.getLockAcquiredAt());
+                response.put("session", sessionInfo);
                 
                 logger.info("Granted edit control to user: {} for note: {}", user.getUsername(), noteId);
             } else {
@@ -166,6 +176,7 @@ public class EditControlController {
             }
             
             editControlService.releaseEditControl(noteId, user);
+            sharedNoteDocumentService.flush(noteId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("noteId", noteId);
@@ -210,16 +221,18 @@ public class EditControlController {
                 return ResponseEntity.status(400).body(Map.of("error", "Content is required"));
             }
             
-            // Update the note content
-            SharedNote note = sharedNoteService.updateNoteContent(noteId, content);
+            // Update the live note content, the database write happens behind
+            sharedNoteDocumentService.replaceContent(noteId, content, user.getId());
+            SharedNoteDocumentService.DocumentSnapshot snapshot = sharedNoteDocumentService.getSnapshot(noteId);
             
             // Update activity
             editControlService.updateActivity(noteId, user.getId());
             
             Map<String, Object> response = new HashMap<>();
             response.put("noteId", noteId);
-            response.put("content", note.getContent());
-            response.put("updatedAt", note.getUpdatedAt());
+            response.put("content", snapshot.content());
+            response.put("revision", snapshot.revision());
+            response.put("updatedAt", LocalDateTime.now());
             response.put("updatedBy", user.getUsername());
             
             logger.info("Updated content for note: {} by user: {}", noteId, user.getUsername());
@@ -254,9 +267,12 @@ public class EditControlController {
             
             boolean hasEditPermission = editControlService.hasEditPermission(user.getId(), noteId);
             
+            SharedNoteDocumentService.DocumentSnapshot snapshot = sharedNoteDocumentService.getSnapshot(noteId);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("noteId", noteId);
-            response.put("content", note.getContent());
+            response.put("content", snapshot.content());
+            response.put("revision", snapshot.revision());
             response.put("updatedAt", note.getUpdatedAt());
             response.put("hasEditPermission", hasEditPermission);
             
@@ -23,9 +23,6 @@ public class LoveController {
     @Autowired
     private LoveService loveService;
     
-    @Autowired
-    private LoveUpdatesController loveUpdatesController;
-    
     /**
      * Get shared love count and statistics (synchronized between Scott and Zoe)
      */
@@ -59,27 +56,19 @@ public class LoveController {
     @PostMapping("/increment")
     public ResponseEntity<?> incrementLove() {
         try {
-            Love love = loveService.incrementLoveCount();
+            long count = loveService.incrementLoveCount();
             LoveService.LoveStats stats = loveService.getLoveStats();
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Love shared successfully! 💕");
-            response.put("count", love.getCountValue());
+            response.put("count", count);
             response.put("totalCount", stats.getTotalCount());
             response.put("nextMilestone", stats.getNextMilestone());
             response.put("remainingToMilestone", stats.getRemainingToMilestone());
             response.put("currentLevel", stats.getCurrentLevel());
             response.put("progressPercent", stats.getProgressPercent());
-            response.put("isMilestoneReached", loveService.isMilestoneReached(love.getCountValue()));
-            response.put("justReachedMilestone", loveService.isMilestoneReached(love.getCountValue()));
-            
-            // Notify partner about the love count update
-            try {
-                loveUpdatesController.notifyPartner();
-            } catch (Exception notifyException) {
-                logger.warn("Failed to notify partner about love count update", notifyException);
-                // Don't fail the main request if notification fails
-            }
+            response.put("isMilestoneReached", loveService.isMilestoneReached(count));
+            response.put("justReachedMilestone", loveService.isMilestoneReached(count));
             
             return ResponseEntity.ok(response);
             
@@ -1,21 +1,26 @@
 package com.couplewebsite.controller;
 
-import com.couplewebsite.service.LoveService;
+import com.couplewebsite.service.LovePushService;
+import com.couplewebsite.service.RealtimeGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.security.Principal;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Partner love count updates. Clients receive them on their STOMP connection at
+ * /user/queue/love/updates (milestones on /user/queue/love/milestones), with the
+ * current value sent when subscribing to /app/love/partner. The SSE endpoint is
+ * kept for older clients.
+ */
 @RestController
 @RequestMapping("/api/love-updates")
 public class LoveUpdatesController {
@@ -23,10 +28,18 @@ public class LoveUpdatesController {
     private static final Logger logger = LoggerFactory.getLogger(LoveUpdatesController.class);
     
     @Autowired
-    private LoveService loveService;
+    private LovePushService lovePushService;
     
-    // Store SSE emitters for each user
-    private final Map<String, CopyOnWriteArrayList<SseEmitter>> userEmitters = new ConcurrentHashMap<>();
+    @Autowired
+    private RealtimeGateway realtimeGateway;
+    
+    /**
+     * Current partner love count, sent once when a client subscribes to /app/love/partner
+     */
+    @SubscribeMapping("/love/partner")
+    public Map<String, Object> subscribePartnerLove(Principal principal) {
+        return lovePushService.partnerLoveData(principal.getName());
+    }
     
     /**
      * Subscribe to love count updates via Server-Sent Events
@@ -35,89 +48,19 @@ public class LoveUpdatesController {
     public SseEmitter subscribe() {
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
         
-        // Fetch initial data in a separate transaction
-        Long partnerLoveCount = getPartnerLoveCount(currentUsername);
-        String partnerUsername = "scott".equals(currentUsername) ? "zoe" : "scott";
-        String partnerDisplayName = "scott".equals(partnerUsername) ? "Scott" : "Zoe";
-        
-        SseEmitter emitter = new SseEmitter(0L); // No timeout for persistent connection
-        
-        // Add emitter to user's list
-        userEmitters.computeIfAbsent(currentUsername, k -> new CopyOnWriteArrayList<>()).add(emitter);
-        
-        // Remove emitter when connection is closed
-        emitter.onCompletion(() -> {
-            try {
-                removeEmitter(currentUsername, emitter);
-            } catch (Exception e) {
-                logger.warn("Error during emitter completion cleanup: {}", e.getMessage());
-            }
-        });
-        emitter.onTimeout(() -> {
-            try {
-                removeEmitter(currentUsername, emitter);
-            } catch (Exception e) {
-                logger.warn("Error during emitter timeout cleanup: {}", e.getMessage());
-            }
-        });
-        emitter.onError((ex) -> {
-            try {
-                logger.error("SSE error for user: " + currentUsername, ex);
-                removeEmitter(currentUsername, emitter);
-            } catch (Exception e) {
-                logger.warn("Error during emitter error cleanup: {}", e.getMessage());
-            }
-        });
-        
-        // Send initial data (no transaction context here)
-        try {
-            emitter.send(SseEmitter.event()
-                .name("partner-love-update")
-                .data(Map.of(
-                    "partnerUsername", partnerUsername,
-                    "partnerLoveCount", partnerLoveCount,
-                    "partnerDisplayName", partnerDisplayName
-                )));
-        } catch (IOException e) {
-            logger.error("Error sending initial SSE data", e);
-            removeEmitter(currentUsername, emitter);
-        }
-        
-        logger.info("SSE subscription created for user: {}", currentUsername);
-        return emitter;
+        return realtimeGateway.openSse(currentUsername, LovePushService.PARTNER_LOVE_UPDATE,
+            lovePushService.partnerLoveData(currentUsername));
     }
     
     /**
-     * Notify partner about love count update
+     * Notify partner about love count update. Increments already push to the partner,
+     * this only asks for an extra (debounced) push for older clients.
      */
     @PostMapping("/notify-partner")
     public ResponseEntity<?> notifyPartner() {
         try {
             String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            String partnerUsername = "scott".equals(currentUsername) ? "zoe" : "scott";
-            
-            // Get current user's love count without transaction to avoid connection leaks
-            Long currentUserLoveCount = loveService.getCurrentUserLoveCountNonTransactional();
-            String currentDisplayName = "scott".equals(currentUsername) ? "Scott" : "Zoe";
-            
-            // Send update to partner's SSE connections
-            CopyOnWriteArrayList<SseEmitter> partnerEmitters = userEmitters.get(partnerUsername);
-            if (partnerEmitters != null) {
-                for (SseEmitter emitter : partnerEmitters) {
-                    try {
-                        emitter.send(SseEmitter.event()
-                            .name("partner-love-update")
-                            .data(Map.of(
-                                "partnerUsername", currentUsername,
-                                "partnerLoveCount", currentUserLoveCount,
-                                "partnerDisplayName", currentDisplayName
-                            )));
-                    } catch (IOException e) {
-                        logger.error("Error sending SSE update to partner", e);
-                        removeEmitter(partnerUsername, emitter);
-                    }
-                }
-            }
+            lovePushService.requestPush(currentUsername);
             
             return ResponseEntity.ok(Map.of("message", "Partner notified successfully"));
             
@@ -126,25 +69,4 @@ public class LoveUpdatesController {
             return ResponseEntity.status(500).body(Map.of("message", "Server error"));
         }
     }
-    
-    private void removeEmitter(String username, SseEmitter emitter) {
-        try {
-            CopyOnWriteArrayList<SseEmitter> emitters = userEmitters.get(username);
-            if (emitters != null) {
-                emitters.remove(emitter);
-                if (emitters.isEmpty()) {
-                    userEmitters.remove(username);
-                }
-            }
-            logger.info("SSE emitter removed for user: {}", username);
-        } catch (Exception e) {
-            // Handle any security context issues during cleanup
-            logger.warn("Error during emitter removal for user {}: {}", username, e.getMessage());
-        }
-    }
-    
-    private Long getPartnerLoveCount(String currentUsername) {
-        String partnerUsername = "scott".equals(currentUsername) ? "zoe" : "scott";
-        return loveService.getLoveCountByUsernameNonTransactional(partnerUsername);
-    }
-}
\ No newline at end of file
+}
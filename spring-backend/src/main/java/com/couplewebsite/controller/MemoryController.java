@@ -1,12 +1,14 @@
 package com.couplewebsite.controller;
 
 import com.couplewebsite.entity.Memory;
+import com.couplewebsite.entity.Photo;
 import com.couplewebsite.service.MemoryService;
 import com.couplewebsite.service.SettingsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -211,14 +213,40 @@ public class MemoryController {
     }
     
     /**
-     * Get memories filtered by time period
+     * Get memories filtered by time period. With page (0-based) the response is one
+     * page with pagination info, otherwise the full list.
      */
     @GetMapping("/filter")
     public ResponseEntity<?> getMemoriesFiltered(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) String timeFilter,
-            @RequestParam(required = false) String sortOrder) {
+            @RequestParam(required = false) String sortOrder,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
+            if (page != null) {
+                if (page < 0 || limit < 1 || limit > 100) {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("message", "page must be >= 0 and limit between 1 and 100");
+                    return ResponseEntity.badRequest().body(error);
+                }
+                Page<Memory> memoryPage = memoryService.getMemoriesFiltered(type, timeFilter, sortOrder, page, limit);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("memories", memoryPage.getContent().stream()
+                        .map(this::createMemoryResponse)
+                        .collect(Collectors.toList()));
+                
+                Map<String, Object> pagination = new HashMap<>();
+                pagination.put("page", page);
+                pagination.put("limit", limit);
+                pagination.put("total", memoryPage.getTotalElements());
+                pagination.put("totalPages", memoryPage.getTotalPages());
+                response.put("pagination", pagination);
+                
+                return ResponseEntity.ok(response);
+            }
+            
             List<Memory> memories = memoryService.getMemoriesFiltered(type, timeFilter, sortOrder);
             
             List<Map<String, Object>> memoryResponses = memories.stream()
@@ -310,17 +338,61 @@ public class MemoryController {
         }
     }
     
+    /**
+     * Get one page of the photos attached to a memory, newest first
+     */
+    @GetMapping("/{id}/photos")
+    public ResponseEntity<?> getMemoryPhotos(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (page < 0 || limit < 1 || limit > 200) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "page must be >= 0 and limit between 1 and 200");
+            return ResponseEntity.status(400).body(error);
+        }
+        try {
+            Page<Photo> photoPage = memoryService.getMemoryPhotos(id, page, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("photos", photoPage.getContent().stream()
+                    .map(this::createPhotoResponse)
+                    .collect(Collectors.toList()));
+            
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("page", page);
+            pagination.put("limit", limit);
+            pagination.put("total", photoPage.getTotalElements());
+            pagination.put("totalPages", photoPage.getTotalPages());
+            response.put("pagination", pagination);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(error);
+        } catch (Exception e) {
+            logger.error("Error fetching photos for memory with ID: {}", id, e);
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Server error");
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+    
     /**
      * Add photos to an EVENT memory
      */
     @PostMapping("/{id}/photos")
     public ResponseEntity<?> addPhotosToMemory(@PathVariable Long id, @RequestBody List<Long> photoIds) {
         try {
-            Memory memory = memoryService.addPhotosToMemory(id, photoIds);
+            MemoryService.PhotoLinkResult result = memoryService.addPhotosToMemory(id, photoIds);
             
+            // The photo list is not echoed back; page through GET /{id}/photos instead
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Photos added to memory successfully");
-            response.put("memory", createMemoryResponse(memory));
+            response.put("memory", createMemoryResponse(result.memory(), false));
+            response.put("added", result.changed());
             
             return ResponseEntity.ok(response);
             
@@ -342,11 +414,12 @@ public class MemoryController {
     @DeleteMapping("/{id}/photos")
     public ResponseEntity<?> removePhotosFromMemory(@PathVariable Long id, @RequestBody List<Long> photoIds) {
         try {
-            Memory memory = memoryService.removePhotosFromMemory(id, photoIds);
+            MemoryService.PhotoLinkResult result = memoryService.removePhotosFromMemory(id, photoIds);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Photos removed from memory successfully");
-            response.put("memory", createMemoryResponse(memory));
+            response.put("memory", createMemoryResponse(result.memory(), false));
+            response.put("removed", result.changed());
             
             return ResponseEntity.ok(response);
             
@@ -364,6 +437,10 @@ public class MemoryController {
     
     // Helper method to create memory response
     private Map<String, Object> createMemoryResponse(Memory memory) {
+        return createMemoryResponse(memory, true);
+    }
+    
+    private Map<String, Object> createMemoryResponse(Memory memory, boolean includePhotos) {
         Map<String, Object> response = new HashMap<>();
         response.put("id", memory.getId());
         response.put("title", memory.getTitle());
@@ -379,16 +456,9 @@ public class MemoryController {
         }
         
         // Include photos for EVENT type memories
-        if (memory.getType() == Memory.MemoryType.EVENT && memory.getPhotos() != null) {
+        if (includePhotos && memory.getType() == Memory.MemoryType.EVENT && memory.getPhotos() != null) {
             List<Map<String, Object>> photoList = memory.getPhotos().stream()
-                .map(photo -> {
-                    Map<String, Object> photoMap = new HashMap<>();
-                    photoMap.put("id", photo.getId());
-                    photoMap.put("filename", photo.getFilename());
-                    photoMap.put("originalName", photo.getOriginalName());
-                    photoMap.put("caption", photo.getCaption());
-                    return photoMap;
-                })
+                .map(this::createPhotoResponse)
                 .collect(Collectors.toList());
             response.put("photos", photoList);
         }
@@ -396,6 +466,15 @@ public class MemoryController {
         return response;
     }
     
+    private Map<String, Object> createPhotoResponse(Photo photo) {
+        Map<String, Object> photoMap = new HashMap<>();
+        photoMap.put("id", photo.getId());
+        photoMap.put("filename", photo.getFilename());
+        photoMap.put("originalName", photo.getOriginalName());
+        photoMap.put("caption", photo.getCaption());
+        return photoMap;
+    }
+    
     // Request DTO
     public static class CreateMemoryRequest {
         private String title;
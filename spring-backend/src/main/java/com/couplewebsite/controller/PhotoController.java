@@ -78,9 +78,9 @@ public class PhotoController {
         
         try {
             // Debug logging for multipart request
-            logger.info("Content-Type: {}", request.getContentType());
-            logger.info("Content-Length: {}", request.getContentLength());
-            logger.info("Is multipart: {}", request.getContentType() != null && request.getContentType().startsWith("multipart/"));
+            logger.debug("Content-Type: {}", request.getContentType());
+            logger.debug("Content-Length: {}", request.getContentLength());
+            logger.debug("Is multipart: {}", request.getContentType() != null && request.getContentType().startsWith("multipart/"));
             
             if (files == null || files.isEmpty()) {
                 Map<String, String> error = new HashMap<>();
@@ -121,9 +121,9 @@ public class PhotoController {
             @RequestParam(defaultValue = "20") int limit) {
         
         try {
-            logger.info("Fetching photos with page={}, limit={}", page, limit);
+            logger.debug("Fetching photos with page={}, limit={}", page, limit);
             Page<Photo> photoPage = photoService.getAllPhotos(page, limit);
-            logger.info("Found {} photos, total elements: {}", photoPage.getContent().size(), photoPage.getTotalElements());
+            logger.debug("Found {} photos, total elements: {}", photoPage.getContent().size(), photoPage.getTotalElements());
             
             Map<String, Object> response = new HashMap<>();
             response.put("photos", photoPage.getContent().stream()
@@ -137,7 +137,7 @@ public class PhotoController {
             pagination.put("totalPages", photoPage.getTotalPages());
             response.put("pagination", pagination);
             
-            logger.info("Returning response with {} photos", photoPage.getContent().size());
+            logger.debug("Returning response with {} photos", photoPage.getContent().size());
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -154,15 +154,15 @@ public class PhotoController {
     @GetMapping("/all")
     public ResponseEntity<?> getAllPhotosNoPagination() {
         try {
-            logger.info("Fetching all photos without pagination");
+            logger.debug("Fetching all photos without pagination");
             List<Photo> allPhotos = photoService.getAllPhotosNoPagination();
-            logger.info("Found {} photos total", allPhotos.size());
+            logger.debug("Found {} photos total", allPhotos.size());
             
             List<Map<String, Object>> photoResponses = allPhotos.stream()
                     .map(this::createPhotoResponseWithStats)
                     .collect(Collectors.toList());
             
-            logger.info("Returning response with {} photos", photoResponses.size());
+            logger.debug("Returning response with {} photos", photoResponses.size());
             return ResponseEntity.ok(photoResponses);
             
         } catch (Exception e) {
@@ -483,13 +483,13 @@ public class PhotoController {
     @GetMapping("/favorites/all")
     public ResponseEntity<?> getAllFavoritePhotos(Authentication authentication) {
         try {
-            logger.info("Fetching all favorite photos without pagination");
+            logger.debug("Fetching all favorite photos without pagination");
             List<Photo> favoritePhotos = photoService.getFavoritePhotos();
             List<Map<String, Object>> favorites = favoritePhotos.stream()
                 .map(this::createPhotoResponseWithStats)
                 .collect(Collectors.toList());
             
-            logger.info("Returning {} favorite photos", favorites.size());
+            logger.debug("Returning {} favorite photos", favorites.size());
             return ResponseEntity.ok(favorites);
         } catch (Exception e) {
             logger.error("Error getting all favorite photos: ", e);
@@ -0,0 +1,66 @@
+package com.couplewebsite.controller;
+
+import com.couplewebsite.service.SharedNoteHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/shared-notes/{noteId}/versions")
+public class SharedNoteHistoryController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SharedNoteHistoryController.class);
+    
+    @Autowired
+    private SharedNoteHistoryService sharedNoteHistoryService;
+    
+    /**
+     * List the newest versions of a note
+     */
+    @GetMapping
+    public ResponseEntity<?> listVersions(@PathVariable Long noteId,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(sharedNoteHistoryService.listRevisions(noteId, limit));
+        } catch (Exception e) {
+            logger.error("Error listing versions for note {}", noteId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+    
+    /**
+     * Get the note content at a version
+     */
+    @GetMapping("/{version}")
+    public ResponseEntity<?> getVersion(@PathVariable Long noteId, @PathVariable long version) {
+        try {
+            return ResponseEntity.ok(sharedNoteHistoryService.getRevision(noteId, version));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting version {} of note {}", version, noteId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+    
+    /**
+     * Get the operations between two versions, one per version
+     */
+    @GetMapping("/diff")
+    public ResponseEntity<?> getDiff(@PathVariable Long noteId,
+                                     @RequestParam long from,
+                                     @RequestParam long to) {
+        try {
+            return ResponseEntity.ok(sharedNoteHistoryService.getRange(noteId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error getting versions {}..{} of note {}", from, to, noteId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "Internal server error"));
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.couplewebsite.controller;
 
 import com.couplewebsite.dto.EditControlMessage;
+import com.couplewebsite.dto.NoteOperationMessage;
+import com.couplewebsite.dto.PresenceMessage;
 import com.couplewebsite.dto.WindowPositionDto;
 import com.couplewebsite.entity.EditSession;
 import com.couplewebsite.entity.SharedNote;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.entity.WindowPosition;
 import com.couplewebsite.service.EditControlService;
+import com.couplewebsite.service.PresenceRegistry;
+import com.couplewebsite.service.SharedNoteDocumentService;
+import com.couplewebsite.service.TextOperation;
 import com.couplewebsite.service.UserService;
 import com.couplewebsite.service.WindowPositionService;
 import com.couplewebsite.repository.SharedNoteRepository;
@@ -17,6 +22,7 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.context.event.EventListener;
@@ -26,6 +32,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -49,6 +56,12 @@ public class SharedNoteWebSocketController {
     @Autowired
     private EditControlService editControlService;
     
+    @Autowired
+    private SharedNoteDocumentService sharedNoteDocumentService;
+    
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+    
     /**
      * Handle subscription to shared note updates
      */
@@ -63,12 +76,14 @@ public class SharedNoteWebSocketController {
             String username = principal.getName();
             logger.info("User {} subscribed to shared note updates", username);
             
-            // Get current note
+            // Get current note, content comes from the live document
             SharedNote currentNote = getOrCreateSharedNote();
+            SharedNoteDocumentService.DocumentSnapshot snapshot = sharedNoteDocumentService.getSnapshot(currentNote.getId());
             
             Map<String, Object> response = new HashMap<>();
             response.put("type", "INITIAL_CONTENT");
-            response.put("content", currentNote.getContent());
+            response.put("content", snapshot.content());
+            response.put("revision", snapshot.revision());
             response.put("noteId", currentNote.getId());
             response.put("timestamp", LocalDateTime.now());
             
@@ -159,8 +174,10 @@ public class SharedNoteWebSocketController {
     
     private void handleRequestEditControl(EditControlMessage message, User user) {
         try {
-            // Create or update user session
-            editControlService.createOrUpdateUserSession(user.getId(), message.getSessionId());
+            // Create or update user presence
+            if (message.getSessionId() != null) {
+                presenceRegistry.heartbeat(user, message.getSessionId());
+            }
             
             // Request edit control
             Optional<EditSession> sessionOpt = editControlService.requestEditControl(message.getNoteId(), user);
@@ -208,6 +225,7 @@ public class SharedNoteWebSocketController {
     private void handleReleaseEditControl(EditControlMessage message, User user) {
         try {
             editControlService.releaseEditControl(message.getNoteId(), user);
+            sharedNoteDocumentService.flush(message.getNoteId());
             
             // Notify all users that edit control has been released
             EditControlMessage releaseMessage = EditControlMessage.editControlReleased(
@@ -232,12 +250,8 @@ public class SharedNoteWebSocketController {
                 return;
             }
             
-            // Update the shared note content
-            SharedNote note = sharedNoteRepository.findById(message.getNoteId())
-                .orElseThrow(() -> new RuntimeException("Shared note not found"));
-            
-            note.setContent(message.getContent());
-            sharedNoteRepository.save(note);
+            // Apply to the live document, the database write happens behind
+            sharedNoteDocumentService.replaceContent(message.getNoteId(), message.getContent(), user.getId());
             
             // Update activity
             editControlService.updateActivity(message.getNoteId(), user.getId());
@@ -257,13 +271,11 @@ public class SharedNoteWebSocketController {
     
     private void handleTypingStatus(EditControlMessage message, User user) {
         try {
-            // Verify user has edit permission
-            if (!editControlService.canUserEdit(user.getId(), message.getNoteId())) {
-                return;
+            // Delta clients type without edit control; only a lock holder's lease is kept alive
+            if (editControlService.canUserEdit(user.getId(), message.getNoteId())) {
+                editControlService.updateActivity(message.getNoteId(), user.getId());
             }
-            
-            // Update activity
-            editControlService.updateActivity(message.getNoteId(), user.getId());
+            presenceRegistry.setTyping(user, Boolean.TRUE.equals(message.getIsTyping()));
             
             // Broadcast typing status to all users except sender
             EditControlMessage typingMessage = EditControlMessage.typingStatus(
@@ -278,6 +290,53 @@ public class SharedNoteWebSocketController {
         }
     }
     
+    /**
+     * Handle delta operations. Both users may send operations at the same time,
+     * no edit control is needed; the server orders and transforms them.
+     */
+    @MessageMapping("/shared-note/operation")
+    public void handleOperation(@Payload NoteOperationMessage message, Principal principal) {
+        if (principal == null) {
+            logger.warn("Principal is null - user not authenticated for shared note operation");
+            return;
+        }
+        
+        String username = principal.getName();
+        try {
+            User user = userService.findByUsername(username);
+            if (message.getNoteId() == null || message.getRevision() == null) {
+                logger.warn("Ignoring shared note operation without note ID or revision from user {}", username);
+                return;
+            }
+            
+            TextOperation operation = TextOperation.fromJson(message.getOperation());
+            sharedNoteDocumentService.applyOperation(message.getNoteId(), message.getRevision(), operation,
+                user.getId(), user.getUsername(), message.getClientOpId());
+            
+            logger.debug("Applied operation from user: {} for note: {}", username, message.getNoteId());
+            
+        } catch (SharedNoteDocumentService.StaleRevisionException | IllegalArgumentException e) {
+            // Client is out of step with the server document, send it the full state
+            logger.warn("Rejected operation from user {}: {}", username, e.getMessage());
+            sendResync(username, message.getNoteId());
+        } catch (Exception e) {
+            logger.error("Error handling shared note operation", e);
+        }
+    }
+    
+    private void sendResync(String username, Long noteId) {
+        try {
+            if (noteId == null) {
+                return;
+            }
+            SharedNoteDocumentService.DocumentSnapshot snapshot = sharedNoteDocumentService.getSnapshot(noteId);
+            NoteOperationMessage resync = NoteOperationMessage.resync(noteId, snapshot.revision(), snapshot.content());
+            messagingTemplate.convertAndSendToUser(username, "/queue/shared-note/operations", resync);
+        } catch (Exception e) {
+            logger.error("Error sending shared note resync to user {}", username, e);
+        }
+    }
+    
     /**
      * Handle user connection events
      */
@@ -291,7 +350,7 @@ public class SharedNoteWebSocketController {
             if (principal != null) {
                 User user = userService.findByUsername(principal.getName());
                 if (user != null) {
-                    editControlService.createUserSession(user.getId(), sessionId);
+                    presenceRegistry.connect(user, sessionId);
                     logger.info("User {} connected with session {}", principal.getName(), sessionId);
                 }
             }
@@ -314,7 +373,8 @@ public class SharedNoteWebSocketController {
             if (principal != null) {
                 User user = userService.findByUsername(principal.getName());
                 if (user != null) {
-                    editControlService.disconnectUserSession(sessionId);
+                    presenceRegistry.disconnect(sessionId);
+                    sharedNoteDocumentService.flushAll();
                     logger.info("User {} disconnected with session {}", principal.getName(), sessionId);
                 }
             }
@@ -324,6 +384,15 @@ public class SharedNoteWebSocketController {
         }
     }
     
+    /**
+     * Current presence of both users, sent once when a client subscribes to /app/presence.
+     * Changes follow on /topic/presence.
+     */
+    @SubscribeMapping("/presence")
+    public List<PresenceMessage> getPresence() {
+        return presenceRegistry.getPresence();
+    }
+    
     /**
      * Handle heartbeat/ping messages
      */
@@ -338,11 +407,11 @@ public class SharedNoteWebSocketController {
             response.put("user", principal.getName());
             logger.debug("Ping received from user: {}", principal.getName());
             
-            // Update user session ping
+            // Heartbeats only touch the in-memory presence registry
             try {
                 User user = userService.findByUsername(principal.getName());
-                if (user != null && payload.containsKey("sessionId")) {
-                    editControlService.createOrUpdateUserSession(user.getId(), (String) payload.get("sessionId"));
+                if (user != null && payload.get("sessionId") instanceof String sessionId) {
+                    presenceRegistry.heartbeat(user, sessionId);
                 }
             } catch (Exception e) {
                 logger.error("Error updating user session ping", e);
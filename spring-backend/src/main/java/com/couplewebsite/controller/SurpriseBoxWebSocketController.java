@@ -1,15 +1,17 @@
 package com.couplewebsite.controller;
 
+import com.couplewebsite.dto.BoxNotification;
 import com.couplewebsite.entity.SurpriseBox;
 import com.couplewebsite.entity.User;
+import com.couplewebsite.service.PreEncodedMessagingService;
 import com.couplewebsite.service.SurpriseBoxService;
 import com.couplewebsite.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
@@ -23,8 +25,10 @@ public class SurpriseBoxWebSocketController {
     
     private static final Logger logger = LoggerFactory.getLogger(SurpriseBoxWebSocketController.class);
     
+    private static final String UPDATES_QUEUE = "/queue/surprise-box/updates";
+    
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private PreEncodedMessagingService preEncodedMessagingService;
     
     @Autowired
     private SurpriseBoxService surpriseBoxService;
@@ -81,12 +85,11 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxDroppedNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_DROPPED", box);
-            notification.put("message", "A surprise box has been dropped for you!");
+            BoxNotification notification = BoxNotification.of("BOX_DROPPED", box,
+                "A surprise box has been dropped for you!");
             
             // Send to recipient
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getRecipient());
             
             logger.info("Sent box dropped notification for box {} to user {}", box.getId(), box.getRecipient().getUsername());
             
@@ -100,12 +103,11 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxOpenedNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_OPENED", box);
-            notification.put("message", "Your surprise box has been opened and is waiting for approval!");
+            BoxNotification notification = BoxNotification.of("BOX_OPENED", box,
+                "Your surprise box has been opened and is waiting for approval!");
             
             // Send to owner
-            String ownerDestination = "/user/" + box.getOwner().getUsername() + "/queue/surprise-box/updates";
-            messagingTemplate.convertAndSend(ownerDestination, notification);
+            sendNotification(notification, box.getOwner());
             
             logger.info("Sent box opened notification for box {} to user {}", box.getId(), box.getOwner().getUsername());
             
@@ -119,12 +121,11 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxApprovedNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_APPROVED", box);
-            notification.put("message", "Congratulations! Your prize has been approved and claimed!");
+            BoxNotification notification = BoxNotification.of("BOX_APPROVED", box,
+                "Congratulations! Your prize has been approved and claimed!");
             
             // Send to recipient
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getRecipient());
             
             logger.info("Sent box approved notification for box {} to user {}", box.getId(), box.getRecipient().getUsername());
             
@@ -138,13 +139,12 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxRejectedNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_REJECTED", box);
-            notification.put("message", "Your box completion was rejected. Try again with extended time!");
-            notification.put("rejectionReason", box.getRejectionReason());
+            BoxNotification notification = BoxNotification.of("BOX_REJECTED", box,
+                "Your box completion was rejected. Try again with extended time!")
+                .withRejectionReason(box.getRejectionReason());
             
             // Send to recipient
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getRecipient());
             
             logger.info("Sent box rejected notification for box {} to user {}", box.getId(), box.getRecipient().getUsername());
             
@@ -158,15 +158,10 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxExpiredNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_EXPIRED", box);
-            notification.put("message", "A surprise box has expired.");
+            BoxNotification notification = BoxNotification.of("BOX_EXPIRED", box, "A surprise box has expired.");
             
             // Send to both owner and recipient
-            String ownerDestination = "/user/" + box.getOwner().getUsername() + "/queue/surprise-box/updates";
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            
-            messagingTemplate.convertAndSend(ownerDestination, notification);
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getOwner(), box.getRecipient());
             
             logger.info("Sent box expired notification for box {} to both users", box.getId());
             
@@ -180,13 +175,11 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxCancelledNotification(SurpriseBox box) {
         try {
-            Map<String, Object> notification = createBoxNotification("BOX_CANCELLED", box);
-            notification.put("message", "A surprise box has been cancelled.");
-            
             // Send to recipient if box was already dropped
             if (box.getDroppedAt() != null) {
-                String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-                messagingTemplate.convertAndSend(recipientDestination, notification);
+                BoxNotification notification = BoxNotification.of("BOX_CANCELLED", box,
+                    "A surprise box has been cancelled.");
+                sendNotification(notification, box.getRecipient());
             }
             
             logger.info("Sent box cancelled notification for box {}", box.getId());
@@ -201,15 +194,10 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendBoxStatusUpdate(SurpriseBox box, String message) {
         try {
-            Map<String, Object> notification = createBoxNotification("STATUS_UPDATE", box);
-            notification.put("message", message);
+            BoxNotification notification = BoxNotification.of("STATUS_UPDATE", box, message);
             
             // Send to both owner and recipient
-            String ownerDestination = "/user/" + box.getOwner().getUsername() + "/queue/surprise-box/updates";
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            
-            messagingTemplate.convertAndSend(ownerDestination, notification);
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getOwner(), box.getRecipient());
             
             logger.info("Sent status update for box {} to both users: {}", box.getId(), message);
             
@@ -223,13 +211,11 @@ public class SurpriseBoxWebSocketController {
      */
     public void sendCountdownUpdate(SurpriseBox box, long minutesRemaining) {
         try {
-            Map<String, Object> notification = createBoxNotification("COUNTDOWN_UPDATE", box);
-            notification.put("message", "Box dropping soon!");
-            notification.put("minutesRemaining", minutesRemaining);
+            BoxNotification notification = BoxNotification.of("COUNTDOWN_UPDATE", box, "Box dropping soon!")
+                .withMinutesRemaining(minutesRemaining);
             
             // Send to recipient
-            String recipientDestination = "/user/" + box.getRecipient().getUsername() + "/queue/surprise-box/updates";
-            messagingTemplate.convertAndSend(recipientDestination, notification);
+            sendNotification(notification, box.getRecipient());
             
             logger.debug("Sent countdown update for box {} - {} minutes remaining", box.getId(), minutesRemaining);
             
@@ -238,40 +224,11 @@ public class SurpriseBoxWebSocketController {
         }
     }
     
-    // Helper method to create base notification structure
-    private Map<String, Object> createBoxNotification(String type, SurpriseBox box) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", type);
-        notification.put("timestamp", LocalDateTime.now().toString());
-        
-        // Box information
-        Map<String, Object> boxInfo = new HashMap<>();
-        boxInfo.put("id", box.getId());
-        boxInfo.put("prizeName", box.getPrizeName());
-        boxInfo.put("status", box.getStatus().name());
-        boxInfo.put("completionType", box.getCompletionType().name());
-        boxInfo.put("dropAt", box.getDropAt());
-        boxInfo.put("expiresAt", box.getCalculatedExpiresAt());
-        boxInfo.put("isExpired", box.isExpired());
-        
-        if (box.getOwner() != null) {
-            Map<String, Object> ownerInfo = new HashMap<>();
-            ownerInfo.put("id", box.getOwner().getId());
-            ownerInfo.put("name", box.getOwner().getName());
-            ownerInfo.put("username", box.getOwner().getUsername());
-            boxInfo.put("owner", ownerInfo);
-        }
-        
-        if (box.getRecipient() != null) {
-            Map<String, Object> recipientInfo = new HashMap<>();
-            recipientInfo.put("id", box.getRecipient().getId());
-            recipientInfo.put("name", box.getRecipient().getName());
-            recipientInfo.put("username", box.getRecipient().getUsername());
-            boxInfo.put("recipient", recipientInfo);
+    // Serialize the notification once and deliver the same frame payload to every user
+    private void sendNotification(BoxNotification notification, User... users) throws JsonProcessingException {
+        byte[] payload = preEncodedMessagingService.encode(notification);
+        for (User user : users) {
+            preEncodedMessagingService.sendToUser(user.getUsername(), UPDATES_QUEUE, payload);
         }
-        
-        notification.put("box", boxInfo);
-        
-        return notification;
     }
 }
\ No newline at end of file
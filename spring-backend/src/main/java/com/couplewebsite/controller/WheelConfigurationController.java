@@ -3,12 +3,16 @@ package com.couplewebsite.controller;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.entity.WheelConfiguration;
 import com.couplewebsite.entity.WheelPrizeTemplate;
+import com.couplewebsite.security.CurrentUser;
+import com.couplewebsite.service.WheelConfigurationCache;
 import com.couplewebsite.service.WheelConfigurationService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -16,7 +20,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -32,28 +35,13 @@ public class WheelConfigurationController {
      * Get current user's active wheel configuration
      */
     @GetMapping("/my-wheel")
-    public ResponseEntity<?> getMyWheelConfiguration() {
+    public ResponseEntity<?> getMyWheelConfiguration(@CurrentUser User user) {
         try {
-            Optional<WheelConfiguration> configOpt = wheelConfigurationService.getCurrentUserActiveWheelConfiguration();
-            
-            if (configOpt.isEmpty()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("hasConfiguration", false);
-                response.put("message", "No wheel configuration found");
-                return ResponseEntity.ok(response);
+            if (user == null) {
+                return ResponseEntity.status(401).build();
             }
             
-            WheelConfiguration config = configOpt.get();
-            List<WheelPrizeTemplate> prizeTemplates = wheelConfigurationService.getPrizeTemplates(config);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("hasConfiguration", true);
-            response.put("configuration", createConfigurationResponse(config));
-            response.put("prizes", prizeTemplates.stream()
-                    .map(this::createPrizeTemplateResponse)
-                    .collect(Collectors.toList()));
-            
-            return ResponseEntity.ok(response);
+            return cachedWheelResponse(wheelConfigurationService.getCachedWheel(user.getId()));
             
         } catch (Exception e) {
             logger.error("Error getting wheel configuration", e);
@@ -69,43 +57,15 @@ public class WheelConfigurationController {
     @GetMapping("/other-user-wheel/{userId}")
     public ResponseEntity<?> getOtherUserWheelConfiguration(@PathVariable Long userId) {
         try {
-            Optional<WheelConfiguration> configOpt = wheelConfigurationService.getWheelConfigurationByUserId(userId);
-            
-            if (configOpt.isEmpty()) {
-                // Create default configuration for the other user
-                User otherUser = wheelConfigurationService.getUserById(userId);
-                if (otherUser == null) {
-                    Map<String, String> error = new HashMap<>();
-                    error.put("message", "User not found");
-                    return ResponseEntity.status(404).body(error);
-                }
-                
-                WheelConfiguration defaultConfig = wheelConfigurationService.createDefaultWheelConfiguration(otherUser);
-                List<WheelPrizeTemplate> prizeTemplates = wheelConfigurationService.getPrizeTemplates(defaultConfig);
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("hasConfiguration", true);
-                response.put("isDefault", true);
-                response.put("configuration", createConfigurationResponse(defaultConfig));
-                response.put("prizes", prizeTemplates.stream()
-                        .map(this::createPrizeTemplateResponse)
-                        .collect(Collectors.toList()));
-                
-                return ResponseEntity.ok(response);
+            try {
+                wheelConfigurationService.getUserById(userId);
+            } catch (UsernameNotFoundException e) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "User not found");
+                return ResponseEntity.status(404).body(error);
             }
             
-            WheelConfiguration config = configOpt.get();
-            List<WheelPrizeTemplate> prizeTemplates = wheelConfigurationService.getPrizeTemplates(config);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("hasConfiguration", true);
-            response.put("isDefault", false);
-            response.put("configuration", createConfigurationResponse(config));
-            response.put("prizes", prizeTemplates.stream()
-                    .map(this::createPrizeTemplateResponse)
-                    .collect(Collectors.toList()));
-            
-            return ResponseEntity.ok(response);
+            return cachedWheelResponse(wheelConfigurationService.getCachedWheel(userId));
             
         } catch (Exception e) {
             logger.error("Error getting other user's wheel configuration", e);
@@ -127,37 +87,8 @@ public class WheelConfigurationController {
                 return ResponseEntity.status(403).body(error);
             }
             
-            Optional<WheelConfiguration> configOpt = wheelConfigurationService.getOtherUserActiveWheelConfiguration();
-            
-            if (configOpt.isEmpty()) {
-                // Create default configuration for the other user
-                User otherUser = wheelConfigurationService.getOtherUser();
-                WheelConfiguration defaultConfig = wheelConfigurationService.createDefaultWheelConfiguration(otherUser);
-                List<WheelPrizeTemplate> prizeTemplates = wheelConfigurationService.getPrizeTemplates(defaultConfig);
-                
-                Map<String, Object> response = new HashMap<>();
-                response.put("hasConfiguration", true);
-                response.put("isDefault", true);
-                response.put("configuration", createConfigurationResponse(defaultConfig));
-                response.put("prizes", prizeTemplates.stream()
-                        .map(this::createPrizeTemplateResponse)
-                        .collect(Collectors.toList()));
-                
-                return ResponseEntity.ok(response);
-            }
-            
-            WheelConfiguration config = configOpt.get();
-            List<WheelPrizeTemplate> prizeTemplates = wheelConfigurationService.getPrizeTemplates(config);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("hasConfiguration", true);
-            response.put("isDefault", false);
-            response.put("configuration", createConfigurationResponse(config));
-            response.put("prizes", prizeTemplates.stream()
-                    .map(this::createPrizeTemplateResponse)
-                    .collect(Collectors.toList()));
-            
-            return ResponseEntity.ok(response);
+            User otherUser = wheelConfigurationService.getOtherUser();
+            return cachedWheelResponse(wheelConfigurationService.getCachedWheel(otherUser.getId()));
             
         } catch (Exception e) {
             logger.error("Error getting other user's wheel configuration", e);
@@ -303,6 +234,17 @@ public class WheelConfigurationController {
         }
     }
     
+    /**
+     * Helper method to send a cached wheel's pre-rendered body. Owners without a
+     * wheel get hasConfiguration=false; the client shows its default prizes and
+     * the default configuration is only written when they first spin.
+     */
+    private ResponseEntity<byte[]> cachedWheelResponse(WheelConfigurationCache.CachedWheel wheel) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(wheel.body());
+    }
+    
     /**
      * Helper method to create configuration response
      */
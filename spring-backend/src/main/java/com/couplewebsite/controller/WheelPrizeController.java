@@ -2,7 +2,6 @@ package com.couplewebsite.controller;
 
 import com.couplewebsite.entity.WheelPrize;
 import com.couplewebsite.service.WheelPrizeService;
-import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,32 +23,6 @@ public class WheelPrizeController {
     @Autowired
     private WheelPrizeService wheelPrizeService;
     
-    /**
-     * Record a new wheel prize
-     */
-    @PostMapping
-    public ResponseEntity<?> recordPrize(@Valid @RequestBody RecordPrizeRequest request) {
-        try {
-            WheelPrize wheelPrize = wheelPrizeService.recordPrize(
-                request.getPrizeType(), 
-                request.getPrizeValue(), 
-                request.getPrizeDescription()
-            );
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Prize recorded successfully");
-            response.put("prize", createPrizeResponse(wheelPrize));
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("Error recording wheel prize", e);
-            Map<String, String> error = new HashMap<>();
-            error.put("message", "Failed to record prize");
-            return ResponseEntity.status(500).body(error);
-        }
-    }
-    
     /**
      * Get all wheel prizes for current user
      */
@@ -138,20 +111,4 @@ public class WheelPrizeController {
         response.put("wonAt", wheelPrize.getWonAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         return response;
     }
-    
-    // Request DTOs
-    public static class RecordPrizeRequest {
-        private String prizeType;
-        private Integer prizeValue;
-        private String prizeDescription;
-        
-        public String getPrizeType() { return prizeType; }
-        public void setPrizeType(String prizeType) { this.prizeType = prizeType; }
-        
-        public Integer getPrizeValue() { return prizeValue; }
-        public void setPrizeValue(Integer prizeValue) { this.prizeValue = prizeValue; }
-        
-        public String getPrizeDescription() { return prizeDescription; }
-        public void setPrizeDescription(String prizeDescription) { this.prizeDescription = prizeDescription; }
-    }
 }
\ No newline at end of file
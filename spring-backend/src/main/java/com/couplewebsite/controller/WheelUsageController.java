@@ -3,11 +3,15 @@ package com.couplewebsite.controller;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.entity.WheelUsage;
 import com.couplewebsite.service.UserService;
+import com.couplewebsite.service.WheelConfigurationCache;
+import com.couplewebsite.service.WheelConfigurationService;
 import com.couplewebsite.service.WheelUsageService;
 import com.couplewebsite.service.WheelPrizeService;
+import com.couplewebsite.service.WheelSpinService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -32,6 +36,12 @@ public class WheelUsageController {
     @Autowired
     private WheelPrizeService wheelPrizeService;
     
+    @Autowired
+    private WheelSpinService wheelSpinService;
+    
+    @Autowired
+    private WheelConfigurationService wheelConfigurationService;
+    
     /**
      * Get wheel usage stats for current user
      */
@@ -74,52 +84,63 @@ public class WheelUsageController {
     }
     
     /**
-     * Record wheel usage
+     * Spin the current user's wheel. The prize is drawn and recorded on the server,
+     * together with the weekly usage or a saved opportunity.
      */
-    @PostMapping("/use")
-    public ResponseEntity<?> recordWheelUsage(
-            @RequestBody Map<String, Object> request,
-            Authentication authentication) {
+    @PostMapping("/spin")
+    public ResponseEntity<?> spinWheel(Authentication authentication) {
         try {
-            String username = authentication.getName();
-            User user = userService.findByUsername(username);
-            
-            Integer prizeAmount = (Integer) request.get("prizeAmount");
-            String source = (String) request.get("source");
-            
-            if (prizeAmount == null || prizeAmount < 0) {
-                Map<String, String> error = new HashMap<>();
-                error.put("message", "Invalid prize amount");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            if (source == null || source.trim().isEmpty()) {
-                source = "weekly";
+            User user = userService.findByUsername(authentication.getName());
+            
+            // Users who never configured a wheel spin the default one, as the client shows it
+            if (!wheelSpinService.hasWheel(user.getId())) {
+                try {
+                    wheelConfigurationService.createDefaultWheelConfiguration(user);
+                } catch (DataIntegrityViolationException e) {
+                    // A concurrent first spin created it; spin that one
+                    logger.debug("Default wheel for {} was created concurrently", user.getUsername());
+                }
             }
             
-            // Check if user can use wheel
-            if (!wheelUsageService.canUseWheel(user)) {
-                Map<String, String> error = new HashMap<>();
-                error.put("message", "Wheel already used this week");
-                return ResponseEntity.badRequest().body(error);
-            }
+            WheelSpinService.SpinResult result = wheelSpinService.spin(user);
+            WheelConfigurationCache.Prize prize = result.prize();
             
-            WheelUsage wheelUsage = wheelUsageService.recordWheelUsage(user, prizeAmount, source);
+            Map<String, Object> prizeResponse = new HashMap<>();
+            prizeResponse.put("id", prize.id());
+            prizeResponse.put("prizeName", prize.prizeName());
+            prizeResponse.put("prizeDescription", prize.prizeDescription());
+            prizeResponse.put("prizeType", prize.prizeType());
+            prizeResponse.put("prizeValue", prize.prizeValue());
+            prizeResponse.put("color", prize.color());
+            prizeResponse.put("displayOrder", prize.displayOrder());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Wheel usage recorded successfully");
-            response.put("usedAt", wheelUsage.getUsedAt().toString());
-            response.put("prizeAmount", wheelUsage.getPrizeAmount());
-            response.put("source", wheelUsage.getSource());
-            response.put("weekStart", wheelUsage.getWeekStart().toString());
+            response.put("index", result.index());
+            response.put("prize", prizeResponse);
+            response.put("prizeAmount", prize.prizeValue());
+            response.put("source", result.source());
+            response.put("wheelPrizeId", result.wheelPrize().getId());
+            if (result.usage() != null) {
+                response.put("usedAt", result.usage().getUsedAt().toString());
+                response.put("weekStart", result.usage().getWeekStart().toString());
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (DataIntegrityViolationException e) {
+            // Another spin for the same week committed first
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Wheel already used this week");
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
-            logger.error("Error recording wheel usage", e);
+            logger.error("Error spinning wheel", e);
             Map<String, String> error = new HashMap<>();
-            error.put("message", "Failed to record wheel usage: " + e.getMessage());
+            error.put("message", "Failed to spin wheel");
             return ResponseEntity.status(500).body(error);
         }
     }
@@ -0,0 +1,69 @@
+package com.couplewebsite.dto;
+
+import com.couplewebsite.entity.SurpriseBox;
+import com.couplewebsite.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Immutable surprise box notification pushed to /user/{username}/queue/surprise-box/updates.
+ * Serialized once and the same bytes are delivered to every destination.
+ *
+ * The JSON matches the maps this replaced: box fields are always written (null
+ * included), while rejectionReason and minutesRemaining only appear on the
+ * notifications that set them. A rejection without a reason is written as null.
+ */
+public record BoxNotification(String type,
+                              String timestamp,
+                              BoxInfo box,
+                              String message,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) Optional<String> rejectionReason,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) Long minutesRemaining) {
+
+    public static BoxNotification of(String type, SurpriseBox box, String message) {
+        return new BoxNotification(type, LocalDateTime.now().toString(), BoxInfo.from(box), message, null, null);
+    }
+
+    public BoxNotification withRejectionReason(String rejectionReason) {
+        return new BoxNotification(type, timestamp, box, message, Optional.ofNullable(rejectionReason), minutesRemaining);
+    }
+
+    public BoxNotification withMinutesRemaining(long minutesRemaining) {
+        return new BoxNotification(type, timestamp, box, message, rejectionReason, minutesRemaining);
+    }
+
+    public record BoxInfo(Long id,
+                          String prizeName,
+                          String status,
+                          String completionType,
+                          LocalDateTime dropAt,
+                          LocalDateTime expiresAt,
+                          @JsonProperty("isExpired") boolean isExpired,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) UserInfo owner,
+                          @JsonInclude(JsonInclude.Include.NON_NULL) UserInfo recipient) {
+
+        static BoxInfo from(SurpriseBox box) {
+            return new BoxInfo(
+                box.getId(),
+                box.getPrizeName(),
+                box.getStatus() != null ? box.getStatus().name() : null,
+                box.getCompletionType() != null ? box.getCompletionType().name() : null,
+                box.getDropAt(),
+                box.getCalculatedExpiresAt(),
+                box.isExpired(),
+                UserInfo.from(box.getOwner()),
+                UserInfo.from(box.getRecipient())
+            );
+        }
+    }
+
+    public record UserInfo(Long id, String name, String username) {
+
+        static UserInfo from(User user) {
+            return user != null ? new UserInfo(user.getId(), user.getName(), user.getUsername()) : null;
+        }
+    }
+}
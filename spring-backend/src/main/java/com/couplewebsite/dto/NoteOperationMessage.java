@@ -0,0 +1,119 @@
+package com.couplewebsite.dto;
+
+import java.util.List;
+
+/**
+ * Shared note delta message.
+ *
+ * Clients send OPERATION to /app/shared-note/operation with the revision their
+ * operation was made against. The server transforms it over any newer operations,
+ * assigns the next revision and broadcasts it on /topic/shared-note/operations.
+ * A client whose revision is too old receives RESYNC with the full content.
+ */
+public class NoteOperationMessage {
+    // Message type constants
+    public static final String OPERATION = "OPERATION";
+    public static final String RESYNC = "RESYNC";
+
+    private String type;
+    private Long noteId;
+    private Long revision;
+    private List<Object> operation;
+    private String clientOpId;
+    private Long userId;
+    private String userName;
+    private String content;
+
+    // Constructors
+    public NoteOperationMessage() {}
+
+    public NoteOperationMessage(String type) {
+        this.type = type;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public List<Object> getOperation() {
+        return operation;
+    }
+
+    public void setOperation(List<Object> operation) {
+        this.operation = operation;
+    }
+
+    public String getClientOpId() {
+        return clientOpId;
+    }
+
+    public void setClientOpId(String clientOpId) {
+        this.clientOpId = clientOpId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    // Static factory methods
+    public static NoteOperationMessage operation(Long noteId, long revision, List<Object> operation,
+                                                 Long userId, String userName, String clientOpId) {
+        NoteOperationMessage message = new NoteOperationMessage(OPERATION);
+        message.setNoteId(noteId);
+        message.setRevision(revision);
+        message.setOperation(operation);
+        message.setUserId(userId);
+        message.setUserName(userName);
+        message.setClientOpId(clientOpId);
+        return message;
+    }
+
+    public static NoteOperationMessage resync(Long noteId, long revision, String content) {
+        NoteOperationMessage message = new NoteOperationMessage(RESYNC);
+        message.setNoteId(noteId);
+        message.setRevision(revision);
+        message.setContent(content);
+        return message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.couplewebsite.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Presence change pushed on /topic/presence. The full list is returned when a
+ * client subscribes to /app/presence.
+ */
+public record PresenceMessage(String type, Long userId, String username, boolean online,
+                              boolean typing, LocalDateTime timestamp) {
+
+    public static final String PRESENCE = "PRESENCE";
+
+    public static PresenceMessage of(Long userId, String username, boolean online, boolean typing) {
+        return new PresenceMessage(PRESENCE, userId, username, online, typing, LocalDateTime.now());
+    }
+
+    // Same state, ignoring when it was observed
+    public boolean sameStateAs(PresenceMessage other) {
+        return other != null && online == other.online && typing == other.typing;
+    }
+}
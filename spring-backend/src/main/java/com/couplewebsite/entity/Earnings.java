@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "earnings")
+@Table(name = "earnings", indexes = {
+    @Index(name = "idx_earnings_created_at", columnList = "created_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_earnings_user_idempotency_key", columnNames = {"user_id", "idempotency_key"})
+})
 public class Earnings {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +30,10 @@ public class Earnings {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Set by callers that may retry the same award; null for one-off entries
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
     // Constructors
     public Earnings() {
         this.createdAt = LocalDateTime.now();
@@ -39,6 +47,11 @@ public class Earnings {
         this.source = source;
     }
 
+    public Earnings(User user, Integer amount, Integer totalAfter, String source, String idempotencyKey) {
+        this(user, amount, totalAfter, source);
+        this.idempotencyKey = idempotencyKey;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -87,4 +100,12 @@ public class Earnings {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -14,7 +14,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "memories")
+@Table(name = "memories", indexes = {
+    @Index(name = "idx_memories_month_day", columnList = "month, day_of_month"),
+    @Index(name = "idx_memories_day_of_year", columnList = "day_of_year"),
+    @Index(name = "idx_memories_type_date", columnList = "type, date")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Memory {
     
@@ -37,6 +41,20 @@ public class Memory {
     @Column(name = "end_date")
     private LocalDate endDate;
     
+    // Calendar position of date, kept in sync with it for anniversary lookups
+    @Column(name = "month")
+    @JsonIgnore
+    private Integer month;
+    
+    @Column(name = "day_of_month")
+    @JsonIgnore
+    private Integer dayOfMonth;
+    
+    // Day of year in a leap year, so Feb 29 is always 60 and Mar 1 always 61
+    @Column(name = "day_of_year")
+    @JsonIgnore
+    private Integer dayOfYear;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private MemoryType type = MemoryType.SPECIAL_MOMENT;
@@ -101,6 +119,7 @@ public class Memory {
         this.date = date;
         this.type = type;
         this.creator = creator;
+        syncCalendarFields();
     }
     
     // Getters and Setters
@@ -134,6 +153,7 @@ public class Memory {
     
     public void setDate(LocalDate date) {
         this.date = date;
+        syncCalendarFields();
     }
     
     public LocalDate getEndDate() {
@@ -144,6 +164,35 @@ public class Memory {
         this.endDate = endDate;
     }
     
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public Integer getDayOfMonth() {
+        return dayOfMonth;
+    }
+    
+    public Integer getDayOfYear() {
+        return dayOfYear;
+    }
+    
+    /**
+     * Position of a month and day in a leap year (1..366)
+     */
+    public static int dayOfYear(int month, int dayOfMonth) {
+        return LocalDate.of(2000, month, dayOfMonth).getDayOfYear();
+    }
+    
+    @PrePersist
+    @PreUpdate
+    public void syncCalendarFields() {
+        if (date != null) {
+            month = date.getMonthValue();
+            dayOfMonth = date.getDayOfMonth();
+            dayOfYear = dayOfYear(month, dayOfMonth);
+        }
+    }
+    
     public MemoryType getType() {
         return type;
     }
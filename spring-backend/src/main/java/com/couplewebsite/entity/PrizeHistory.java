@@ -10,7 +10,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prize_history")
+@Table(name = "prize_history", indexes = {
+    @Index(name = "idx_prize_history_recipient_type_claimed", columnList = "recipient_id, completion_type, claimed_at")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class PrizeHistory {
     
@@ -0,0 +1,128 @@
+package com.couplewebsite.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One saved version of a shared note. A checkpoint row stores the full content;
+ * every other row stores the deflated operation from the previous version and
+ * points at the checkpoint its delta chain starts from.
+ */
+@Entity
+@Table(name = "shared_note_revisions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"note_id", "version"}))
+public class SharedNoteRevision {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+    
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Equal to version for checkpoints
+    @Column(name = "base_version", nullable = false)
+    private Long baseVersion;
+    
+    // Compressed bytes stored since the checkpoint, including this row
+    @Column(name = "chain_size", nullable = false)
+    private Integer chainSize;
+    
+    @Column(name = "content_length", nullable = false)
+    private Integer contentLength;
+    
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+    
+    @Column(name = "author_user_id")
+    private Long authorUserId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public SharedNoteRevision() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getNoteId() {
+        return noteId;
+    }
+    
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Long getBaseVersion() {
+        return baseVersion;
+    }
+    
+    public void setBaseVersion(Long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+    
+    public Integer getChainSize() {
+        return chainSize;
+    }
+    
+    public void setChainSize(Integer chainSize) {
+        this.chainSize = chainSize;
+    }
+    
+    public Integer getContentLength() {
+        return contentLength;
+    }
+    
+    public void setContentLength(Integer contentLength) {
+        this.contentLength = contentLength;
+    }
+    
+    public byte[] getData() {
+        return data;
+    }
+    
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+    
+    public Long getAuthorUserId() {
+        return authorUserId;
+    }
+    
+    public void setAuthorUserId(Long authorUserId) {
+        this.authorUserId = authorUserId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    // Helper methods
+    public boolean isCheckpoint() {
+        return version != null && version.equals(baseVersion);
+    }
+}
@@ -0,0 +1,117 @@
+package com.couplewebsite.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals for one user's wheel spins, saved opportunities and earnings.
+ * Kept current by the services that write those rows; see UserStatsService.
+ */
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "wheel_usage_count", nullable = false)
+    private Long wheelUsageCount = 0L;
+
+    @Column(name = "wheel_prize_total", nullable = false)
+    private Long wheelPrizeTotal = 0L;
+
+    @Column(name = "opportunities_total", nullable = false)
+    private Long opportunitiesTotal = 0L;
+
+    @Column(name = "opportunities_used", nullable = false)
+    private Long opportunitiesUsed = 0L;
+
+    @Column(name = "earnings_count", nullable = false)
+    private Long earningsCount = 0L;
+
+    @Column(name = "earnings_total", nullable = false)
+    private Long earningsTotal = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserStats() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public UserStats(Long userId) {
+        this();
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getWheelUsageCount() {
+        return wheelUsageCount;
+    }
+
+    public void setWheelUsageCount(Long wheelUsageCount) {
+        this.wheelUsageCount = wheelUsageCount;
+    }
+
+    public Long getWheelPrizeTotal() {
+        return wheelPrizeTotal;
+    }
+
+    public void setWheelPrizeTotal(Long wheelPrizeTotal) {
+        this.wheelPrizeTotal = wheelPrizeTotal;
+    }
+
+    public Long getOpportunitiesTotal() {
+        return opportunitiesTotal;
+    }
+
+    public void setOpportunitiesTotal(Long opportunitiesTotal) {
+        this.opportunitiesTotal = opportunitiesTotal;
+    }
+
+    public Long getOpportunitiesUsed() {
+        return opportunitiesUsed;
+    }
+
+    public void setOpportunitiesUsed(Long opportunitiesUsed) {
+        this.opportunitiesUsed = opportunitiesUsed;
+    }
+
+    public Long getOpportunitiesUnused() {
+        return opportunitiesTotal - opportunitiesUsed;
+    }
+
+    public Long getEarningsCount() {
+        return earningsCount;
+    }
+
+    public void setEarningsCount(Long earningsCount) {
+        this.earningsCount = earningsCount;
+    }
+
+    public Long getEarningsTotal() {
+        return earningsTotal;
+    }
+
+    public void setEarningsTotal(Long earningsTotal) {
+        this.earningsTotal = earningsTotal;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
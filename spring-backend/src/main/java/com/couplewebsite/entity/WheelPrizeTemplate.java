@@ -13,8 +13,15 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class WheelPrizeTemplate {
     
+    /** Ids reserved per sequence call; V26 migration creates the sequence with this increment */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Sequence ids let Hibernate batch template inserts; IDENTITY cannot. SQLite has no
+    // sequences, so META-INF/sqlite-orm.xml maps this id back to IDENTITY there.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wheel_prize_templates_seq")
+    @SequenceGenerator(name = "wheel_prize_templates_seq", sequenceName = "wheel_prize_templates_seq",
+                       allocationSize = WheelPrizeTemplate.ID_ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
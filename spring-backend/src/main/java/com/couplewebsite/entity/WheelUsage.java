@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wheel_usage")
+@Table(name = "wheel_usage", indexes = {
+    @Index(name = "idx_wheel_usage_user_week", columnList = "user_id, week_start", unique = true)
+})
 public class WheelUsage {
     
     @Id
@@ -7,7 +7,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EarningsRepository extends JpaRepository<Earnings, Long> {
@@ -17,5 +19,21 @@ public interface EarningsRepository extends JpaRepository<Earnings, Long> {
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Earnings e WHERE e.user = :user")
     Integer getTotalEarningsByUser(@Param("user") User user);
     
+    long countByUser(User user);
+    
+    Optional<Earnings> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+    
     List<Earnings> findByUserAndSourceOrderByCreatedAtDesc(User user, String source);
+    
+    /**
+     * Time and amount of each earning in a range, for calendar rollups
+     */
+    @Query("SELECT e.createdAt, e.amount FROM Earnings e WHERE e.createdAt >= :from AND e.createdAt < :to")
+    List<Object[]> findCreatedAtAndAmountBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Number and sum of earnings in a range, without loading the rows
+     */
+    @Query("SELECT COUNT(e), COALESCE(SUM(e.amount), 0) FROM Earnings e WHERE e.createdAt >= :from AND e.createdAt < :to")
+    List<Object[]> countAndSumBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
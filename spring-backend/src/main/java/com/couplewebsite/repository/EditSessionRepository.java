@@ -18,6 +18,9 @@ public interface EditSessionRepository extends JpaRepository<EditSession, Long>
     
     Optional<EditSession> findByNoteId(Long noteId);
     
+    @Query("SELECT e FROM EditSession e LEFT JOIN FETCH e.currentEditor LEFT JOIN FETCH e.requestedByUser WHERE e.noteId = :noteId")
+    Optional<EditSession> findWithUsersByNoteId(@Param("noteId") Long noteId);
+    
     @Modifying
     @Query("UPDATE EditSession e SET e.isActive = false, e.currentEditor = null, e.lastActivityAt = :now WHERE e.isActive = true AND e.lastActivityAt < :expiredTime")
     int deactivateExpiredSessions(@Param("expiredTime") LocalDateTime expiredTime, @Param("now") LocalDateTime now);
@@ -3,10 +3,12 @@ package com.couplewebsite.repository;
 import com.couplewebsite.entity.Love;
 import com.couplewebsite.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -45,4 +47,11 @@ public interface LoveRepository extends JpaRepository<Love, Long> {
      */
     @Query("SELECT COUNT(l) > 0 FROM Love l WHERE l.user.id = :userId")
     boolean existsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Add to a user's count in place, so concurrent writers cannot lose updates
+     */
+    @Modifying
+    @Query("UPDATE Love l SET l.countValue = l.countValue + :delta, l.updatedAt = :now WHERE l.user.id = :userId")
+    int addToCount(@Param("userId") Long userId, @Param("delta") Long delta, @Param("now") LocalDateTime now);
 }
@@ -1,17 +1,21 @@
 package com.couplewebsite.repository;
 
 import com.couplewebsite.entity.Memory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MemoryRepository extends JpaRepository<Memory, Long> {
+public interface MemoryRepository extends JpaRepository<Memory, Long>, JpaSpecificationExecutor<Memory> {
     
     /**
      * Find all memories ordered by date descending
@@ -39,12 +43,41 @@ public interface MemoryRepository extends JpaRepository<Memory, Long> {
                                          @Param("endDate") LocalDate endDate);
     
     /**
-     * Find upcoming memories excluding EVENT type
+     * Non-EVENT memories whose anniversary falls after the given day of year, soonest first
      */
     @Query("SELECT m FROM Memory m LEFT JOIN FETCH m.creator " +
-           "WHERE m.type != 'EVENT' " +
+           "WHERE m.type != 'EVENT' AND m.dayOfYear > :dayOfYear " +
+           "ORDER BY m.dayOfYear ASC, m.date ASC")
+    List<Memory> findNonEventsAfterDayOfYear(@Param("dayOfYear") int dayOfYear, Pageable pageable);
+    
+    /**
+     * Non-EVENT memories whose anniversary falls on or before the given day of year, soonest first
+     */
+    @Query("SELECT m FROM Memory m LEFT JOIN FETCH m.creator " +
+           "WHERE m.type != 'EVENT' AND m.dayOfYear <= :dayOfYear " +
+           "ORDER BY m.dayOfYear ASC, m.date ASC")
+    List<Memory> findNonEventsUpToDayOfYear(@Param("dayOfYear") int dayOfYear, Pageable pageable);
+    
+    /**
+     * Memories on a month and day in any year
+     */
+    @Query("SELECT m FROM Memory m LEFT JOIN FETCH m.creator " +
+           "WHERE m.month = :month AND m.dayOfMonth = :dayOfMonth " +
            "ORDER BY m.date ASC")
-    List<Memory> findUpcomingMemoriesExcludingEvents();
+    List<Memory> findByMonthAndDayOfMonth(@Param("month") int month, @Param("dayOfMonth") int dayOfMonth);
+    
+    /**
+     * Memories in a month of any year
+     */
+    @Query("SELECT m FROM Memory m LEFT JOIN FETCH m.creator " +
+           "WHERE m.month = :month " +
+           "ORDER BY m.dayOfMonth ASC, m.date ASC")
+    List<Memory> findByMonth(@Param("month") int month);
+    
+    /**
+     * Memories written before the calendar columns existed
+     */
+    List<Memory> findByDayOfYearIsNull();
     
     /**
      * Find memories by creator
@@ -65,4 +98,29 @@ public interface MemoryRepository extends JpaRepository<Memory, Long> {
      * Find memories between date range
      */
     List<Memory> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Dates of memories in a range, for calendar rollups
+     */
+    @Query("SELECT m.date FROM Memory m WHERE m.date >= :from AND m.date < :to")
+    List<LocalDate> findDatesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * Link photos to a memory straight in the join table. Ids that are already linked
+     * or have no photo are skipped. Returns the number of links added.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO memory_photos (memory_id, photo_id) " +
+                   "SELECT :memoryId, p.id FROM photos p WHERE p.id IN (:photoIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM memory_photos mp WHERE mp.memory_id = :memoryId AND mp.photo_id = p.id)",
+           nativeQuery = true)
+    int insertPhotoLinks(@Param("memoryId") Long memoryId, @Param("photoIds") Collection<Long> photoIds);
+    
+    /**
+     * Unlink photos from a memory straight in the join table. Returns the number of links removed.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM memory_photos WHERE memory_id = :memoryId AND photo_id IN (:photoIds)",
+           nativeQuery = true)
+    int deletePhotoLinks(@Param("memoryId") Long memoryId, @Param("photoIds") Collection<Long> photoIds);
 }
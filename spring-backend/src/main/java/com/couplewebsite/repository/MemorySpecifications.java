@@ -0,0 +1,46 @@
+package com.couplewebsite.repository;
+
+import com.couplewebsite.entity.Memory;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Query predicates for filtering memories, combined with Specification.where/and
+ */
+public final class MemorySpecifications {
+
+    private MemorySpecifications() {}
+
+    public static Specification<Memory> hasType(Memory.MemoryType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    /**
+     * Date on or after from and before until; either bound may be null
+     */
+    public static Specification<Memory> dateInRange(LocalDate from, LocalDate until) {
+        return (root, query, cb) -> {
+            if (from != null && until != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get("date"), from), cb.lessThan(root.get("date"), until));
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get("date"), from);
+            }
+            return until != null ? cb.lessThan(root.get("date"), until) : null;
+        };
+    }
+
+    /**
+     * Load the creator in the same query. Skipped for the count query of a page.
+     */
+    public static Specification<Memory> fetchCreator() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("creator", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
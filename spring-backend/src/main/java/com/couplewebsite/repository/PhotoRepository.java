@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -124,4 +125,23 @@ public interface PhotoRepository extends JpaRepository<Photo, Long> {
      * Find deleted photos older than specified date for cleanup
      */
     List<Photo> findByIsDeletedTrueAndDeletedAtBefore(LocalDateTime deletedBefore);
+    
+    /**
+     * Upload times of photos not in the recycle bin, for calendar rollups
+     */
+    @Query("SELECT p.createdAt FROM Photo p WHERE p.isDeleted = false AND p.createdAt >= :from AND p.createdAt < :to")
+    List<LocalDateTime> findCreatedAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Count how many of the given ids exist
+     */
+    long countByIdIn(Collection<Long> ids);
+    
+    /**
+     * Photos attached to a memory, newest first, without loading the memory's photo set
+     */
+    @Query(value = "SELECT p FROM Memory m JOIN m.photos p WHERE m.id = :memoryId AND p.isDeleted = false " +
+                   "ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Memory m JOIN m.photos p WHERE m.id = :memoryId AND p.isDeleted = false")
+    Page<Photo> findByMemoryId(@Param("memoryId") Long memoryId, Pageable pageable);
 }
@@ -68,6 +68,22 @@ public interface PrizeHistoryRepository extends JpaRepository<PrizeHistory, Long
         @Param("completionType") SurpriseBox.CompletionType completionType
     );
     
+    /**
+     * Per completion type: the type, its total count and the counts claimed since each
+     * of the three dates. One grouped scan of the recipient's rows.
+     */
+    @Query("SELECT ph.completionType, COUNT(ph), " +
+           "SUM(CASE WHEN ph.claimedAt >= :weekStart THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN ph.claimedAt >= :monthStart THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN ph.claimedAt >= :yearStart THEN 1 ELSE 0 END) " +
+           "FROM PrizeHistory ph WHERE ph.recipient.id = :recipientId GROUP BY ph.completionType")
+    List<Object[]> summarizeByRecipientId(
+        @Param("recipientId") Long recipientId,
+        @Param("weekStart") LocalDateTime weekStart,
+        @Param("monthStart") LocalDateTime monthStart,
+        @Param("yearStart") LocalDateTime yearStart
+    );
+    
     /**
      * Search prize history by prize name
      */
@@ -0,0 +1,40 @@
+package com.couplewebsite.repository;
+
+import com.couplewebsite.entity.SharedNoteRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SharedNoteRevisionRepository extends JpaRepository<SharedNoteRevision, Long> {
+    
+    Optional<SharedNoteRevision> findByNoteIdAndVersion(Long noteId, Long version);
+    
+    Optional<SharedNoteRevision> findTopByNoteIdOrderByVersionDesc(Long noteId);
+    
+    /**
+     * Revisions of a note in an inclusive version range, oldest first
+     */
+    @Query("SELECT r FROM SharedNoteRevision r WHERE r.noteId = :noteId " +
+           "AND r.version BETWEEN :fromVersion AND :toVersion ORDER BY r.version ASC")
+    List<SharedNoteRevision> findRange(@Param("noteId") Long noteId,
+                                       @Param("fromVersion") Long fromVersion,
+                                       @Param("toVersion") Long toVersion);
+    
+    /**
+     * Newest revisions of a note, without loading their data
+     */
+    @Query("SELECT new com.couplewebsite.repository.SharedNoteRevisionRepository$RevisionSummary(" +
+           "r.version, CASE WHEN r.baseVersion = r.version THEN true ELSE false END, r.contentLength, r.authorUserId, r.createdAt) " +
+           "FROM SharedNoteRevision r WHERE r.noteId = :noteId ORDER BY r.version DESC")
+    List<RevisionSummary> findSummaries(@Param("noteId") Long noteId, Pageable pageable);
+    
+    record RevisionSummary(Long version, Boolean checkpoint, Integer contentLength,
+                           Long authorUserId, LocalDateTime createdAt) {}
+}
@@ -2,6 +2,7 @@ package com.couplewebsite.repository;
 
 import com.couplewebsite.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,4 +28,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Find user by username for authentication
      */
     Optional<User> findByUsername(String username);
+    
+    /**
+     * Add to a user's earnings in one statement; the row lock it takes makes
+     * concurrent awards queue instead of overwriting each other
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.totalEarnings = COALESCE(u.totalEarnings, 0) + :amount WHERE u.id = :userId")
+    int addToTotalEarnings(@Param("userId") Long userId, @Param("amount") int amount);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.totalEarnings = 0 WHERE u.id = :userId")
+    int resetTotalEarnings(@Param("userId") Long userId);
+    
+    /**
+     * Current earnings total, read from the database rather than a cached user
+     */
+    @Query("SELECT COALESCE(u.totalEarnings, 0) FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTotalEarningsById(@Param("userId") Long userId);
 }
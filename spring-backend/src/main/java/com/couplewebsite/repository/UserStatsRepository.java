@@ -0,0 +1,41 @@
+package com.couplewebsite.repository;
+
+import com.couplewebsite.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The increments are single UPDATE statements so concurrent writers add to the
+ * row instead of overwriting each other. Each returns the number of rows changed;
+ * 0 means the user has no stats row yet.
+ */
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.wheelUsageCount = s.wheelUsageCount + :count, " +
+           "s.wheelPrizeTotal = s.wheelPrizeTotal + :amount, s.updatedAt = :now WHERE s.userId = :userId")
+    int addWheelUsage(@Param("userId") Long userId, @Param("count") long count,
+                      @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.opportunitiesTotal = s.opportunitiesTotal + :created, " +
+           "s.opportunitiesUsed = s.opportunitiesUsed + :used, s.updatedAt = :now WHERE s.userId = :userId")
+    int addOpportunities(@Param("userId") Long userId, @Param("created") long created,
+                         @Param("used") long used, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.earningsCount = s.earningsCount + :count, " +
+           "s.earningsTotal = s.earningsTotal + :amount, s.updatedAt = :now WHERE s.userId = :userId")
+    int addEarnings(@Param("userId") Long userId, @Param("count") long count,
+                    @Param("amount") long amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.earningsCount = 0, s.earningsTotal = 0, s.updatedAt = :now WHERE s.userId = :userId")
+    int resetEarnings(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
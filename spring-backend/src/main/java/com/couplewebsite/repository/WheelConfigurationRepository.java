@@ -25,6 +25,13 @@ public interface WheelConfigurationRepository extends JpaRepository<WheelConfigu
     @Query("SELECT wc FROM WheelConfiguration wc WHERE wc.ownerUser.id = :ownerUserId AND wc.isActive = true")
     Optional<WheelConfiguration> findByOwnerUserIdAndIsActiveTrue(@Param("ownerUserId") Long ownerUserId);
     
+    /**
+     * Find the active wheel configuration for an owner user ID with both users loaded
+     */
+    @Query("SELECT wc FROM WheelConfiguration wc JOIN FETCH wc.ownerUser JOIN FETCH wc.configuredByUser " +
+           "WHERE wc.ownerUser.id = :ownerUserId AND wc.isActive = true")
+    Optional<WheelConfiguration> findActiveWithUsersByOwnerUserId(@Param("ownerUserId") Long ownerUserId);
+    
     /**
      * Find all wheel configurations created by a specific user
      */
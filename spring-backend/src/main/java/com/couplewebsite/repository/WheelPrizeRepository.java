@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -48,4 +49,10 @@ public interface WheelPrizeRepository extends JpaRepository<WheelPrize, Long> {
      * Find prizes by type for a specific user
      */
     List<WheelPrize> findByUserAndPrizeTypeOrderByWonAtDesc(User user, String prizeType);
-}
\ No newline at end of file
+    
+    /**
+     * Times prizes were won, for calendar rollups
+     */
+    @Query("SELECT wp.wonAt FROM WheelPrize wp WHERE wp.wonAt >= :from AND wp.wonAt < :to")
+    List<LocalDateTime> findWonAtBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,52 +1,37 @@
 package com.couplewebsite.security;
 
 import com.couplewebsite.entity.User;
-import com.couplewebsite.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        return userCache.get(username)
+                .map(UserCache.UserSnapshot::toUserDetails)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                new ArrayList<>() // No roles/authorities for now
-        );
     }
     
     /**
      * Load user by ID for JWT authentication
      */
     public UserDetails loadUserById(Long userId) throws UsernameNotFoundException {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
-        
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
+        return loadUserByUsername(getUserById(userId).getUsername());
     }
     
     /**
      * Get user entity by username
      */
     public User getUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
     
@@ -54,7 +39,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * Get user entity by ID
      */
     public User getUserById(Long userId) throws UsernameNotFoundException {
-        return userRepository.findById(userId)
+        return userCache.findById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
     }
 }
@@ -1,5 +1,7 @@
 package com.couplewebsite.security;
 
+import com.couplewebsite.config.PathClassifier;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +28,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserCache userCache;
+    
+    @Autowired
+    private PathClassifier pathClassifier;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -34,41 +39,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String requestPath = request.getRequestURI();
         String requestMethod = request.getMethod();
-        
-        // Debug logging
-        logger.info("JWT Filter processing {} {}", requestMethod, requestPath);
 
         // Skip JWT processing for OPTIONS requests (CORS preflight)
         if ("OPTIONS".equals(requestMethod)) {
-            logger.info("OPTIONS request detected, skipping JWT processing");
             filterChain.doFilter(request, response);
             return;
         }
 
         // Skip JWT processing for static files and public endpoints
-        if (isPublicPath(requestPath)) {
-            logger.info("Path {} is public, skipping JWT processing", requestPath);
+        if (pathClassifier.isPublic(requestPath)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Path {} is public, skipping JWT processing", requestPath);
+            }
             filterChain.doFilter(request, response);
             return;
         }
-        
-        logger.info("Path {} requires JWT authentication", requestPath);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("JWT Filter processing {} {}", requestMethod, requestPath);
+        }
 
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // One verification per request; the user is loaded by the verified subject
+            Claims claims = StringUtils.hasText(jwt) ? jwtUtil.verify(jwt) : null;
+            UserCache.UserSnapshot snapshot = claims != null ? userCache.get(claims.getSubject()).orElse(null) : null;
+            if (snapshot != null) {
+                UserDetails userDetails = snapshot.toUserDetails();
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                request.setAttribute(CurrentUserArgumentResolver.REQUEST_ATTRIBUTE, snapshot.toUser());
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -77,41 +82,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    /**
-     * Check if the request path is public and doesn't need JWT processing
-     */
-    private boolean isPublicPath(String path) {
-        return path.equals("/") ||
-               path.equals("/index.html") ||
-               path.equals("/scott") ||
-               path.equals("/zoe") ||
-               path.startsWith("/assets/") ||
-               path.startsWith("/static/") ||
-               path.startsWith("/uploads/") ||
-               path.equals("/api/auth/login") ||
-               path.equals("/api/auth/validate") ||
-               path.startsWith("/api/photos/image/") ||
-               path.equals("/api/photos/test") ||
-               path.equals("/api/photos") ||
-               path.equals("/api/categories") ||
-               path.equals("/health") ||
-               path.startsWith("/api/health") ||
-               path.startsWith("/api/debug/") ||
-               path.startsWith("/actuator/health") ||
-               path.endsWith(".css") ||
-               path.endsWith(".js") ||
-               path.endsWith(".html") ||
-               path.endsWith(".ico") ||
-               path.endsWith(".png") ||
-               path.endsWith(".jpg") ||
-               path.endsWith(".jpeg") ||
-               path.endsWith(".gif") ||
-               path.endsWith(".svg") ||
-               path.endsWith(".woff") ||
-               path.endsWith(".woff2") ||
-               path.endsWith(".ttf");
-    }
-    
     /**
      * Extract JWT token from Authorization header or query parameter
      */
@@ -2,6 +2,7 @@ package com.couplewebsite.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,11 +10,24 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once. Verified tokens are cached by the
+ * SHA-256 of the token until the token expires, so a request only pays for a hash
+ * and a map lookup after the first time its token is seen. The cache holds at most
+ * jwt.cache-size entries; expired entries are dropped when it fills up.
+ */
 @Component
 public class JwtUtil {
     
@@ -25,8 +39,54 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache-size:1000}")
+    private int cacheSize = 1000;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    private final Map<String, CachedClaims> verifiedTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+    
+    /**
+     * Verify a token and return its claims, or null if it is invalid or expired.
+     * This is the one call request paths should make per token.
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        CachedClaims cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(key, cached);
+            return null;
+        }
+        
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("JWT token validation failed: {}", e.getMessage());
+            return null;
+        }
+        
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt != null) {
+            cache(key, new CachedClaims(claims, expiresAt.getTime()), now);
+        }
+        return claims;
     }
     
     /**
@@ -40,7 +100,7 @@ public class JwtUtil {
      * Extract user ID from JWT token
      */
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return extractClaim(token, JwtUtil::userId);
     }
     
     /**
@@ -59,26 +119,21 @@ public class JwtUtil {
     }
     
     /**
-     * Extract all claims from JWT token
+     * User ID claim of verified claims
      */
-    private Claims extractAllClaims(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (JwtException e) {
-            logger.error("Failed to parse JWT token: {}", e.getMessage());
-            throw e;
-        }
+    public static Long userId(Claims claims) {
+        return claims.get("userId", Long.class);
     }
     
     /**
-     * Check if JWT token is expired
+     * Extract all claims from JWT token
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        Claims claims = verify(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired JWT token");
+        }
+        return claims;
     }
     
     /**
@@ -99,7 +154,7 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
@@ -107,25 +162,36 @@ public class JwtUtil {
      * Validate JWT token
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException e) {
-            logger.error("JWT token validation failed: {}", e.getMessage());
-            return false;
-        }
+        Claims claims = verify(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
     }
     
     /**
      * Validate JWT token without UserDetails
      */
     public Boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+    
+    private void cache(String key, CachedClaims entry, long now) {
+        if (verifiedTokens.size() >= cacheSize) {
+            verifiedTokens.values().removeIf(cached -> cached.expiresAt() <= now);
+            if (verifiedTokens.size() >= cacheSize) {
+                // Still full of live tokens: start over rather than track recency
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(key, entry);
+    }
+    
+    private static String hash(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (JwtException e) {
-            logger.error("JWT token validation failed: {}", e.getMessage());
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
+    
+    private record CachedClaims(Claims claims, long expiresAt) {}
 }
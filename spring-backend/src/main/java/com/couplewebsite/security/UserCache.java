@@ -0,0 +1,157 @@
+package com.couplewebsite.security;
+
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of users for authentication and lookups.
+ *
+ * Every authenticated request resolves its user by name, and most services look the
+ * same user up again, so entries are kept for user-cache.ttl-ms. Only an immutable
+ * snapshot is cached; every lookup gets its own detached User copy and its own
+ * UserDetails, so no two threads share a mutable object. The copies are for reads
+ * and as references. To change a user, load the managed entity from the repository
+ * and evict the user after saving. The earnings balance is not cached.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    private final Map<String, UserSnapshot> byUsername = new ConcurrentHashMap<>();
+
+    private final Map<Long, String> usernamesById = new ConcurrentHashMap<>();
+
+    /**
+     * Snapshot of a user by username, loading it on a miss
+     */
+    public Optional<UserSnapshot> get(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        UserSnapshot cached = byUsername.get(username);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return Optional.of(cached);
+        }
+        return userRepository.findByUsername(username).map(this::put);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return get(username).map(UserSnapshot::toUser);
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        String username = usernamesById.get(id);
+        if (username != null) {
+            Optional<UserSnapshot> cached = get(username);
+            if (cached.isPresent() && id.equals(cached.get().id())) {
+                return cached.map(UserSnapshot::toUser);
+            }
+        }
+        return userRepository.findById(id).map(this::put).map(UserSnapshot::toUser);
+    }
+
+    /**
+     * Drop a user after their password or profile changed
+     */
+    public void evict(User user) {
+        if (user != null) {
+            evict(user.getUsername());
+            usernamesById.remove(user.getId());
+        }
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            byUsername.remove(username);
+        }
+    }
+
+    /**
+     * Drop a user once the current transaction commits, so a read racing the
+     * transaction cannot cache the old row again
+     */
+    public void evictAfterCommit(User user) {
+        if (user == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(user);
+                }
+            });
+        } else {
+            evict(user);
+        }
+    }
+
+    public void evictAll() {
+        byUsername.clear();
+        usernamesById.clear();
+    }
+
+    private UserSnapshot put(User user) {
+        UserSnapshot snapshot = UserSnapshot.of(user, System.currentTimeMillis() + ttlMillis);
+        byUsername.put(snapshot.username(), snapshot);
+        usernamesById.put(snapshot.id(), snapshot.username());
+        return snapshot;
+    }
+
+    /**
+     * The cached, immutable part of a user
+     */
+    public record UserSnapshot(Long id, String username, String passwordHash, String name,
+                               LocalDate relationshipStartDate, LocalDateTime createdAt,
+                               LocalDateTime updatedAt, List<GrantedAuthority> authorities,
+                               long expiresAt) {
+
+        static UserSnapshot of(User user, long expiresAt) {
+            return new UserSnapshot(user.getId(), user.getUsername(), user.getPassword(), user.getName(),
+                    user.getRelationshipStartDate(), user.getCreatedAt(), user.getUpdatedAt(),
+                    List.of(), // No roles/authorities for now
+                    expiresAt);
+        }
+
+        /**
+         * A new detached User for one caller. Its earnings balance is left empty.
+         */
+        public User toUser() {
+            User user = new User(username, passwordHash, name, relationshipStartDate);
+            user.setId(id);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setTotalEarnings(null);
+            return user;
+        }
+
+        /**
+         * A new UserDetails, since authentication erases the credentials it was given
+         */
+        public UserDetails toUserDetails() {
+            return new org.springframework.security.core.userdetails.User(username, passwordHash, authorities);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.couplewebsite.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * Walker/Vose alias table for drawing an index with fixed weights.
+ *
+ * Building it is O(n); each draw is one column pick and one coin flip, so sampling
+ * takes constant time and allocates nothing. Instances are immutable and can be
+ * shared between threads; the random source is supplied by the caller.
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * Build a table for the given non-negative weights. They need not sum to anything
+     * in particular, but at least one must be positive.
+     */
+    public static AliasTable of(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one weight is required");
+        }
+
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+
+        // Scale so the average column holds exactly 1, then pair each short column with a tall one
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+
+        return new AliasTable(probability, alias);
+    }
+
+    /**
+     * Number of outcomes
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * Draw one index
+     */
+    public int sample(SplittableRandom random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
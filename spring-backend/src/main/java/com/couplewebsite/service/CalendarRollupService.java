@@ -0,0 +1,243 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.repository.EarningsRepository;
+import com.couplewebsite.repository.MemoryRepository;
+import com.couplewebsite.repository.PhotoRepository;
+import com.couplewebsite.repository.WheelPrizeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-day counts of photos, memories, wheel prizes and earnings for the calendar.
+ *
+ * Rollups are built once at startup and then kept current by the services that
+ * write those rows: they call touch() with the days they changed, and after the
+ * transaction commits just those days are recounted. Recounting instead of adding
+ * deltas keeps soft deletes, moved dates and rolled back writes right.
+ *
+ * Recounts take no shared lock, so writers on different days never wait for each
+ * other. Recounts of the same day and kind are coalesced: while one runs, later
+ * touches only ask it to count once more, so a burst of awards costs a few queries.
+ */
+@Service
+public class CalendarRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarRollupService.class);
+
+    public enum Kind { PHOTOS, MEMORIES, PRIZES, EARNINGS }
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private MemoryRepository memoryRepository;
+
+    @Autowired
+    private WheelPrizeRepository wheelPrizeRepository;
+
+    @Autowired
+    private EarningsRepository earningsRepository;
+
+    private final NavigableMap<LocalDate, DayRollup> days = new ConcurrentSkipListMap<>();
+
+    // Day and kind being recounted, mapped to whether another touch asked for a recount since it started
+    private final Map<DayKey, Boolean> recounting = new ConcurrentHashMap<>();
+
+    // Touched while the rollups were not loaded; recounted once a rebuild finishes
+    private final Set<DayKey> missed = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+
+    /**
+     * Rollups for the days between from and to (inclusive) that have any activity
+     */
+    public List<DayRollup> getRange(LocalDate from, LocalDate to) {
+        ensureLoaded();
+        return List.copyOf(days.subMap(from, true, to, true).values());
+    }
+
+    /**
+     * Recount the given days of one kind once the current transaction commits
+     */
+    public void touch(Kind kind, Collection<LocalDate> dates) {
+        Set<LocalDate> distinct = new TreeSet<>();
+        for (LocalDate date : dates) {
+            if (date != null) {
+                distinct.add(date);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    distinct.forEach(date -> recount(new DayKey(kind, date)));
+                }
+            });
+        } else {
+            distinct.forEach(date -> recount(new DayKey(kind, date)));
+        }
+    }
+
+    public void touch(Kind kind, LocalDate... dates) {
+        touch(kind, List.of(dates));
+    }
+
+    public void touch(Kind kind, LocalDateTime timestamp) {
+        if (timestamp != null) {
+            touch(kind, timestamp.toLocalDate());
+        }
+    }
+
+    /**
+     * Rebuild every rollup from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<LocalDate, DayRollup> counted = new HashMap<>();
+        for (Kind kind : Kind.values()) {
+            count(kind, LocalDate.of(1900, 1, 1), LocalDate.of(3000, 1, 1), counted);
+        }
+        days.clear();
+        days.putAll(counted);
+        loaded = true;
+        logger.info("Built calendar rollups for {} days", counted.size());
+
+        // Days written after their kind was counted above
+        for (DayKey key : List.copyOf(missed)) {
+            if (missed.remove(key)) {
+                recount(key);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private void recount(DayKey key) {
+        if (!loaded) {
+            // Added before loaded is checked again, so a rebuild finishing now still sees it
+            missed.add(key);
+            if (!loaded) {
+                return;
+            }
+        }
+        if (recounting.put(key, Boolean.TRUE) != null) {
+            // The running recount will count once more
+            return;
+        }
+        try {
+            do {
+                recounting.put(key, Boolean.FALSE);
+                DayRollup fresh = countDay(key.kind(), key.date());
+                days.compute(key.date(), (d, current) -> {
+                    DayRollup base = current != null ? current : DayRollup.empty(d);
+                    DayRollup updated = base.with(key.kind(), fresh);
+                    return updated.isEmpty() ? null : updated;
+                });
+            } while (!recounting.remove(key, Boolean.FALSE));
+        } catch (Exception e) {
+            recounting.remove(key);
+            logger.error("Failed to refresh {} rollups for {}, rebuilding on next read", key.kind(), key.date(), e);
+            loaded = false;
+        }
+    }
+
+    // One day's counts of one kind. Earnings are written at award rates, so that day
+    // is counted in the database instead of loading every row of it
+    private DayRollup countDay(Kind kind, LocalDate date) {
+        if (kind == Kind.EARNINGS) {
+            Object[] row = earningsRepository.countAndSumBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay()).get(0);
+            int count = ((Number) row[0]).intValue();
+            long amount = row[1] != null ? ((Number) row[1]).longValue() : 0;
+            return new DayRollup(date, 0, 0, 0, count, amount);
+        }
+        Map<LocalDate, DayRollup> counted = new HashMap<>();
+        count(kind, date, date.plusDays(1), counted);
+        return counted.getOrDefault(date, DayRollup.empty(date));
+    }
+
+    // Adds the kind's counts for [from, until) into counted
+    private void count(Kind kind, LocalDate from, LocalDate until, Map<LocalDate, DayRollup> counted) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = until.atStartOfDay();
+        switch (kind) {
+            case PHOTOS -> photoRepository.findCreatedAtBetween(start, end)
+                    .forEach(at -> add(counted, at.toLocalDate(), kind, 0));
+            case MEMORIES -> memoryRepository.findDatesBetween(from, until)
+                    .forEach(date -> add(counted, date, kind, 0));
+            case PRIZES -> wheelPrizeRepository.findWonAtBetween(start, end)
+                    .forEach(at -> add(counted, at.toLocalDate(), kind, 0));
+            case EARNINGS -> earningsRepository.findCreatedAtAndAmountBetween(start, end)
+                    .forEach(row -> add(counted, ((LocalDateTime) row[0]).toLocalDate(), kind,
+                            row[1] != null ? ((Number) row[1]).longValue() : 0));
+        }
+    }
+
+    private static void add(Map<LocalDate, DayRollup> counted, LocalDate date, Kind kind, long amount) {
+        counted.merge(date, DayRollup.empty(date).plus(kind, amount), DayRollup::sum);
+    }
+
+    private record DayKey(Kind kind, LocalDate date) {}
+
+    /**
+     * Activity on one day. earningsAmount is the sum of that day's earnings.
+     */
+    public record DayRollup(LocalDate date, int photos, int memories, int prizes, int earnings, long earningsAmount) {
+
+        static DayRollup empty(LocalDate date) {
+            return new DayRollup(date, 0, 0, 0, 0, 0);
+        }
+
+        boolean isEmpty() {
+            return photos == 0 && memories == 0 && prizes == 0 && earnings == 0;
+        }
+
+        DayRollup plus(Kind kind, long amount) {
+            return switch (kind) {
+                case PHOTOS -> new DayRollup(date, photos + 1, memories, prizes, earnings, earningsAmount);
+                case MEMORIES -> new DayRollup(date, photos, memories + 1, prizes, earnings, earningsAmount);
+                case PRIZES -> new DayRollup(date, photos, memories, prizes + 1, earnings, earningsAmount);
+                case EARNINGS -> new DayRollup(date, photos, memories, prizes, earnings + 1, earningsAmount + amount);
+            };
+        }
+
+        // This rollup with one kind's counts taken from other
+        DayRollup with(Kind kind, DayRollup other) {
+            return switch (kind) {
+                case PHOTOS -> new DayRollup(date, other.photos, memories, prizes, earnings, earningsAmount);
+                case MEMORIES -> new DayRollup(date, photos, other.memories, prizes, earnings, earningsAmount);
+                case PRIZES -> new DayRollup(date, photos, memories, other.prizes, earnings, earningsAmount);
+                case EARNINGS -> new DayRollup(date, photos, memories, prizes, other.earnings, other.earningsAmount);
+            };
+        }
+
+        static DayRollup sum(DayRollup a, DayRollup b) {
+            return new DayRollup(a.date, a.photos + b.photos, a.memories + b.memories, a.prizes + b.prizes,
+                    a.earnings + b.earnings, a.earningsAmount + b.earningsAmount);
+        }
+    }
+}
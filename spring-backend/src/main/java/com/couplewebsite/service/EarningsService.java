@@ -9,33 +9,75 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Earnings are an append-only ledger with the running balance on the user row.
+ *
+ * An award adds to users.total_earnings with a single UPDATE instead of reading
+ * the total into Java and saving the user back, so concurrent awards queue on the
+ * row lock rather than losing each other's amounts. Each ledger row records the
+ * balance its award produced.
+ */
 @Service
 @Transactional
 public class EarningsService {
 
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     @Autowired
     private EarningsRepository earningsRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
     public Earnings addEarnings(User user, Integer amount, String source) {
-        // Get current total earnings
-        Integer currentTotal = user.getTotalEarnings();
-        Integer newTotal = currentTotal + amount;
-        
-        // Update user's total earnings
-        user.setTotalEarnings(newTotal);
-        userRepository.save(user);
-        
-        // Create earnings record
-        Earnings earnings = new Earnings(user, amount, newTotal, source);
-        return earningsRepository.save(earnings);
+        return addEarnings(user, amount, source, null);
     }
 
+    /**
+     * Record an award. With an idempotency key, an award already recorded under
+     * that key for the user is returned unchanged; two concurrent requests with
+     * the same key collide on the unique (user, key) constraint and one of them
+     * rolls back with a DataIntegrityViolationException.
+     */
+    public Earnings addEarnings(User user, Integer amount, String source, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            Optional<Earnings> existing = findByIdempotencyKey(user, idempotencyKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
+        if (userRepository.addToTotalEarnings(user.getId(), amount) == 0) {
+            throw new IllegalArgumentException("User not found with id: " + user.getId());
+        }
+        // Still holding the row lock, so this is exactly the balance our award produced
+        Integer newTotal = userRepository.findTotalEarningsById(user.getId()).orElseThrow();
+
+        Earnings earnings = earningsRepository.save(new Earnings(user, amount, newTotal, source, idempotencyKey));
+        userStatsService.recordEarnings(user, amount);
+        calendarRollupService.touch(CalendarRollupService.Kind.EARNINGS, earnings.getCreatedAt());
+        return earnings;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Earnings> findByIdempotencyKey(User user, String idempotencyKey) {
+        return earningsRepository.findByUserIdAndIdempotencyKey(user.getId(), idempotencyKey);
+    }
+
+    @Transactional(readOnly = true)
     public Integer getTotalEarnings(User user) {
-        return user.getTotalEarnings();
+        return userRepository.findTotalEarningsById(user.getId()).orElse(0);
     }
 
     public List<Earnings> getEarningsHistory(User user) {
@@ -45,16 +87,18 @@ public class EarningsService {
     public List<Earnings> getEarningsBySource(User user, String source) {
         return earningsRepository.findByUserAndSourceOrderByCreatedAtDesc(user, source);
     }
-    
+
     /**
      * Clear all earnings history for a user (for developer settings)
      */
     public void clearEarningsHistory(User user) {
         List<Earnings> userEarnings = earningsRepository.findByUserOrderByCreatedAtDesc(user);
         earningsRepository.deleteAll(userEarnings);
-        
+        userStatsService.clearEarnings(user);
+        calendarRollupService.touch(CalendarRollupService.Kind.EARNINGS,
+                userEarnings.stream().map(earning -> earning.getCreatedAt().toLocalDate()).toList());
+
         // Reset user's total earnings to 0
-        user.setTotalEarnings(0);
-        userRepository.save(user);
+        userRepository.resetTotalEarnings(user.getId());
     }
 }
@@ -0,0 +1,294 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.EditSession;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.EditSessionRepository;
+import com.couplewebsite.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory edit lock table for shared notes.
+ *
+ * Each note maps to an atomically swapped, immutable {@link Lease}. Checks and activity
+ * updates on the keystroke path never touch the database; lease changes are marked
+ * dirty and written to edit_sessions in the background, and expiry runs on a one
+ * second timer instead of the edit-session database sweep.
+ */
+@Service
+public class EditLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(EditLeaseManager.class);
+
+    static final long LEASE_TIMEOUT_MILLIS = 2 * 60 * 1000;
+    static final long REQUEST_TIMEOUT_MILLIS = 30 * 1000;
+
+    @Autowired
+    private EditSessionRepository editSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, AtomicReference<Lease>> leases = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirtyNotes = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public EditLeaseManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Try to take the lease for a note. Returns the resulting lease: held by the user
+     * when granted, otherwise the other editor's lease with the user recorded as requester.
+     */
+    public Lease acquire(Long noteId, User user) {
+        return update(noteId, current -> {
+            long now = System.currentTimeMillis();
+            if (current == null || !current.isActive(now)) {
+                return Lease.grant(user, now);
+            }
+            if (current.isHeldBy(user.getId(), now)) {
+                return current.touch(now);
+            }
+            return current.withRequester(user, now + REQUEST_TIMEOUT_MILLIS);
+        });
+    }
+
+    /**
+     * Give the lease to a user regardless of the current holder
+     */
+    public Lease grant(Long noteId, User user) {
+        return update(noteId, current -> Lease.grant(user, System.currentTimeMillis()));
+    }
+
+    /**
+     * Release the lease if the user holds it. Returns false if someone else holds it.
+     */
+    public boolean release(Long noteId, Long userId) {
+        Lease result = update(noteId, current -> {
+            long now = System.currentTimeMillis();
+            if (current != null && current.isHeldBy(userId, now)) {
+                return current.released(now);
+            }
+            return current;
+        });
+        return result == null || !result.isActive(System.currentTimeMillis());
+    }
+
+    /**
+     * Refresh the holder's last activity. No-op if the user does not hold the lease.
+     */
+    public void touch(Long noteId, Long userId) {
+        AtomicReference<Lease> ref = leaseRef(noteId);
+        while (true) {
+            Lease current = ref.get();
+            long now = System.currentTimeMillis();
+            if (current == null || !current.isHeldBy(userId, now)) {
+                return;
+            }
+            // Activity alone is not persisted, it only keeps the lease alive
+            if (ref.compareAndSet(current, current.touch(now))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Check whether the user currently holds the lease
+     */
+    public boolean isHeldBy(Long noteId, Long userId) {
+        Lease lease = leaseRef(noteId).get();
+        return lease != null && lease.isHeldBy(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the active lease for a note, or null if nobody is editing
+     */
+    public Lease getActiveLease(Long noteId) {
+        Lease lease = leaseRef(noteId).get();
+        return lease != null && lease.isActive(System.currentTimeMillis()) ? lease : null;
+    }
+
+    /**
+     * Expire idle leases and stale edit requests, then persist changed leases
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void expireAndPersist() {
+        long now = System.currentTimeMillis();
+
+        leases.forEach((noteId, ref) -> {
+            Lease current = ref.get();
+            if (current == null) {
+                return;
+            }
+
+            Lease next = current;
+            if (current.holder() != null && !current.isActive(now)) {
+                next = next.released(now);
+                logger.info("Edit lease for note {} expired after inactivity", noteId);
+            }
+            if (next.requester() != null && next.requestExpiresAt() < now) {
+                next = next.withRequester(null, 0);
+            }
+
+            if (next != current && ref.compareAndSet(current, next)) {
+                dirtyNotes.add(noteId);
+            }
+        });
+
+        flush();
+    }
+
+    /**
+     * Write all dirty leases to the edit_sessions table
+     */
+    @PreDestroy
+    public void flush() {
+        for (Long noteId : dirtyNotes) {
+            dirtyNotes.remove(noteId);
+            Lease lease = leaseRef(noteId).get();
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(noteId, lease));
+            } catch (Exception e) {
+                logger.error("Failed to persist edit lease for note {}", noteId, e);
+                dirtyNotes.add(noteId);
+            }
+        }
+    }
+
+    /**
+     * Build a detached EditSession view of a lease for callers that expose session details
+     */
+    public EditSession toEditSession(Long noteId, Lease lease) {
+        EditSession session = new EditSession(noteId);
+        if (lease != null) {
+            session.setCurrentEditor(lease.holder());
+            session.setIsActive(lease.isActive(System.currentTimeMillis()));
+            session.setLockAcquiredAt(toLocalDateTime(lease.acquiredAt()));
+            session.setLastActivityAt(toLocalDateTime(lease.lastActivityAt()));
+            session.setRequestedByUser(lease.requester());
+            session.setRequestExpiresAt(lease.requester() != null ? toLocalDateTime(lease.requestExpiresAt()) : null);
+        }
+        return session;
+    }
+
+    private Lease update(Long noteId, UnaryOperator<Lease> change) {
+        AtomicReference<Lease> ref = leaseRef(noteId);
+        while (true) {
+            Lease current = ref.get();
+            Lease next = change.apply(current);
+            if (next == current) {
+                return current;
+            }
+            if (ref.compareAndSet(current, next)) {
+                dirtyNotes.add(noteId);
+                return next;
+            }
+        }
+    }
+
+    // Loaded from the database once per note, after that memory is authoritative.
+    // The load runs outside the map so a slow query never blocks other notes' bins;
+    // if two threads race, the first reference stored wins and the other load is dropped.
+    private AtomicReference<Lease> leaseRef(Long noteId) {
+        AtomicReference<Lease> ref = leases.get(noteId);
+        if (ref != null) {
+            return ref;
+        }
+        AtomicReference<Lease> loaded = new AtomicReference<>(loadLease(noteId));
+        ref = leases.putIfAbsent(noteId, loaded);
+        return ref != null ? ref : loaded;
+    }
+
+    private Lease loadLease(Long noteId) {
+        try {
+            return editSessionRepository.findWithUsersByNoteId(noteId)
+                .filter(session -> Boolean.TRUE.equals(session.getIsActive()) && session.getCurrentEditor() != null)
+                .map(session -> new Lease(
+                    session.getCurrentEditor(),
+                    toEpochMillis(session.getLockAcquiredAt()),
+                    toEpochMillis(session.getLastActivityAt()),
+                    null,
+                    0))
+                .orElse(null);
+        } catch (Exception e) {
+            logger.error("Failed to load edit session for note {}", noteId, e);
+            return null;
+        }
+    }
+
+    private void persist(Long noteId, Lease lease) {
+        EditSession session = editSessionRepository.findByNoteId(noteId)
+            .orElse(new EditSession(noteId));
+
+        boolean active = lease != null && lease.holder() != null;
+        session.setIsActive(active);
+        session.setCurrentEditor(active ? userRepository.getReferenceById(lease.holder().getId()) : null);
+        if (lease != null) {
+            session.setLockAcquiredAt(toLocalDateTime(lease.acquiredAt()));
+            session.setLastActivityAt(toLocalDateTime(lease.lastActivityAt()));
+            session.setRequestedByUser(lease.requester() != null
+                ? userRepository.getReferenceById(lease.requester().getId()) : null);
+            session.setRequestExpiresAt(lease.requester() != null ? toLocalDateTime(lease.requestExpiresAt()) : null);
+        }
+
+        editSessionRepository.save(session);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()) : null;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+
+    /**
+     * Immutable lease state. A lease with no holder is free but may still carry a
+     * pending request.
+     */
+    public record Lease(User holder, long acquiredAt, long lastActivityAt, User requester, long requestExpiresAt) {
+
+        static Lease grant(User user, long now) {
+            return new Lease(user, now, now, null, 0);
+        }
+
+        public boolean isActive(long now) {
+            return holder != null && now - lastActivityAt <= LEASE_TIMEOUT_MILLIS;
+        }
+
+        public boolean isHeldBy(Long userId, long now) {
+            return isActive(now) && holder.getId().equals(userId);
+        }
+
+        Lease touch(long now) {
+            return new Lease(holder, acquiredAt, now, requester, requestExpiresAt);
+        }
+
+        Lease released(long now) {
+            return new Lease(null, acquiredAt, now, requester, requestExpiresAt);
+        }
+
+        Lease withRequester(User user, long expiresAt) {
+            return new Lease(holder, acquiredAt, lastActivityAt, user, expiresAt);
+        }
+    }
+}
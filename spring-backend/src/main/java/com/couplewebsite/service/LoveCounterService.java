@@ -0,0 +1,222 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.Love;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.LoveRepository;
+import com.couplewebsite.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory love counters, one per user.
+ *
+ * Taps only add to LongAdders and reads come from memory. Pending taps are written
+ * with a single relative UPDATE (count_value = count_value + n) on the scheduler
+ * every love.flush-interval-ms, sooner once love.flush-threshold taps are pending,
+ * and on shutdown. A crash loses at most one interval of taps.
+ *
+ * The totals are loaded once per user and then only follow this instance's taps,
+ * so the service assumes a single backend instance. A second instance would not
+ * lose the other's taps in the database, but neither would see them until restart.
+ */
+@Service
+public class LoveCounterService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoveCounterService.class);
+    
+    @Autowired
+    private LoveRepository loveRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${love.flush-threshold:100}")
+    private long flushThreshold;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    
+    private volatile boolean allLoaded;
+    
+    @Autowired
+    public LoveCounterService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Add one tap for a user and return the new count
+     */
+    public long increment(String username) {
+        Counter counter = counter(username);
+        if (counter == null) {
+            throw new RuntimeException("User not found: " + username);
+        }
+        counter.total.increment();
+        counter.pending.increment();
+        
+        // The tap that crosses the threshold asks for an early flush, none of them write
+        if (counter.pending.sum() >= flushThreshold && counter.flushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                counter.flushRequested.set(false);
+                flush(counter);
+            }, Instant.now());
+        }
+        return counter.total.sum();
+    }
+    
+    /**
+     * Current count for a user
+     */
+    public long get(String username) {
+        Counter counter = counter(username);
+        return counter != null ? counter.total.sum() : 0L;
+    }
+    
+    /**
+     * Count stored for a user when this instance first loaded it, before any taps it counted
+     */
+    public long getLoaded(String username) {
+        Counter counter = counter(username);
+        return counter != null ? counter.loaded : 0L;
+    }
+    
+    /**
+     * Sum of all users' counts
+     */
+    public long getTotal() {
+        loadAll();
+        return counters.values().stream().mapToLong(counter -> counter.total.sum()).sum();
+    }
+    
+    /**
+     * Overwrite a user's count (admin use). Taps not yet written are discarded.
+     *
+     * Runs under the flush lock, so no flush can add discarded taps on top of the
+     * new value. Taps that arrive during the write stay pending and are flushed
+     * after it as usual.
+     */
+    public Love set(String username, long count) {
+        Counter counter = counter(username);
+        if (counter == null) {
+            throw new RuntimeException("User not found: " + username);
+        }
+        counter.lock.lock();
+        try {
+            counter.pending.reset();
+            Love love = transactionTemplate.execute(status -> {
+                Love row = loveRepository.findByUserId(counter.userId)
+                    .orElseGet(() -> new Love(userRepository.getReferenceById(counter.userId), count));
+                row.setCountValue(count);
+                row.setUpdatedAt(LocalDateTime.now());
+                return loveRepository.save(row);
+            });
+            counter.total.reset();
+            counter.total.add(count + counter.pending.sum());
+            return love;
+        } finally {
+            counter.lock.unlock();
+        }
+    }
+    
+    /**
+     * Write pending taps for every user
+     */
+    @Scheduled(fixedDelayString = "${love.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flushAll() {
+        counters.values().forEach(this::flush);
+    }
+    
+    private void flush(Counter counter) {
+        counter.lock.lock();
+        try {
+            flushLocked(counter);
+        } finally {
+            counter.lock.unlock();
+        }
+    }
+    
+    private void flushLocked(Counter counter) {
+        long delta = counter.pending.sumThenReset();
+        if (delta == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int updated = loveRepository.addToCount(counter.userId, delta, LocalDateTime.now());
+                if (updated == 0) {
+                    loveRepository.save(new Love(userRepository.getReferenceById(counter.userId), delta));
+                }
+            });
+            logger.debug("Flushed {} love taps for user {}", delta, counter.userId);
+        } catch (Exception e) {
+            logger.error("Failed to flush {} love taps for user {}, will retry", delta, counter.userId, e);
+            counter.pending.add(delta);
+        }
+    }
+    
+    private Counter counter(String username) {
+        Counter counter = counters.get(username);
+        if (counter != null) {
+            return counter;
+        }
+        return userRepository.findByUsername(username)
+            .map(user -> counters.computeIfAbsent(username, k -> load(user)))
+            .orElse(null);
+    }
+    
+    // Totals need every user's counter, not just the ones that tapped since startup
+    private void loadAll() {
+        if (!allLoaded) {
+            userRepository.findAll().forEach(user -> counters.computeIfAbsent(user.getUsername(), k -> load(user)));
+            allLoaded = true;
+        }
+    }
+    
+    private Counter load(User user) {
+        long stored = loveRepository.findByUserId(user.getId()).map(Love::getCountValue).orElse(0L);
+        Counter counter = new Counter(user.getId(), stored);
+        counter.total.add(stored);
+        return counter;
+    }
+    
+    private static final class Counter {
+        
+        final Long userId;
+        // Stored count when the counter was loaded
+        final long loaded;
+        // Serializes writes of this user's pending taps
+        final ReentrantLock lock = new ReentrantLock();
+        // An early flush is already scheduled
+        final AtomicBoolean flushRequested = new AtomicBoolean();
+        // Count as seen by readers, including taps not yet written
+        final LongAdder total = new LongAdder();
+        // Taps not yet written to love_counter
+        final LongAdder pending = new LongAdder();
+        
+        Counter(Long userId, long loaded) {
+            this.userId = userId;
+            this.loaded = loaded;
+        }
+    }
+}
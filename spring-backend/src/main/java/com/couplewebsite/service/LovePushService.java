@@ -0,0 +1,139 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes love count changes to the partner.
+ *
+ * Increments only mark the user as changed; one push carrying the latest in-memory
+ * count goes out at most every love.push-debounce-ms, however fast the taps come.
+ * Crossing a multiple of 520 is announced to both users right away. Milestones
+ * are counted from the stored totals at startup, so a restart neither repeats old
+ * announcements nor skips the next one, and a jump past several multiples
+ * announces each of them.
+ */
+@Service
+public class LovePushService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LovePushService.class);
+    
+    public static final String PARTNER_LOVE_UPDATE = "partner-love-update";
+    public static final String LOVE_MILESTONE = "love-milestone";
+    public static final String MILESTONE_STREAM = "love/milestones";
+    
+    static final long MILESTONE = 520;
+    
+    @Autowired
+    private LoveCounterService loveCounterService;
+    
+    @Autowired
+    private RealtimeGateway realtimeGateway;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${love.push-debounce-ms:250}")
+    private long debounceMillis;
+    
+    // Users with a push already scheduled
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    
+    // Highest milestone announced per user
+    private final Map<String, AtomicLong> milestones = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * Start each user's milestones from their stored total
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMilestones() {
+        userRepository.findAll().forEach(user -> announcedMilestones(user.getUsername()));
+    }
+    
+    @EventListener
+    public void onLoveIncremented(LoveService.LoveIncrementedEvent event) {
+        checkMilestone(event.username(), event.count());
+        requestPush(event.username());
+    }
+    
+    /**
+     * Push the user's current count to the partner within the debounce interval
+     */
+    public void requestPush(String username) {
+        if (scheduled.add(username)) {
+            taskScheduler.schedule(() -> push(username), Instant.now().plusMillis(debounceMillis));
+        }
+    }
+    
+    /**
+     * What a user sees about their partner
+     */
+    public Map<String, Object> partnerLoveData(String viewerUsername) {
+        String partnerUsername = partnerOf(viewerUsername);
+        return Map.of(
+            "partnerUsername", partnerUsername,
+            "partnerLoveCount", loveCounterService.get(partnerUsername),
+            "partnerDisplayName", displayName(partnerUsername)
+        );
+    }
+    
+    public static String partnerOf(String username) {
+        return "scott".equals(username) ? "zoe" : "scott";
+    }
+    
+    public static String displayName(String username) {
+        return "scott".equals(username) ? "Scott" : "Zoe";
+    }
+    
+    private void push(String username) {
+        // Cleared first so taps during the send schedule another push
+        scheduled.remove(username);
+        try {
+            String partnerUsername = partnerOf(username);
+            realtimeGateway.sendToUser(partnerUsername, RealtimeGateway.LOVE_STREAM, PARTNER_LOVE_UPDATE,
+                partnerLoveData(partnerUsername));
+        } catch (Exception e) {
+            logger.error("Error pushing love count of user {} to partner", username, e);
+        }
+    }
+    
+    private void checkMilestone(String username, long count) {
+        long reached = count / MILESTONE;
+        long previous = announcedMilestones(username).getAndAccumulate(reached, Math::max);
+        
+        // Every multiple crossed since the last announcement, in order
+        for (long multiple = previous + 1; multiple <= reached; multiple++) {
+            Map<String, Object> milestone = Map.of(
+                "username", username,
+                "displayName", displayName(username),
+                "milestone", multiple * MILESTONE,
+                "count", count
+            );
+            realtimeGateway.sendToUser(username, MILESTONE_STREAM, LOVE_MILESTONE, milestone);
+            realtimeGateway.sendToUser(partnerOf(username), MILESTONE_STREAM, LOVE_MILESTONE, milestone);
+            logger.info("User {} reached love milestone {}", username, multiple * MILESTONE);
+        }
+    }
+    
+    // Milestones already passed by the stored total are not announced again
+    private AtomicLong announcedMilestones(String username) {
+        return milestones.computeIfAbsent(username,
+            k -> new AtomicLong(loveCounterService.getLoaded(username) / MILESTONE));
+    }
+}
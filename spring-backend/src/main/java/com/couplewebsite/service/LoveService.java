@@ -1,23 +1,12 @@
 package com.couplewebsite.service;
 
 import com.couplewebsite.entity.Love;
-import com.couplewebsite.entity.User;
-import com.couplewebsite.repository.LoveRepository;
-import com.couplewebsite.repository.UserRepository;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Optional;
 
 @Service
 public class LoveService {
@@ -25,32 +14,17 @@ public class LoveService {
     private static final Logger logger = LoggerFactory.getLogger(LoveService.class);
     
     @Autowired
-    private LoveRepository loveRepository;
+    private LoveCounterService loveCounterService;
     
     @Autowired
-    private UserRepository userRepository;
-    
-    @Autowired
-    private DataSource dataSource;
-    
-
+    private ApplicationEventPublisher eventPublisher;
     
     /**
      * Get current user's love count (user-based)
      */
-    @Transactional(readOnly = true)
     public Long getCurrentUserLoveCount() {
         try {
-            String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<User> userOpt = userRepository.findByUsername(currentUsername);
-            if (userOpt.isEmpty()) {
-                logger.warn("Current user not found: " + currentUsername);
-                return 0L;
-            }
-            
-            Optional<Love> loveOpt = loveRepository.findByUser(userOpt.get());
-            return loveOpt.map(Love::getCountValue).orElse(0L);
-            
+            return loveCounterService.get(currentUsername());
         } catch (Exception e) {
             logger.error("Error getting current user love count", e);
             return 0L;
@@ -60,10 +34,9 @@ public class LoveService {
     /**
      * Get total love count across all users
      */
-    @Transactional(readOnly = true)
     public Long getTotalLoveCount() {
         try {
-            return loveRepository.getTotalLoveCount();
+            return loveCounterService.getTotal();
         } catch (Exception e) {
             logger.error("Error getting total love count", e);
             return 0L;
@@ -71,32 +44,17 @@ public class LoveService {
     }
     
     /**
-     * Increment current user's love count (user-based)
+     * Increment current user's love count (user-based). Returns the new count;
+     * the database is updated in the background by LoveCounterService and the
+     * partner is notified through a LoveIncrementedEvent.
      */
-    @Transactional
-    public Love incrementLoveCount() {
+    public long incrementLoveCount() {
         try {
-            String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<User> userOpt = userRepository.findByUsername(currentUsername);
-            if (userOpt.isEmpty()) {
-                throw new RuntimeException("Current user not found: " + currentUsername);
-            }
-            User currentUser = userOpt.get();
-            
-            Optional<Love> loveOpt = loveRepository.findByUser(currentUser);
-            
-            Love love;
-            if (loveOpt.isPresent()) {
-                love = loveOpt.get();
-                love.incrementCount();
-            } else {
-                love = new Love(currentUser, 1L);
-            }
-            
-            Love savedLove = loveRepository.save(love);
-            logger.info("Love count incremented by user: {} to {}", currentUsername, savedLove.getCountValue());
-            
-            return savedLove;
+            String currentUsername = currentUsername();
+            long count = loveCounterService.increment(currentUsername);
+            logger.debug("Love count incremented by user: {} to {}", currentUsername, count);
+            eventPublisher.publishEvent(new LoveIncrementedEvent(currentUsername, count));
+            return count;
             
         } catch (Exception e) {
             logger.error("Error incrementing love count", e);
@@ -107,27 +65,10 @@ public class LoveService {
     /**
      * Set current user's love count to a specific value (user-based)
      */
-    @Transactional
     public Love setLoveCount(Long count) {
         try {
-            String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<User> userOpt = userRepository.findByUsername(currentUsername);
-            if (userOpt.isEmpty()) {
-                throw new RuntimeException("Current user not found: " + currentUsername);
-            }
-            User currentUser = userOpt.get();
-            
-            Optional<Love> loveOpt = loveRepository.findByUser(currentUser);
-            
-            Love love;
-            if (loveOpt.isPresent()) {
-                love = loveOpt.get();
-                love.setCountValue(count);
-            } else {
-                love = new Love(currentUser, count);
-            }
-            
-            Love savedLove = loveRepository.save(love);
+            String currentUsername = currentUsername();
+            Love savedLove = loveCounterService.set(currentUsername, count);
             logger.info("Love count set by user: {} to {}", currentUsername, savedLove.getCountValue());
             
             return savedLove;
@@ -141,7 +82,6 @@ public class LoveService {
     /**
      * Get love statistics
      */
-    @Transactional(readOnly = true)
     public LoveStats getLoveStats() {
         try {
             Long currentUserCount = getCurrentUserLoveCount();
@@ -178,16 +118,9 @@ public class LoveService {
     /**
      * Get love count by username
      */
-    @Transactional(readOnly = true)
     public Long getLoveCountByUsername(String username) {
         try {
-            Optional<User> userOpt = userRepository.findByUsername(username);
-            if (userOpt.isEmpty()) {
-                logger.warn("User not found: " + username);
-                return 0L;
-            }
-            Optional<Love> loveOpt = loveRepository.findByUser(userOpt.get());
-            return loveOpt.map(Love::getCountValue).orElse(0L);
+            return loveCounterService.get(username);
         } catch (Exception e) {
             logger.error("Error getting love count for user: " + username, e);
             return 0L;
@@ -195,64 +128,30 @@ public class LoveService {
     }
     
     /**
-     * Non-transactional version for SSE usage to avoid connection leaks
-     * Uses direct JDBC connection to completely bypass JPA/Hibernate
+     * Love count by username for SSE usage. Served from memory, so it holds no
+     * database connection.
      */
     public Long getLoveCountByUsernameNonTransactional(String username) {
-        String sql = "SELECT l.count_value FROM love_counter l " +
-                    "JOIN users u ON l.user_id = u.id " +
-                    "WHERE u.username = ?";
-        
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
-            statement.setString(1, username);
-            
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getLong("count_value");
-                } else {
-                    logger.debug("No love count found for user: " + username);
-                    return 0L;
-                }
-            }
-            
-        } catch (SQLException e) {
-            logger.error("Error getting love count for user: " + username, e);
-            return 0L;
-        }
+        return getLoveCountByUsername(username);
     }
     
     /**
-     * Non-transactional version of getCurrentUserLoveCount for SSE usage
-     * Uses direct JDBC connection to completely bypass JPA/Hibernate
+     * Current user's love count for SSE usage. Served from memory, so it holds no
+     * database connection.
      */
     public Long getCurrentUserLoveCountNonTransactional() {
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        String sql = "SELECT l.count_value FROM love_counter l " +
-                    "JOIN users u ON l.user_id = u.id " +
-                    "WHERE u.username = ?";
-        
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
-            statement.setString(1, currentUsername);
-            
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getLong("count_value");
-                } else {
-                    logger.debug("No love count found for current user");
-                    return 0L;
-                }
-            }
-            
-        } catch (SQLException e) {
-            logger.error("Error getting current user love count", e);
-            return 0L;
-        }
+        return getCurrentUserLoveCount();
+    }
+    
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
     }
     
+    /**
+     * Published after every increment with the user's new count
+     */
+    public record LoveIncrementedEvent(String username, long count) {}
+    
     // Inner class for love statistics
     public static class LoveStats {
         private final Long currentUserCount;
@@ -4,21 +4,30 @@ import com.couplewebsite.entity.Memory;
 import com.couplewebsite.entity.Photo;
 import com.couplewebsite.entity.User;
 import com.couplewebsite.repository.MemoryRepository;
+import com.couplewebsite.repository.MemorySpecifications;
 import com.couplewebsite.repository.PhotoRepository;
 import com.couplewebsite.security.CustomUserDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,6 +35,9 @@ public class MemoryService {
     
     private static final Logger logger = LoggerFactory.getLogger(MemoryService.class);
     
+    // Ids per join table statement; stays well under SQLite's bound parameter limit
+    private static final int PHOTO_LINK_CHUNK_SIZE = 500;
+    
     @Autowired
     private MemoryRepository memoryRepository;
     
@@ -35,6 +47,9 @@ public class MemoryService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+    
     /**
      * Create a new memory
      */
@@ -65,6 +80,7 @@ public class MemoryService {
             }
             
             Memory savedMemory = memoryRepository.save(memory);
+            calendarRollupService.touch(CalendarRollupService.Kind.MEMORIES, savedMemory.getDate());
             
             logger.info("Memory created successfully: {}", title);
             return savedMemory;
@@ -102,6 +118,7 @@ public class MemoryService {
     public Memory updateMemory(Long id, String title, String description, LocalDate date, LocalDate endDate, Memory.MemoryType type) {
         Memory memory = memoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Memory not found"));
+        calendarRollupService.touch(CalendarRollupService.Kind.MEMORIES, memory.getDate(), date);
         
         memory.setTitle(title);
         memory.setDescription(description);
@@ -130,8 +147,10 @@ public class MemoryService {
      */
     public boolean deleteMemory(Long id) {
         try {
-            if (memoryRepository.existsById(id)) {
-                memoryRepository.deleteById(id);
+            Optional<Memory> memory = memoryRepository.findById(id);
+            if (memory.isPresent()) {
+                memoryRepository.delete(memory.get());
+                calendarRollupService.touch(CalendarRollupService.Kind.MEMORIES, memory.get().getDate());
                 logger.info("Memory deleted successfully: {}", id);
                 return true;
             }
@@ -152,32 +171,37 @@ public class MemoryService {
     }
     
     /**
-     * Get upcoming memories excluding EVENT type (for dashboard)
+     * Get upcoming memories excluding EVENT type (for dashboard).
+     * Anniversaries are ordered on a circular day-of-year: those after today first,
+     * then those from the start of the year up to and including today.
      */
     public List<Memory> getUpcomingMemoriesExcludingEvents(int limit) {
-        List<Memory> allMemories = memoryRepository.findUpcomingMemoriesExcludingEvents();
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
         LocalDate today = LocalDate.now();
+        int todayOfYear = Memory.dayOfYear(today.getMonthValue(), today.getDayOfMonth());
         
-        return allMemories.stream()
-            .map(memory -> {
-                LocalDate memoryDate = memory.getDate();
-                int thisYear = today.getYear();
-                LocalDate anniversaryThisYear = LocalDate.of(thisYear, memoryDate.getMonth(), memoryDate.getDayOfMonth());
-                LocalDate nextAnniversary = anniversaryThisYear.isBefore(today) || anniversaryThisYear.isEqual(today) 
-                    ? LocalDate.of(thisYear + 1, memoryDate.getMonth(), memoryDate.getDayOfMonth())
-                    : anniversaryThisYear;
-                
-                // Create a wrapper to include next anniversary date
-                return new Object() {
-                    public final Memory memoryData = memory;
-                    public final LocalDate nextAnniversaryDate = nextAnniversary;
-                    public final long daysUntil = ChronoUnit.DAYS.between(today, nextAnniversary);
-                };
-            })
-            .sorted((a, b) -> Long.compare(a.daysUntil, b.daysUntil))
-            .limit(limit)
-            .map(wrapper -> wrapper.memoryData)
-            .collect(Collectors.toList());
+        List<Memory> upcoming = new ArrayList<>(
+            memoryRepository.findNonEventsAfterDayOfYear(todayOfYear, PageRequest.of(0, limit)));
+        if (upcoming.size() < limit) {
+            upcoming.addAll(memoryRepository.findNonEventsUpToDayOfYear(
+                todayOfYear, PageRequest.of(0, limit - upcoming.size())));
+        }
+        return upcoming;
+    }
+    
+    /**
+     * Fill in calendar columns for memories saved before they existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCalendarFields() {
+        List<Memory> missing = memoryRepository.findByDayOfYearIsNull();
+        if (!missing.isEmpty()) {
+            missing.forEach(Memory::syncCalendarFields);
+            memoryRepository.saveAll(missing);
+            logger.info("Filled in calendar fields for {} memories", missing.size());
+        }
     }
     
     /**
@@ -222,17 +246,7 @@ public class MemoryService {
      */
     public List<Memory> getMemoriesByDate(LocalDate date) {
         try {
-            // Get all memories
-            List<Memory> allMemories = memoryRepository.findAll();
-            
-            // Filter memories that match the month and day, regardless of year
-            return allMemories.stream()
-                .filter(memory -> {
-                    LocalDate memoryDate = memory.getDate();
-                    return memoryDate.getMonthValue() == date.getMonthValue() &&
-                           memoryDate.getDayOfMonth() == date.getDayOfMonth();
-                })
-                .collect(Collectors.toList());
+            return memoryRepository.findByMonthAndDayOfMonth(date.getMonthValue(), date.getDayOfMonth());
         } catch (Exception e) {
             logger.error("Error fetching memories for date: {}", date, e);
             throw new RuntimeException("Failed to fetch memories for date: " + e.getMessage());
@@ -244,16 +258,7 @@ public class MemoryService {
      */
     public List<Memory> getMemoriesForMonth(int year, int month) {
         try {
-            // Get all memories
-            List<Memory> allMemories = memoryRepository.findAll();
-            
-            // Filter memories that match the month and day, regardless of year
-            return allMemories.stream()
-                .filter(memory -> {
-                    LocalDate memoryDate = memory.getDate();
-                    return memoryDate.getMonthValue() == month;
-                })
-                .collect(Collectors.toList());
+            return memoryRepository.findByMonth(month);
         } catch (Exception e) {
             logger.error("Error fetching memories for month: {}/{}", year, month, e);
             throw new RuntimeException("Failed to fetch memories for month: " + e.getMessage());
@@ -265,58 +270,7 @@ public class MemoryService {
      */
     public List<Memory> getMemoriesFiltered(String type, String timeFilter, String sortOrder) {
         try {
-            List<Memory> memories = memoryRepository.findAllByOrderByDateDesc();
-            
-            // Filter by type if specified
-            if (type != null && !"all".equals(type)) {
-                Memory.MemoryType memoryType = Memory.MemoryType.fromValue(type);
-                memories = memories.stream()
-                    .filter(memory -> memory.getType() == memoryType)
-                    .collect(Collectors.toList());
-            }
-            
-            // Filter by time period if specified
-            if (timeFilter != null && !"all".equals(timeFilter)) {
-                LocalDate now = LocalDate.now();
-                memories = memories.stream()
-                    .filter(memory -> {
-                        LocalDate memoryDate = memory.getDate();
-                        
-                        switch (timeFilter) {
-                            case "thisYear":
-                                return memoryDate.getYear() == now.getYear();
-                            case "lastYear":
-                                return memoryDate.getYear() == now.getYear() - 1;
-                            case "thisMonth":
-                                return memoryDate.getYear() == now.getYear() && 
-                                       memoryDate.getMonth() == now.getMonth();
-                            case "last6Months":
-                                LocalDate sixMonthsAgo = now.minusMonths(6);
-                                return memoryDate.isAfter(sixMonthsAgo) || memoryDate.isEqual(sixMonthsAgo);
-                            case "older":
-                                LocalDate twoYearsAgo = now.minusYears(2);
-                                return memoryDate.isBefore(twoYearsAgo);
-                            default:
-                                return true;
-                        }
-                    })
-                    .collect(Collectors.toList());
-            }
-            
-            // Sort by date based on sortOrder parameter
-            if (sortOrder != null) {
-                if ("asc".equals(sortOrder)) {
-                    memories = memories.stream()
-                        .sorted(Comparator.comparing(Memory::getDate))
-                        .collect(Collectors.toList());
-                } else if ("desc".equals(sortOrder)) {
-                    memories = memories.stream()
-                        .sorted(Comparator.comparing(Memory::getDate).reversed())
-                        .collect(Collectors.toList());
-                }
-            }
-            
-            return memories;
+            return memoryRepository.findAll(filterSpecification(type, timeFilter), filterSort(sortOrder));
         } catch (Exception e) {
             logger.error("Error fetching filtered memories with type: {}, timeFilter: {}, sortOrder: {}", type, timeFilter, sortOrder, e);
             throw new RuntimeException("Failed to fetch filtered memories: " + e.getMessage());
@@ -324,34 +278,102 @@ public class MemoryService {
     }
     
     /**
-     * Add photos to an EVENT memory
+     * Get one page of memories filtered by type and time period
      */
-    public Memory addPhotosToMemory(Long memoryId, List<Long> photoIds) {
-        Memory memory = memoryRepository.findById(memoryId)
-            .orElseThrow(() -> new RuntimeException("Memory not found"));
+    public Page<Memory> getMemoriesFiltered(String type, String timeFilter, String sortOrder, int page, int limit) {
+        try {
+            Pageable pageable = PageRequest.of(page, limit, filterSort(sortOrder));
+            return memoryRepository.findAll(filterSpecification(type, timeFilter), pageable);
+        } catch (Exception e) {
+            logger.error("Error fetching filtered memories with type: {}, timeFilter: {}, sortOrder: {}", type, timeFilter, sortOrder, e);
+            throw new RuntimeException("Failed to fetch filtered memories: " + e.getMessage());
+        }
+    }
+    
+    private Specification<Memory> filterSpecification(String type, String timeFilter) {
+        Specification<Memory> spec = Specification.where(MemorySpecifications.fetchCreator());
         
-        // Only allow photo associations for EVENT type memories
-        if (memory.getType() != Memory.MemoryType.EVENT) {
-            throw new RuntimeException("Photos can only be associated with EVENT type memories");
+        // Filter by type if specified
+        if (type != null && !"all".equals(type)) {
+            spec = spec.and(MemorySpecifications.hasType(Memory.MemoryType.fromValue(type)));
         }
         
-        // Fetch photos and add them to the memory
-        List<Photo> photos = photoRepository.findAllById(photoIds);
-        if (photos.size() != photoIds.size()) {
-            throw new RuntimeException("Some photos were not found");
+        // Filter by time period if specified
+        if (timeFilter != null && !"all".equals(timeFilter)) {
+            LocalDate now = LocalDate.now();
+            LocalDate startOfYear = now.withDayOfYear(1);
+            LocalDate startOfMonth = now.withDayOfMonth(1);
+            switch (timeFilter) {
+                case "thisYear" -> spec = spec.and(MemorySpecifications.dateInRange(startOfYear, startOfYear.plusYears(1)));
+                case "lastYear" -> spec = spec.and(MemorySpecifications.dateInRange(startOfYear.minusYears(1), startOfYear));
+                case "thisMonth" -> spec = spec.and(MemorySpecifications.dateInRange(startOfMonth, startOfMonth.plusMonths(1)));
+                case "last6Months" -> spec = spec.and(MemorySpecifications.dateInRange(now.minusMonths(6), null));
+                case "older" -> spec = spec.and(MemorySpecifications.dateInRange(null, now.minusYears(2)));
+                default -> { }
+            }
         }
+        return spec;
+    }
+    
+    // Newest first unless asc is asked for; id keeps pages stable on equal dates
+    private Sort filterSort(String sortOrder) {
+        Sort.Direction direction = "asc".equals(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, "date").and(Sort.by(direction, "id"));
+    }
+    
+    /**
+     * Add photos to an EVENT memory. Links are inserted straight into the join table
+     * in chunks, so the memory's photo set is never loaded; photos that are already
+     * linked are skipped.
+     */
+    public PhotoLinkResult addPhotosToMemory(Long memoryId, List<Long> photoIds) {
+        Memory memory = findEventMemory(memoryId);
         
-        for (Photo photo : photos) {
-            memory.addPhoto(photo);
+        List<Long> distinctIds = distinctIds(photoIds);
+        int added = 0;
+        for (int from = 0; from < distinctIds.size(); from += PHOTO_LINK_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + PHOTO_LINK_CHUNK_SIZE, distinctIds.size()));
+            if (photoRepository.countByIdIn(chunk) != chunk.size()) {
+                // Rolls back any chunks already linked
+                throw new RuntimeException("Some photos were not found");
+            }
+            added += memoryRepository.insertPhotoLinks(memoryId, chunk);
         }
         
-        return memoryRepository.save(memory);
+        logger.debug("Linked {} of {} photos to memory {}", added, distinctIds.size(), memoryId);
+        return new PhotoLinkResult(memory, added);
     }
     
     /**
-     * Remove photos from an EVENT memory
+     * Remove photos from an EVENT memory, deleting the links in chunks without
+     * loading the memory's photo set
      */
-    public Memory removePhotosFromMemory(Long memoryId, List<Long> photoIds) {
+    public PhotoLinkResult removePhotosFromMemory(Long memoryId, List<Long> photoIds) {
+        Memory memory = findEventMemory(memoryId);
+        
+        List<Long> distinctIds = distinctIds(photoIds);
+        int removed = 0;
+        for (int from = 0; from < distinctIds.size(); from += PHOTO_LINK_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + PHOTO_LINK_CHUNK_SIZE, distinctIds.size()));
+            removed += memoryRepository.deletePhotoLinks(memoryId, chunk);
+        }
+        
+        logger.debug("Unlinked {} photos from memory {}", removed, memoryId);
+        return new PhotoLinkResult(memory, removed);
+    }
+    
+    /**
+     * One page of the photos attached to a memory, newest first
+     */
+    @Transactional(readOnly = true)
+    public Page<Photo> getMemoryPhotos(Long memoryId, int page, int limit) {
+        if (!memoryRepository.existsById(memoryId)) {
+            throw new RuntimeException("Memory not found");
+        }
+        return photoRepository.findByMemoryId(memoryId, PageRequest.of(page, limit));
+    }
+    
+    private Memory findEventMemory(Long memoryId) {
         Memory memory = memoryRepository.findById(memoryId)
             .orElseThrow(() -> new RuntimeException("Memory not found"));
         
@@ -359,16 +381,21 @@ public class MemoryService {
         if (memory.getType() != Memory.MemoryType.EVENT) {
             throw new RuntimeException("Photos can only be associated with EVENT type memories");
         }
-        
-        // Fetch photos and remove them from the memory
-        List<Photo> photos = photoRepository.findAllById(photoIds);
-        for (Photo photo : photos) {
-            memory.removePhoto(photo);
+        return memory;
+    }
+    
+    private static List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
         }
-        
-        return memoryRepository.save(memory);
+        return new ArrayList<>(new LinkedHashSet<>(ids.stream().filter(Objects::nonNull).toList()));
     }
     
+    /**
+     * A memory and how many photo links a call added or removed
+     */
+    public record PhotoLinkResult(Memory memory, int changed) {}
+    
     // Helper class for anniversary information
     public static class AnniversaryInfo {
         private final long totalDays;
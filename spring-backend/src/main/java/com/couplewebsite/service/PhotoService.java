@@ -39,6 +39,9 @@ public class PhotoService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+    
     /**
      * Upload single photo
      */
@@ -73,6 +76,7 @@ public class PhotoService {
             
             // Save to database
             Photo savedPhoto = photoRepository.save(photo);
+            calendarRollupService.touch(CalendarRollupService.Kind.PHOTOS, savedPhoto.getCreatedAt());
             logger.info("Photo uploaded successfully: {}", fileName);
             
             return savedPhoto;
@@ -133,6 +137,7 @@ public class PhotoService {
                     // Save to database
                     Photo savedPhoto = photoRepository.save(photo);
                     uploadedPhotos.add(savedPhoto);
+                    calendarRollupService.touch(CalendarRollupService.Kind.PHOTOS, savedPhoto.getCreatedAt());
                     
                 } catch (Exception e) {
                     logger.error("Error processing file: {}", file.getOriginalFilename(), e);
@@ -246,6 +251,7 @@ public class PhotoService {
                 photo.setDeletedAt(java.time.LocalDateTime.now());
                 
                 photoRepository.save(photo);
+                calendarRollupService.touch(CalendarRollupService.Kind.PHOTOS, photo.getCreatedAt());
                 
                 logger.info("Photo moved to recycle bin: {}", photo.getFilename());
                 return true;
@@ -271,6 +277,7 @@ public class PhotoService {
                 photo.setDeletedAt(null);
                 
                 photoRepository.save(photo);
+                calendarRollupService.touch(CalendarRollupService.Kind.PHOTOS, photo.getCreatedAt());
                 
                 logger.info("Photo recovered from recycle bin: {}", photo.getFilename());
                 return true;
@@ -319,6 +326,7 @@ public class PhotoService {
                 photo.setIsDeleted(false);
                 photo.setDeletedAt(null);
                 photoRepository.save(photo);
+                calendarRollupService.touch(CalendarRollupService.Kind.PHOTOS, photo.getCreatedAt());
                 recoveredCount++;
             }
             
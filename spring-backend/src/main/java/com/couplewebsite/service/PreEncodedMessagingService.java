@@ -0,0 +1,56 @@
+package com.couplewebsite.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Sends payloads that are serialized to JSON once and then delivered to any number
+ * of STOMP destinations without going through the message converter again.
+ */
+@Service
+public class PreEncodedMessagingService {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Serialize a payload to JSON bytes
+     */
+    public byte[] encode(Object payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    /**
+     * Send already encoded JSON bytes to a destination
+     */
+    public void send(String destination, byte[] payload) {
+        messagingTemplate.send(destination, createMessage(payload));
+    }
+
+    /**
+     * Send already encoded JSON bytes to a user queue, e.g. /queue/surprise-box/updates
+     */
+    public void sendToUser(String username, String queue, byte[] payload) {
+        send("/user/" + username + queue, payload);
+    }
+
+    // Headers are per destination (the template writes the destination into them),
+    // the payload array is shared
+    private Message<byte[]> createMessage(byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
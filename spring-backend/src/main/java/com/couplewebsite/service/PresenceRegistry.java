@@ -0,0 +1,315 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.dto.PresenceMessage;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.UserSession;
+import com.couplewebsite.repository.UserRepository;
+import com.couplewebsite.repository.UserSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory registry of connected sessions and who is online or typing.
+ *
+ * Heartbeats only bump an atomic last-seen timestamp. Online and typing changes are
+ * pushed on /topic/presence when they happen, and the user_sessions table receives
+ * a snapshot of changed sessions every presence.snapshot-interval-ms instead of a
+ * write per ping.
+ */
+@Service
+public class PresenceRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+    
+    public static final String PRESENCE_TOPIC = "/topic/presence";
+    
+    // Sessions kept alive by client pings are dropped after this long without one
+    static final long PING_TIMEOUT_MILLIS = 30 * 1000;
+    
+    // Disconnected user_sessions rows are kept this long
+    private static final long RETENTION_HOURS = 24;
+    
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    
+    @Value("${presence.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMillis;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    
+    // The same sessions by user, so online checks only look at that user's few sessions
+    private final Map<Long, Set<SessionPresence>> sessionsByUser = new ConcurrentHashMap<>();
+    
+    private final Map<Long, Boolean> typing = new ConcurrentHashMap<>();
+    
+    // Last state pushed per user, so only changes are published
+    private final Map<Long, PresenceMessage> published = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public PresenceRegistry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Register a STOMP session. It stays online until {@link #disconnect} is called.
+     */
+    public void connect(User user, String sessionId) {
+        register(user, sessionId, false);
+    }
+    
+    /**
+     * Record a heartbeat for a client session, registering it if it is new
+     */
+    public void heartbeat(User user, String sessionId) {
+        SessionPresence session = sessions.get(sessionId);
+        if (session != null && session.connected) {
+            session.lastSeenAt.set(System.currentTimeMillis());
+            return;
+        }
+        register(user, sessionId, true);
+    }
+    
+    /**
+     * Mark a session disconnected
+     */
+    public void disconnect(String sessionId) {
+        SessionPresence session = sessions.get(sessionId);
+        if (session != null && session.connected) {
+            session.connected = false;
+            refresh(session.userId, session.username);
+        }
+    }
+    
+    /**
+     * Update whether a user is typing. Only changes are published.
+     */
+    public void setTyping(User user, boolean isTyping) {
+        Boolean previous = typing.put(user.getId(), isTyping);
+        if (!Objects.equals(previous, isTyping)) {
+            refresh(user.getId(), user.getUsername());
+        }
+    }
+    
+    /**
+     * Check whether a user has at least one live session
+     */
+    public boolean isOnline(Long userId) {
+        Set<SessionPresence> userSessions = sessionsByUser.get(userId);
+        if (userSessions == null) {
+            return false;
+        }
+        for (SessionPresence session : userSessions) {
+            if (session.connected) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Current presence of every user seen since startup
+     */
+    public List<PresenceMessage> getPresence() {
+        return new ArrayList<>(published.values());
+    }
+    
+    /**
+     * Drop sessions whose client stopped pinging
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void expireSessions() {
+        long cutoff = System.currentTimeMillis() - PING_TIMEOUT_MILLIS;
+        sessions.values().forEach(session -> {
+            if (session.pinged && session.connected && session.lastSeenAt.get() < cutoff) {
+                session.connected = false;
+                logger.debug("Session {} of user {} timed out", session.sessionId, session.username);
+                refresh(session.userId, session.username);
+            }
+        });
+    }
+    
+    /**
+     * Write changed sessions to user_sessions and forget sessions that are gone
+     */
+    @Scheduled(fixedDelayString = "${presence.snapshot-interval-ms:60000}", initialDelayString = "${presence.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        List<SessionPresence> changed = new ArrayList<>();
+        for (SessionPresence session : sessions.values()) {
+            if (session.needsSnapshot(snapshotIntervalMillis)) {
+                changed.add(session);
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> changed.forEach(this::persist));
+            } catch (Exception e) {
+                logger.error("Failed to snapshot {} user sessions", changed.size(), e);
+                return;
+            }
+        }
+        
+        // Only forget a disconnected session once its final state is stored
+        sessions.values().removeIf(session -> {
+            if (session.connected || session.needsSnapshot(snapshotIntervalMillis)) {
+                return false;
+            }
+            unindex(session);
+            return true;
+        });
+        
+        try {
+            int deleted = transactionTemplate.execute(status ->
+                userSessionRepository.deleteOldDisconnectedSessions(LocalDateTime.now().minusHours(RETENTION_HOURS)));
+            if (deleted > 0) {
+                logger.info("Cleaned up {} old disconnected sessions", deleted);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to clean up old user sessions", e);
+        }
+    }
+    
+    /**
+     * Rows left connected by a previous run cannot be live anymore
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markStaleSessionsDisconnected() {
+        try {
+            int marked = transactionTemplate.execute(status ->
+                userSessionRepository.markDisconnectedSessions(LocalDateTime.now()));
+            if (marked > 0) {
+                logger.info("Marked {} user sessions from a previous run as disconnected", marked);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to mark stale user sessions as disconnected", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sessions.values().forEach(session -> session.connected = false);
+        snapshot();
+    }
+    
+    private void register(User user, String sessionId, boolean pinged) {
+        SessionPresence session = sessions.compute(sessionId, (id, existing) -> {
+            if (existing != null && existing.userId.equals(user.getId())) {
+                return existing;
+            }
+            if (existing != null) {
+                unindex(existing);
+            }
+            SessionPresence created = new SessionPresence(user.getId(), user.getUsername(), id, pinged);
+            // Added under the user's key lock so a concurrent unindex cannot drop the set first
+            sessionsByUser.compute(user.getId(), (userId, userSessions) -> {
+                Set<SessionPresence> indexed = userSessions != null ? userSessions : ConcurrentHashMap.newKeySet();
+                indexed.add(created);
+                return indexed;
+            });
+            return created;
+        });
+        session.lastSeenAt.set(System.currentTimeMillis());
+        session.connected = true;
+        refresh(user.getId(), user.getUsername());
+    }
+    
+    private void unindex(SessionPresence session) {
+        sessionsByUser.computeIfPresent(session.userId, (userId, userSessions) -> {
+            userSessions.remove(session);
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+    }
+    
+    // Serialized so two transitions for the same user cannot publish out of order
+    private synchronized void refresh(Long userId, String username) {
+        boolean online = isOnline(userId);
+        PresenceMessage current = PresenceMessage.of(userId, username,
+            online, online && Boolean.TRUE.equals(typing.get(userId)));
+        if (current.sameStateAs(published.get(userId))) {
+            return;
+        }
+        published.put(userId, current);
+        try {
+            messagingTemplate.convertAndSend(PRESENCE_TOPIC, current);
+        } catch (Exception e) {
+            logger.error("Failed to publish presence for user {}", username, e);
+        }
+    }
+    
+    private void persist(SessionPresence session) {
+        boolean connected = session.connected;
+        long lastSeenAt = session.lastSeenAt.get();
+        
+        UserSession row = userSessionRepository.findBySessionId(session.sessionId)
+            .orElseGet(() -> new UserSession(userRepository.getReferenceById(session.userId), session.sessionId));
+        row.setIsConnected(connected);
+        row.setLastPingAt(toLocalDateTime(lastSeenAt));
+        userSessionRepository.save(row);
+        
+        session.persisted = true;
+        session.persistedConnected = connected;
+        session.persistedSeenAt = lastSeenAt;
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    private static final class SessionPresence {
+        
+        final Long userId;
+        final String username;
+        final String sessionId;
+        // Client-managed sessions time out without pings; STOMP sessions end on disconnect
+        final boolean pinged;
+        final AtomicLong lastSeenAt = new AtomicLong();
+        volatile boolean connected;
+        
+        // State at the last snapshot
+        volatile boolean persisted;
+        volatile boolean persistedConnected;
+        volatile long persistedSeenAt;
+        
+        SessionPresence(Long userId, String username, String sessionId, boolean pinged) {
+            this.userId = userId;
+            this.username = username;
+            this.sessionId = sessionId;
+            this.pinged = pinged;
+        }
+        
+        boolean needsSnapshot(long intervalMillis) {
+            return !persisted
+                || connected != persistedConnected
+                || lastSeenAt.get() - persistedSeenAt >= intervalMillis;
+        }
+    }
+}
@@ -96,36 +96,43 @@ public class PrizeHistoryService {
     }
     
     /**
-     * Get prize history statistics
+     * Get prize history statistics, counted by one grouped query
      */
+    @Transactional(readOnly = true)
     public PrizeHistoryStats getPrizeHistoryStats(Long recipientId) {
-        User recipient = userService.findById(recipientId);
-        
-        Long totalPrizes = prizeHistoryRepository.countByRecipient(recipient);
-        
-        // Calculate this week's prizes
-        LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
-        Long prizesThisWeek = prizeHistoryRepository.countByRecipientAndClaimedAtAfter(recipient, weekStart);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = prizeHistoryRepository.summarizeByRecipientId(
+                recipientId, now.minusDays(7), now.minusMonths(1), now.minusYears(1));
         
-        // Create completion type breakdown
+        // Every type is reported, including the ones with no rows
         Map<String, Long> completionTypeStats = new HashMap<>();
-        completionTypeStats.put("TASK", prizeHistoryRepository.countByRecipientAndCompletionType(recipient, SurpriseBox.CompletionType.TASK));
-        completionTypeStats.put("PAYMENT", prizeHistoryRepository.countByRecipientAndCompletionType(recipient, SurpriseBox.CompletionType.PAYMENT));
-        completionTypeStats.put("LOCATION", prizeHistoryRepository.countByRecipientAndCompletionType(recipient, SurpriseBox.CompletionType.LOCATION));
-        completionTypeStats.put("TIME", prizeHistoryRepository.countByRecipientAndCompletionType(recipient, SurpriseBox.CompletionType.TIME));
-        completionTypeStats.put("PHOTO", prizeHistoryRepository.countByRecipientAndCompletionType(recipient, SurpriseBox.CompletionType.PHOTO));
-        
-        PrizeHistoryStats stats = new PrizeHistoryStats(totalPrizes, prizesThisWeek, completionTypeStats);
+        for (SurpriseBox.CompletionType type : SurpriseBox.CompletionType.values()) {
+            completionTypeStats.put(type.name(), 0L);
+        }
         
-        // Calculate month and year stats
-        LocalDateTime monthStart = LocalDateTime.now().minusMonths(1);
-        LocalDateTime yearStart = LocalDateTime.now().minusYears(1);
-        stats.setPrizesThisMonth(prizeHistoryRepository.countByRecipientAndClaimedAtAfter(recipient, monthStart));
-        stats.setPrizesThisYear(prizeHistoryRepository.countByRecipientAndClaimedAtAfter(recipient, yearStart));
+        long totalPrizes = 0;
+        long prizesThisWeek = 0;
+        long prizesThisMonth = 0;
+        long prizesThisYear = 0;
+        for (Object[] row : rows) {
+            long count = toLong(row[1]);
+            completionTypeStats.put(((SurpriseBox.CompletionType) row[0]).name(), count);
+            totalPrizes += count;
+            prizesThisWeek += toLong(row[2]);
+            prizesThisMonth += toLong(row[3]);
+            prizesThisYear += toLong(row[4]);
+        }
         
+        PrizeHistoryStats stats = new PrizeHistoryStats(totalPrizes, prizesThisWeek, completionTypeStats);
+        stats.setPrizesThisMonth(prizesThisMonth);
+        stats.setPrizesThisYear(prizesThisYear);
         return stats;
     }
     
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+    
     /**
      * Find prize history by ID
      */
@@ -0,0 +1,50 @@
+package com.couplewebsite.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Single entry point for pushing per-user realtime events.
+ *
+ * Every stream is delivered over the client's one STOMP connection on
+ * /user/queue/{stream}, next to the note, surprise box and presence destinations,
+ * and liveness is covered by the broker heartbeat. Clients that still hold the
+ * legacy /api/love-updates SSE connection receive the same events multiplexed by
+ * event name through {@link SseDispatcher}.
+ */
+@Service
+public class RealtimeGateway {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeGateway.class);
+    
+    public static final String LOVE_STREAM = "love/updates";
+    
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    
+    @Autowired
+    private SseDispatcher sseDispatcher;
+    
+    /**
+     * Send an event on a user's stream
+     */
+    public void sendToUser(String username, String stream, String event, Object payload) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, "/queue/" + stream, payload);
+        } catch (Exception e) {
+            logger.error("Error sending {} event to user {}", event, username, e);
+        }
+        sseDispatcher.send(username, event, payload);
+    }
+    
+    /**
+     * Open a legacy SSE connection for a user, optionally sending a first event
+     */
+    public SseEmitter openSse(String username, String initialEvent, Object initialPayload) {
+        return sseDispatcher.open(username, initialEvent, initialPayload);
+    }
+}
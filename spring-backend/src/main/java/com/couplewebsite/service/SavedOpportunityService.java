@@ -2,6 +2,7 @@ package com.couplewebsite.service;
 
 import com.couplewebsite.entity.SavedOpportunity;
 import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.UserStats;
 import com.couplewebsite.repository.SavedOpportunityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,12 +22,16 @@ public class SavedOpportunityService {
     @Autowired
     private SavedOpportunityRepository savedOpportunityRepository;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
     /**
      * Create a new saved opportunity for a user
      */
     public SavedOpportunity createSavedOpportunity(User user, String source) {
         SavedOpportunity opportunity = new SavedOpportunity(user, source);
         SavedOpportunity saved = savedOpportunityRepository.save(opportunity);
+        userStatsService.recordOpportunities(user, 1, 0);
         
         logger.info("Created saved opportunity for user {} from source: {}", 
                 user.getUsername(), source);
@@ -38,7 +43,7 @@ public class SavedOpportunityService {
      * Get count of unused opportunities for a user
      */
     public Long getUnusedOpportunityCount(User user) {
-        return savedOpportunityRepository.countUnusedOpportunitiesByUser(user);
+        return userStatsService.getStats(user).getOpportunitiesUnused();
     }
     
     /**
@@ -59,6 +64,7 @@ public class SavedOpportunityService {
             SavedOpportunity opportunity = oldestOpportunity.get();
             opportunity.markAsUsed();
             savedOpportunityRepository.save(opportunity);
+            userStatsService.recordOpportunities(user, 0, 1);
             
             logger.info("Used saved opportunity {} for user {}", 
                     opportunity.getId(), user.getUsername());
@@ -80,11 +86,9 @@ public class SavedOpportunityService {
      * Get opportunity statistics for a user
      */
     public OpportunityStats getOpportunityStats(User user) {
-        Long total = savedOpportunityRepository.countByUser(user);
-        Long unused = savedOpportunityRepository.countUnusedOpportunitiesByUser(user);
-        Long used = savedOpportunityRepository.countUsedOpportunitiesByUser(user);
-        
-        return new OpportunityStats(total, unused, used);
+        UserStats stats = userStatsService.getStats(user);
+        return new OpportunityStats(stats.getOpportunitiesTotal(), stats.getOpportunitiesUnused(),
+                stats.getOpportunitiesUsed());
     }
     
     /**
@@ -100,6 +104,7 @@ public class SavedOpportunityService {
     public void clearUnusedOpportunities(User user) {
         List<SavedOpportunity> unusedOpportunities = getUnusedOpportunities(user);
         savedOpportunityRepository.deleteAll(unusedOpportunities);
+        userStatsService.recordOpportunities(user, -unusedOpportunities.size(), 0);
         
         logger.info("Cleared {} unused opportunities for user {}", 
                 unusedOpportunities.size(), user.getUsername());
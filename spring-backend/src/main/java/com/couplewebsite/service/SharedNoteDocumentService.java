@@ -0,0 +1,277 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.dto.NoteOperationMessage;
+import com.couplewebsite.entity.SharedNote;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authoritative in-memory copy of shared notes for the delta protocol.
+ *
+ * Operations are sequenced per note: an operation made against an older revision is
+ * transformed over the operations applied since, applied, given the next revision and
+ * broadcast. Only the operation goes over the wire.
+ *
+ * Persistence is write-behind: the first change after a write schedules the next one
+ * shared-note.write-behind-ms later, so a note is written at most once per interval
+ * and at most one interval of typing is lost on a crash. Notes are also flushed when
+ * edit control is released, when a client disconnects and on shutdown. Every write
+ * is also appended to the note's version history.
+ */
+@Service
+public class SharedNoteDocumentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedNoteDocumentService.class);
+
+    public static final String OPERATIONS_TOPIC = "/topic/shared-note/operations";
+
+    // Operations kept for transforming late clients; older clients must resync
+    private static final int MAX_HISTORY = 500;
+
+    @Autowired
+    private SharedNoteService sharedNoteService;
+
+    @Autowired
+    private SharedNoteHistoryService sharedNoteHistoryService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${shared-note.write-behind-ms:2000}")
+    private long writeBehindMillis;
+
+    private final Map<Long, NoteDocument> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Apply a client operation made against baseRevision and broadcast the result
+     */
+    public AppliedOperation applyOperation(Long noteId, long baseRevision, TextOperation operation,
+                                           Long userId, String userName, String clientOpId) {
+        NoteDocument document = getDocument(noteId);
+        // Broadcast under the document lock so revisions go out in order
+        synchronized (document) {
+            AppliedOperation applied = document.apply(baseRevision, operation, userId);
+            broadcast(noteId, applied, userId, userName, clientOpId);
+            scheduleWrite(document);
+            return applied;
+        }
+    }
+
+    /**
+     * Replace the whole content (legacy full-content updates). Returns false if the
+     * content did not change.
+     *
+     * The legacy clients get the new content on /topic/shared-note/content, so nothing
+     * is diffed or broadcast here. The operation history is dropped instead: an
+     * operation made against an earlier revision can no longer be transformed and
+     * gets a resync.
+     */
+    public boolean replaceContent(Long noteId, String content, Long userId) {
+        NoteDocument document = getDocument(noteId);
+        if (!document.replace(content, userId)) {
+            return false;
+        }
+        scheduleWrite(document);
+        return true;
+    }
+
+    /**
+     * Current content and revision of a note
+     */
+    public DocumentSnapshot getSnapshot(Long noteId) {
+        return getDocument(noteId).snapshot();
+    }
+
+    /**
+     * Write a note to the database now if it has unsaved changes
+     */
+    public void flush(Long noteId) {
+        NoteDocument document = documents.get(noteId);
+        if (document != null) {
+            persist(document);
+        }
+    }
+
+    /**
+     * Write every note with unsaved changes to the database
+     */
+    @PreDestroy
+    public void flushAll() {
+        documents.values().forEach(this::persist);
+    }
+
+    private void scheduleWrite(NoteDocument document) {
+        if (document.markWriteScheduled()) {
+            taskScheduler.schedule(() -> persist(document), Instant.now().plusMillis(writeBehindMillis));
+        }
+    }
+
+    private void persist(NoteDocument document) {
+        // One writer per note so an older snapshot never overwrites a newer one
+        synchronized (document.persistLock) {
+            PendingWrite write = document.takePendingWrite();
+            if (write == null) {
+                return;
+            }
+            DocumentSnapshot snapshot = write.snapshot();
+            try {
+                sharedNoteService.updateNoteContent(snapshot.noteId(), snapshot.content());
+                logger.debug("Persisted shared note {} at revision {}", snapshot.noteId(), snapshot.revision());
+            } catch (Exception e) {
+                logger.error("Failed to persist shared note {}", snapshot.noteId(), e);
+                document.markDirty();
+                scheduleWrite(document);
+                return;
+            }
+            try {
+                sharedNoteHistoryService.record(snapshot.noteId(), snapshot.content(), write.editorId());
+            } catch (Exception e) {
+                logger.error("Failed to record history for shared note {}", snapshot.noteId(), e);
+            }
+        }
+    }
+
+    private void broadcast(Long noteId, AppliedOperation applied, Long userId, String userName, String clientOpId) {
+        NoteOperationMessage message = NoteOperationMessage.operation(
+            noteId, applied.revision(), applied.operation().toJson(), userId, userName, clientOpId);
+        messagingTemplate.convertAndSend(OPERATIONS_TOPIC, message);
+    }
+
+    private NoteDocument getDocument(Long noteId) {
+        NoteDocument document = documents.get(noteId);
+        if (document != null) {
+            return document;
+        }
+        // Load outside the map so the query does not hold its bin lock; a racing
+        // load is discarded in favour of whichever document got in first
+        SharedNote note = sharedNoteService.findById(noteId);
+        if (note == null) {
+            throw new IllegalArgumentException("Shared note not found with ID: " + noteId);
+        }
+        NoteDocument loaded = new NoteDocument(noteId, note.getContent() != null ? note.getContent() : "");
+        NoteDocument existing = documents.putIfAbsent(noteId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    public record AppliedOperation(long revision, TextOperation operation) {}
+
+    public record DocumentSnapshot(Long noteId, String content, long revision) {}
+
+    private record PendingWrite(DocumentSnapshot snapshot, Long editorId) {}
+
+    /**
+     * Thrown when an operation is based on a revision the server no longer has history for
+     */
+    public static class StaleRevisionException extends RuntimeException {
+        public StaleRevisionException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One note's content, revision and recent history. All access is synchronized,
+     * which is what gives operations on a note their server-side order.
+     */
+    private static final class NoteDocument {
+
+        private final Long noteId;
+        private final Deque<TextOperation> history = new ArrayDeque<>();
+        private final Object persistLock = new Object();
+        private String content;
+        private long revision;
+        private boolean dirty;
+        private boolean writeScheduled;
+        private Long lastEditorId;
+
+        NoteDocument(Long noteId, String content) {
+            this.noteId = noteId;
+            this.content = content;
+        }
+
+        synchronized AppliedOperation apply(long baseRevision, TextOperation operation, Long editorId) {
+            long oldestRevision = revision - history.size();
+            if (baseRevision < oldestRevision || baseRevision > revision) {
+                throw new StaleRevisionException("Revision " + baseRevision + " is outside "
+                        + oldestRevision + ".." + revision + " for note " + noteId);
+            }
+
+            // Transform over everything applied after the client's revision
+            Iterator<TextOperation> concurrent = history.iterator();
+            for (long r = oldestRevision; r < revision; r++) {
+                TextOperation applied = concurrent.next();
+                if (r >= baseRevision) {
+                    operation = TextOperation.transform(operation, applied)[0];
+                }
+            }
+
+            return commit(operation, editorId);
+        }
+
+        synchronized boolean replace(String newContent, Long editorId) {
+            if (newContent == null || content.equals(newContent)) {
+                return false;
+            }
+            content = newContent;
+            revision++;
+            dirty = true;
+            lastEditorId = editorId;
+            history.clear();
+            return true;
+        }
+
+        synchronized DocumentSnapshot snapshot() {
+            return new DocumentSnapshot(noteId, content, revision);
+        }
+
+        synchronized PendingWrite takePendingWrite() {
+            writeScheduled = false;
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return new PendingWrite(snapshot(), lastEditorId);
+        }
+
+        // Returns true if the caller should schedule a write
+        synchronized boolean markWriteScheduled() {
+            if (writeScheduled) {
+                return false;
+            }
+            writeScheduled = true;
+            return true;
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        private AppliedOperation commit(TextOperation operation, Long editorId) {
+            content = operation.apply(content);
+            revision++;
+            dirty = true;
+            lastEditorId = editorId;
+
+            history.addLast(operation);
+            if (history.size() > MAX_HISTORY) {
+                history.removeFirst();
+            }
+            return new AppliedOperation(revision, operation);
+        }
+    }
+}
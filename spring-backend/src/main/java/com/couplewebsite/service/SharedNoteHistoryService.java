@@ -0,0 +1,239 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.SharedNoteRevision;
+import com.couplewebsite.repository.SharedNoteRevisionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only version history for shared notes.
+ *
+ * Each saved version is stored as the deflated operation from the previous version.
+ * A full checkpoint is written instead once the deltas since the last checkpoint
+ * would outweigh a fresh copy of the note, or after MAX_CHAIN_LENGTH deltas, so
+ * history grows with the edits and reading any version replays a short chain.
+ */
+@Service
+public class SharedNoteHistoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SharedNoteHistoryService.class);
+    
+    static final int MAX_CHAIN_LENGTH = 100;
+    static final int MAX_RANGE = 500;
+    
+    private static final Head EMPTY = new Head(0, 0, 0, null);
+    
+    @Autowired
+    private SharedNoteRevisionRepository revisionRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Latest version per note, so recording never has to rebuild the previous content
+    private final Map<Long, Head> heads = new ConcurrentHashMap<>();
+    
+    /**
+     * Append a version if the content changed. Callers must not record the same note concurrently.
+     */
+    public void record(Long noteId, String content, Long authorUserId) {
+        Head head = head(noteId);
+        if (content.equals(head.content())) {
+            return;
+        }
+        
+        long version = head.version() + 1;
+        byte[] full = deflate(content.getBytes(StandardCharsets.UTF_8));
+        
+        SharedNoteRevision revision = new SharedNoteRevision();
+        revision.setNoteId(noteId);
+        revision.setVersion(version);
+        revision.setContentLength(content.length());
+        revision.setAuthorUserId(authorUserId);
+        
+        byte[] delta = head.content() != null ? encodeOperation(TextOperation.diff(head.content(), content)) : null;
+        if (delta == null
+                || head.chainSize() + delta.length > full.length
+                || version - head.baseVersion() > MAX_CHAIN_LENGTH) {
+            revision.setBaseVersion(version);
+            revision.setChainSize(0);
+            revision.setData(full);
+        } else {
+            revision.setBaseVersion(head.baseVersion());
+            revision.setChainSize(head.chainSize() + delta.length);
+            revision.setData(delta);
+        }
+        
+        try {
+            revisionRepository.save(revision);
+        } catch (RuntimeException e) {
+            // Another writer may have appended, rebuild the head next time
+            heads.remove(noteId);
+            throw e;
+        }
+        heads.put(noteId, new Head(version, revision.getBaseVersion(), revision.getChainSize(), content));
+        logger.debug("Recorded shared note {} version {} ({} bytes, checkpoint={})",
+                noteId, version, revision.getData().length, revision.isCheckpoint());
+    }
+    
+    /**
+     * Newest versions of a note, newest first
+     */
+    public List<SharedNoteRevisionRepository.RevisionSummary> listRevisions(Long noteId, int limit) {
+        return revisionRepository.findSummaries(noteId, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_RANGE))));
+    }
+    
+    /**
+     * Content of a note at a version
+     */
+    public RevisionContent getRevision(Long noteId, long version) {
+        SharedNoteRevision revision = revisionRepository.findByNoteIdAndVersion(noteId, version)
+            .orElseThrow(() -> new IllegalArgumentException("Version " + version + " not found for note " + noteId));
+        List<SharedNoteRevision> chain = revisionRepository.findRange(noteId, revision.getBaseVersion(), version);
+        return new RevisionContent(noteId, version, replay(chain), revision.getAuthorUserId(), revision.getCreatedAt());
+    }
+    
+    /**
+     * Operations that take a note from fromVersion to toVersion, one per version.
+     * Version 0 is the empty note before the first recorded version.
+     */
+    public RevisionRange getRange(Long noteId, long fromVersion, long toVersion) {
+        if (fromVersion < 0 || toVersion <= fromVersion) {
+            throw new IllegalArgumentException("Invalid version range " + fromVersion + ".." + toVersion);
+        }
+        if (toVersion - fromVersion > MAX_RANGE) {
+            throw new IllegalArgumentException("Version range is limited to " + MAX_RANGE + " versions");
+        }
+        
+        List<SharedNoteRevision> revisions = revisionRepository.findRange(noteId, fromVersion + 1, toVersion);
+        if (revisions.size() != toVersion - fromVersion) {
+            throw new IllegalArgumentException("Version range " + fromVersion + ".." + toVersion + " not found for note " + noteId);
+        }
+        
+        String content = fromVersion == 0 ? "" : getRevision(noteId, fromVersion).content();
+        List<VersionOperation> operations = new ArrayList<>(revisions.size());
+        for (SharedNoteRevision revision : revisions) {
+            TextOperation operation = revision.isCheckpoint()
+                ? TextOperation.diff(content, inflateString(revision.getData()))
+                : decodeOperation(revision.getData());
+            content = operation.apply(content);
+            operations.add(new VersionOperation(revision.getVersion(), operation.toJson(),
+                    revision.getAuthorUserId(), revision.getCreatedAt()));
+        }
+        return new RevisionRange(noteId, fromVersion, toVersion, operations);
+    }
+    
+    // Loaded outside the map so the query never holds a bin lock; callers never record
+    // the same note concurrently, so a racing load can only store the same head
+    private Head head(Long noteId) {
+        Head head = heads.get(noteId);
+        if (head != null) {
+            return head;
+        }
+        Head loaded = loadHead(noteId);
+        head = heads.putIfAbsent(noteId, loaded);
+        return head != null ? head : loaded;
+    }
+    
+    private Head loadHead(Long noteId) {
+        return revisionRepository.findTopByNoteIdOrderByVersionDesc(noteId)
+            .map(latest -> new Head(latest.getVersion(), latest.getBaseVersion(), latest.getChainSize(),
+                    replay(revisionRepository.findRange(noteId, latest.getBaseVersion(), latest.getVersion()))))
+            .orElse(EMPTY);
+    }
+    
+    // Rebuild content from a checkpoint followed by its deltas
+    private String replay(List<SharedNoteRevision> chain) {
+        if (chain.isEmpty() || !chain.get(0).isCheckpoint()) {
+            throw new IllegalStateException("Revision chain does not start at a checkpoint");
+        }
+        String content = inflateString(chain.get(0).getData());
+        for (SharedNoteRevision revision : chain.subList(1, chain.size())) {
+            content = decodeOperation(revision.getData()).apply(content);
+        }
+        return content;
+    }
+    
+    private byte[] encodeOperation(TextOperation operation) {
+        try {
+            return deflate(objectMapper.writeValueAsBytes(operation.toJson()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private TextOperation decodeOperation(byte[] data) {
+        try {
+            return TextOperation.fromJson(objectMapper.readValue(inflate(data), List.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String inflateString(byte[] data) {
+        return new String(inflate(data), StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(16, input.length / 2));
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated revision data");
+                }
+                output.write(buffer, 0, n);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt revision data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private record Head(long version, long baseVersion, int chainSize, String content) {}
+    
+    public record RevisionContent(Long noteId, long version, String content, Long authorUserId,
+                                  LocalDateTime createdAt) {}
+    
+    public record VersionOperation(long version, List<Object> operation, Long authorUserId,
+                                   LocalDateTime createdAt) {}
+    
+    public record RevisionRange(Long noteId, long fromVersion, long toVersion, List<VersionOperation> operations) {}
+}
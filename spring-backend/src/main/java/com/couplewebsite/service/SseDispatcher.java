@@ -0,0 +1,277 @@
+package com.couplewebsite.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous SSE fan-out.
+ *
+ * Each emitter gets a bounded queue drained by a small shared pool, so senders
+ * never block on a client. A client whose queue overflows or whose write takes
+ * longer than sse.send-timeout-ms is disconnected, comment heartbeats find dead
+ * connections, and emitters time out so the browser reconnects with a fresh one.
+ */
+@Service
+public class SseDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SseDispatcher.class);
+    
+    @Value("${sse.queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMillis;
+    
+    @Value("${sse.send-timeout-ms:10000}")
+    private long sendTimeoutMillis;
+    
+    // Delay before retrying a drain the pool rejected
+    private static final long REJECTED_RETRY_MILLIS = 100;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    private final ThreadPoolTaskExecutor executor;
+    
+    private final Map<String, CopyOnWriteArrayList<Connection>> connections = new ConcurrentHashMap<>();
+    
+    private final Counter droppedEvents;
+    
+    private final Counter evictedEmitters;
+    
+    @Autowired
+    public SseDispatcher(MeterRegistry meterRegistry,
+                         @Value("${sse.pool-size:2}") int poolSize) {
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.initialize();
+        
+        Gauge.builder("sse.emitters.active", this, SseDispatcher::activeEmitters)
+                .description("Open SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("sse.queue.depth", this, SseDispatcher::queuedEvents)
+                .description("Events waiting to be written to SSE connections")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("sse.events.dropped")
+                .description("Events dropped because a connection's queue was full")
+                .register(meterRegistry);
+        this.evictedEmitters = Counter.builder("sse.emitters.evicted")
+                .description("SSE connections closed because they failed, fell behind or stalled")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Open an SSE connection for a user, optionally queueing a first event
+     */
+    public SseEmitter open(String username, String initialEvent, Object initialData) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(username, emitter, queueCapacity);
+        connections.computeIfAbsent(username, k -> new CopyOnWriteArrayList<>()).add(connection);
+        
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(ex -> {
+            logger.debug("SSE error for user {}: {}", username, ex.getMessage());
+            remove(connection);
+        });
+        
+        if (initialEvent != null) {
+            enqueue(connection, new Event(initialEvent, initialData));
+        }
+        
+        logger.info("SSE subscription created for user: {}", username);
+        return emitter;
+    }
+    
+    /**
+     * Queue an event for every connection of a user. Never blocks.
+     */
+    public void send(String username, String event, Object data) {
+        CopyOnWriteArrayList<Connection> userConnections = connections.get(username);
+        if (userConnections != null) {
+            userConnections.forEach(connection -> enqueue(connection, new Event(event, data)));
+        }
+    }
+    
+    /**
+     * Send a comment to every connection so dead ones fail and are evicted
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections ->
+            userConnections.forEach(connection -> enqueue(connection, Event.HEARTBEAT)));
+    }
+    
+    /**
+     * Disconnect clients stuck in a single write. The writing thread is only freed
+     * when the container gives up on the socket, but the connection stops taking
+     * events and is completed as soon as that write returns.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void evictStalledSends() {
+        long cutoff = System.currentTimeMillis() - sendTimeoutMillis;
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            long startedAt = connection.sendStartedAt;
+            if (startedAt > 0 && startedAt < cutoff) {
+                evict(connection, "send timed out");
+            }
+        }));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        executor.shutdown();
+    }
+    
+    private void enqueue(Connection connection, Event event) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.queue.offer(event)) {
+            // The client is not keeping up, let it reconnect rather than buffer more
+            droppedEvents.increment();
+            evict(connection, "queue full");
+            return;
+        }
+        scheduleDrain(connection);
+    }
+    
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(connection));
+        } catch (TaskRejectedException e) {
+            connection.draining.set(false);
+            logger.warn("SSE dispatcher saturated, retrying events for user {}", connection.username);
+            taskScheduler.schedule(() -> {
+                if (!connection.closed && !connection.queue.isEmpty()) {
+                    scheduleDrain(connection);
+                }
+            }, Instant.now().plusMillis(REJECTED_RETRY_MILLIS));
+        }
+    }
+    
+    private void drain(Connection connection) {
+        try {
+            Event event;
+            while (!connection.closed && (event = connection.queue.poll()) != null) {
+                connection.sendStartedAt = System.currentTimeMillis();
+                try {
+                    connection.emitter.send(event.build());
+                } finally {
+                    connection.sendStartedAt = 0;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            evict(connection, e.getMessage());
+        } finally {
+            connection.draining.set(false);
+        }
+        
+        // Evicted while a write was in progress, complete it now that the write is over
+        if (connection.closed) {
+            complete(connection);
+            return;
+        }
+        
+        // An event may have arrived after the last poll
+        if (!connection.closed && !connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+    
+    private void evict(Connection connection, String reason) {
+        if (connection.closed) {
+            return;
+        }
+        logger.debug("Evicting SSE connection of user {}: {}", connection.username, reason);
+        evictedEmitters.increment();
+        remove(connection);
+        // Completing waits for an in-progress send, so a stalled one is left to the drain
+        if (connection.sendStartedAt == 0) {
+            complete(connection);
+        }
+    }
+    
+    private void complete(Connection connection) {
+        try {
+            connection.emitter.complete();
+        } catch (Exception e) {
+            // Already completed by the container
+        }
+    }
+    
+    // Events still queued on a closed connection are discarded, not counted as dropped
+    private void remove(Connection connection) {
+        connection.closed = true;
+        connection.queue.clear();
+        connections.computeIfPresent(connection.username, (k, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+    
+    private double activeEmitters() {
+        return connections.values().stream().mapToInt(CopyOnWriteArrayList::size).sum();
+    }
+    
+    private double queuedEvents() {
+        return connections.values().stream()
+                .flatMap(CopyOnWriteArrayList::stream)
+                .mapToInt(connection -> connection.queue.size())
+                .sum();
+    }
+    
+    private record Event(String name, Object data) {
+        
+        static final Event HEARTBEAT = new Event(null, null);
+        
+        SseEmitter.SseEventBuilder build() {
+            return name == null ? SseEmitter.event().comment("heartbeat") : SseEmitter.event().name(name).data(data);
+        }
+    }
+    
+    private static final class Connection {
+        
+        final String username;
+        final SseEmitter emitter;
+        final BlockingQueue<Event> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        // When the current write started, 0 while not writing
+        volatile long sendStartedAt;
+        
+        Connection(String username, SseEmitter emitter, int capacity) {
+            this.username = username;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
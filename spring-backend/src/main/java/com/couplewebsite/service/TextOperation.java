@@ -0,0 +1,299 @@
+package com.couplewebsite.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plain text operation for the shared note delta protocol.
+ *
+ * An operation is a list of components walked over the whole document: a positive
+ * integer retains that many characters, a negative integer deletes that many and a
+ * string is inserted. The JSON form (e.g. [5, "abc", -2, 10]) and the transform rules
+ * are the same as ot.js TextOperation so that library can be used on the client.
+ * Lengths are UTF-16 code units, matching both Java and JavaScript strings.
+ */
+public final class TextOperation {
+
+    private final List<Object> ops = new ArrayList<>();
+    private int baseLength;
+    private int targetLength;
+
+    /**
+     * Build an operation from its JSON component list
+     */
+    public static TextOperation fromJson(List<?> components) {
+        if (components == null) {
+            throw new IllegalArgumentException("Operation is required");
+        }
+
+        TextOperation operation = new TextOperation();
+        for (Object component : components) {
+            if (component instanceof String text) {
+                operation.insert(text);
+            } else if (component instanceof Number number) {
+                int n = number.intValue();
+                if (n > 0) {
+                    operation.retain(n);
+                } else {
+                    operation.delete(-n);
+                }
+            } else {
+                throw new IllegalArgumentException("Invalid operation component: " + component);
+            }
+        }
+        return operation;
+    }
+
+    /**
+     * Operation that turns oldText into newText, touching only the changed middle part
+     */
+    public static TextOperation diff(String oldText, String newText) {
+        int prefix = 0;
+        int maxPrefix = Math.min(oldText.length(), newText.length());
+        while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+
+        return new TextOperation()
+                .retain(prefix)
+                .delete(oldText.length() - prefix - suffix)
+                .insert(newText.substring(prefix, newText.length() - suffix))
+                .retain(suffix);
+    }
+
+    public TextOperation retain(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Retain count must be positive");
+        }
+        if (n == 0) {
+            return this;
+        }
+        baseLength += n;
+        targetLength += n;
+        if (!ops.isEmpty() && isRetain(last())) {
+            ops.set(ops.size() - 1, (Integer) last() + n);
+        } else {
+            ops.add(n);
+        }
+        return this;
+    }
+
+    public TextOperation insert(String text) {
+        if (text.isEmpty()) {
+            return this;
+        }
+        targetLength += text.length();
+        int size = ops.size();
+        if (size > 0 && isInsert(ops.get(size - 1))) {
+            ops.set(size - 1, (String) ops.get(size - 1) + text);
+        } else if (size > 0 && isDelete(ops.get(size - 1))) {
+            // Keep inserts before deletes so equivalent operations have one representation
+            if (size > 1 && isInsert(ops.get(size - 2))) {
+                ops.set(size - 2, (String) ops.get(size - 2) + text);
+            } else {
+                ops.add(size - 1, text);
+            }
+        } else {
+            ops.add(text);
+        }
+        return this;
+    }
+
+    public TextOperation delete(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Delete count must be positive");
+        }
+        if (n == 0) {
+            return this;
+        }
+        baseLength += n;
+        if (!ops.isEmpty() && isDelete(last())) {
+            ops.set(ops.size() - 1, (Integer) last() - n);
+        } else {
+            ops.add(-n);
+        }
+        return this;
+    }
+
+    /**
+     * Apply the operation to a document
+     */
+    public String apply(String document) {
+        if (document.length() != baseLength) {
+            throw new IllegalArgumentException("Operation base length " + baseLength
+                    + " does not match document length " + document.length());
+        }
+
+        StringBuilder result = new StringBuilder(targetLength);
+        int index = 0;
+        for (Object op : ops) {
+            if (isRetain(op)) {
+                int n = (Integer) op;
+                result.append(document, index, index + n);
+                index += n;
+            } else if (isInsert(op)) {
+                result.append((String) op);
+            } else {
+                index -= (Integer) op;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Transform two operations made against the same document so that
+     * apply(apply(doc, a), b') == apply(apply(doc, b), a'). Returns {a', b'}.
+     * On equal insert positions, a's insert goes first.
+     */
+    public static TextOperation[] transform(TextOperation a, TextOperation b) {
+        if (a.baseLength != b.baseLength) {
+            throw new IllegalArgumentException("Both operations have to have the same base length");
+        }
+
+        TextOperation aPrime = new TextOperation();
+        TextOperation bPrime = new TextOperation();
+        List<Object> opsA = a.ops;
+        List<Object> opsB = b.ops;
+        int ia = 0;
+        int ib = 0;
+        Object opA = ia < opsA.size() ? opsA.get(ia++) : null;
+        Object opB = ib < opsB.size() ? opsB.get(ib++) : null;
+
+        while (opA != null || opB != null) {
+            if (opA != null && isInsert(opA)) {
+                aPrime.insert((String) opA);
+                bPrime.retain(((String) opA).length());
+                opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                continue;
+            }
+            if (opB != null && isInsert(opB)) {
+                aPrime.retain(((String) opB).length());
+                bPrime.insert((String) opB);
+                opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                continue;
+            }
+            if (opA == null) {
+                throw new IllegalArgumentException("First operation is too short");
+            }
+            if (opB == null) {
+                throw new IllegalArgumentException("First operation is too long");
+            }
+
+            int x = (Integer) opA;
+            int y = (Integer) opB;
+            int min;
+            if (x > 0 && y > 0) {
+                // retain / retain
+                if (x > y) {
+                    min = y;
+                    opA = x - y;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else if (x == y) {
+                    min = y;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else {
+                    min = x;
+                    opB = y - x;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                }
+                aPrime.retain(min);
+                bPrime.retain(min);
+            } else if (x < 0 && y < 0) {
+                // delete / delete: both removed the same text, nothing to emit
+                if (-x > -y) {
+                    opA = x - y;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else if (x == y) {
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else {
+                    opB = y - x;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                }
+            } else if (x < 0) {
+                // delete / retain
+                if (-x > y) {
+                    min = y;
+                    opA = x + y;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else if (-x == y) {
+                    min = y;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else {
+                    min = -x;
+                    opB = y + x;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                }
+                aPrime.delete(min);
+            } else {
+                // retain / delete
+                if (x > -y) {
+                    min = -y;
+                    opA = x + y;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else if (x == -y) {
+                    min = x;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                    opB = ib < opsB.size() ? opsB.get(ib++) : null;
+                } else {
+                    min = x;
+                    opB = y + x;
+                    opA = ia < opsA.size() ? opsA.get(ia++) : null;
+                }
+                bPrime.delete(min);
+            }
+        }
+
+        return new TextOperation[] { aPrime, bPrime };
+    }
+
+    public boolean isNoop() {
+        return ops.isEmpty() || (ops.size() == 1 && isRetain(ops.get(0)));
+    }
+
+    public int getBaseLength() {
+        return baseLength;
+    }
+
+    public int getTargetLength() {
+        return targetLength;
+    }
+
+    /**
+     * JSON component list, e.g. [5, "abc", -2]
+     */
+    public List<Object> toJson() {
+        return Collections.unmodifiableList(ops);
+    }
+
+    private Object last() {
+        return ops.get(ops.size() - 1);
+    }
+
+    private static boolean isRetain(Object op) {
+        return op instanceof Integer n && n > 0;
+    }
+
+    private static boolean isDelete(Object op) {
+        return op instanceof Integer n && n < 0;
+    }
+
+    private static boolean isInsert(Object op) {
+        return op instanceof String;
+    }
+
+    @Override
+    public String toString() {
+        return "TextOperation" + ops;
+    }
+}
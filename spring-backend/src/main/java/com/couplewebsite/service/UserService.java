@@ -2,6 +2,7 @@ package com.couplewebsite.service;
 
 import com.couplewebsite.entity.User;
 import com.couplewebsite.repository.UserRepository;
+import com.couplewebsite.security.UserCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,8 +16,11 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     public User findByUsername(String username) {
-        Optional<User> user = userRepository.findByUsername(username);
+        Optional<User> user = userCache.findByUsername(username);
         if (user.isPresent()) {
             return user.get();
         }
@@ -24,20 +28,25 @@ public class UserService {
     }
 
     public User findById(Long id) {
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userCache.findById(id);
         if (user.isPresent()) {
             return user.get();
         }
         throw new RuntimeException("User not found with id: " + id);
     }
 
-    public User save(User user) {
-        return userRepository.save(user);
+    /**
+     * The managed entity, for changes. The users returned by the find methods are
+     * read-only copies from the cache.
+     */
+    public User findForUpdate(Long id) {
+        return userRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
-    public void updateTotalEarnings(Long userId, Integer totalEarnings) {
-        User user = findById(userId);
-        user.setTotalEarnings(totalEarnings);
-        userRepository.save(user);
+    public User save(User user) {
+        User saved = userRepository.save(user);
+        userCache.evictAfterCommit(saved);
+        return saved;
     }
 }
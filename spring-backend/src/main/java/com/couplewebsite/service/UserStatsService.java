@@ -0,0 +1,127 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.UserStats;
+import com.couplewebsite.repository.EarningsRepository;
+import com.couplewebsite.repository.SavedOpportunityRepository;
+import com.couplewebsite.repository.UserRepository;
+import com.couplewebsite.repository.UserStatsRepository;
+import com.couplewebsite.repository.WheelUsageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of running totals per user: wheel spins and their prizes, saved
+ * opportunities, and earnings. The services that write those rows call the
+ * record methods in the same transaction, so the totals commit or roll back
+ * with the write; reading them is a primary key lookup instead of a set of
+ * COUNT and SUM queries.
+ *
+ * Rows are seeded for every user at startup. If a writer finds no row (a user
+ * created since), the totals are counted from the tables once, and that count
+ * already includes the write that triggered it.
+ */
+@Service
+@Transactional
+public class UserStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsService.class);
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WheelUsageRepository wheelUsageRepository;
+
+    @Autowired
+    private SavedOpportunityRepository savedOpportunityRepository;
+
+    @Autowired
+    private EarningsRepository earningsRepository;
+
+    /**
+     * The user's totals, counting them first if the user has no row yet
+     */
+    public UserStats getStats(User user) {
+        return userStatsRepository.findById(user.getId()).orElseGet(() -> recount(user));
+    }
+
+    /**
+     * A weekly spin was recorded
+     */
+    public void recordWheelUsage(User user, Integer prizeAmount) {
+        long amount = prizeAmount != null ? prizeAmount : 0;
+        if (userStatsRepository.addWheelUsage(user.getId(), 1, amount, LocalDateTime.now()) == 0) {
+            recount(user);
+        }
+    }
+
+    /**
+     * Saved opportunities were created (or deleted, when negative) and used
+     */
+    public void recordOpportunities(User user, long created, long used) {
+        if (userStatsRepository.addOpportunities(user.getId(), created, used, LocalDateTime.now()) == 0) {
+            recount(user);
+        }
+    }
+
+    /**
+     * An earning was recorded
+     */
+    public void recordEarnings(User user, Integer amount) {
+        if (userStatsRepository.addEarnings(user.getId(), 1, amount, LocalDateTime.now()) == 0) {
+            recount(user);
+        }
+    }
+
+    /**
+     * The user's earnings history was deleted
+     */
+    public void clearEarnings(User user) {
+        if (userStatsRepository.resetEarnings(user.getId(), LocalDateTime.now()) == 0) {
+            recount(user);
+        }
+    }
+
+    /**
+     * Create the missing rows for users that have none
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissing() {
+        int seeded = 0;
+        for (User user : userRepository.findAll()) {
+            if (!userStatsRepository.existsById(user.getId())) {
+                recount(user);
+                seeded++;
+            }
+        }
+        if (seeded > 0) {
+            logger.info("Seeded stats for {} users", seeded);
+        }
+    }
+
+    /**
+     * Replace the user's row with totals counted from the tables
+     */
+    public UserStats recount(User user) {
+        UserStats stats = userStatsRepository.findById(user.getId()).orElseGet(() -> new UserStats(user.getId()));
+        stats.setWheelUsageCount(wheelUsageRepository.getWheelUsageCountByUser(user));
+        stats.setWheelPrizeTotal(wheelUsageRepository.getTotalPrizesWonByUser(user).longValue());
+        stats.setOpportunitiesTotal(savedOpportunityRepository.countByUser(user));
+        stats.setOpportunitiesUsed(savedOpportunityRepository.countUsedOpportunitiesByUser(user));
+        stats.setEarningsCount(earningsRepository.countByUser(user));
+        stats.setEarningsTotal(earningsRepository.getTotalEarningsByUser(user).longValue());
+        stats.setUpdatedAt(LocalDateTime.now());
+        return userStatsRepository.save(stats);
+    }
+}
@@ -0,0 +1,174 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.WheelConfiguration;
+import com.couplewebsite.entity.WheelPrizeTemplate;
+import com.couplewebsite.repository.WheelConfigurationRepository;
+import com.couplewebsite.repository.WheelPrizeTemplateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshots of each owner's active wheel, with the GET response body
+ * already serialized and the alias table used for spins.
+ *
+ * A snapshot is loaded on first use and kept until evict() runs after a new
+ * configuration commits, so reading or spinning a wheel costs no queries. Owners
+ * without a wheel are cached too. Every eviction bumps a version; a load that
+ * started before an eviction is not installed, so a slow reader cannot put a
+ * superseded configuration back.
+ */
+@Service
+public class WheelConfigurationCache {
+
+    @Autowired
+    private WheelConfigurationRepository wheelConfigurationRepository;
+
+    @Autowired
+    private WheelPrizeTemplateRepository wheelPrizeTemplateRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long, CachedWheel> wheels = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The owner's wheel; check configured() before using the prizes
+     */
+    public CachedWheel get(Long ownerUserId) {
+        CachedWheel cached = wheels.get(ownerUserId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long seen = version.get();
+        CachedWheel loaded = load(ownerUserId, seen);
+        // Runs under the map's lock for this key, so it cannot interleave with evict's remove
+        CachedWheel installed = wheels.compute(ownerUserId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return version.get() == seen ? loaded : null;
+        });
+        // Not installed means an eviction raced the load; the caller still gets this read
+        return installed != null ? installed : loaded;
+    }
+
+    /**
+     * Drop an owner's wheel once the current transaction commits
+     */
+    public void evict(Long ownerUserId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(ownerUserId);
+                }
+            });
+        } else {
+            remove(ownerUserId);
+        }
+    }
+
+    private void remove(Long ownerUserId) {
+        version.incrementAndGet();
+        wheels.remove(ownerUserId);
+    }
+
+    private CachedWheel load(Long ownerUserId, long loadedAtVersion) {
+        Optional<WheelConfiguration> configOpt = wheelConfigurationRepository.findActiveWithUsersByOwnerUserId(ownerUserId);
+        List<WheelPrizeTemplate> templates = configOpt
+                .map(config -> wheelPrizeTemplateRepository.findByWheelConfigurationIdOrderByDisplayOrder(config.getId()))
+                .orElse(List.of());
+
+        if (configOpt.isEmpty() || templates.isEmpty()) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("hasConfiguration", false);
+            body.put("message", "No wheel configuration found");
+            return new CachedWheel(loadedAtVersion, null, List.of(), null, render(body));
+        }
+
+        WheelConfiguration config = configOpt.get();
+        List<Prize> prizes = templates.stream().map(Prize::of).toList();
+        double[] weights = new double[templates.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = templates.get(i).getProbability().doubleValue();
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("hasConfiguration", true);
+        body.put("isDefault", false);
+        body.put("configuration", createConfigurationResponse(config));
+        body.put("prizes", templates.stream().map(this::createPrizeTemplateResponse).toList());
+
+        return new CachedWheel(loadedAtVersion, config.getId(), prizes, AliasTable.of(weights), render(body));
+    }
+
+    private byte[] render(Map<String, Object> body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize wheel configuration", e);
+        }
+    }
+
+    private Map<String, Object> createConfigurationResponse(WheelConfiguration config) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", config.getId());
+        response.put("ownerUsername", config.getOwnerUser().getUsername());
+        response.put("configuredByUsername", config.getConfiguredByUser().getUsername());
+        response.put("isActive", config.getIsActive());
+        response.put("createdAt", config.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        response.put("updatedAt", config.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return response;
+    }
+
+    private Map<String, Object> createPrizeTemplateResponse(WheelPrizeTemplate template) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", template.getId());
+        response.put("prizeName", template.getPrizeName());
+        response.put("prizeDescription", template.getPrizeDescription());
+        response.put("prizeType", template.getPrizeType());
+        response.put("prizeValue", template.getPrizeValue());
+        response.put("probability", template.getProbability());
+        response.put("color", template.getColor());
+        response.put("displayOrder", template.getDisplayOrder());
+        return response;
+    }
+
+    /**
+     * One owner's wheel. configurationId, table are null and prizes empty when the
+     * owner has no active configuration; body is the JSON for the wheel-config GETs.
+     */
+    public record CachedWheel(long version, Long configurationId, List<Prize> prizes, AliasTable table, byte[] body) {
+
+        public boolean configured() {
+            return configurationId != null;
+        }
+    }
+
+    /**
+     * A prize slot as it was when the wheel was cached
+     */
+    public record Prize(Long id, String prizeName, String prizeDescription, String prizeType,
+                        Integer prizeValue, String color, Integer displayOrder) {
+
+        static Prize of(WheelPrizeTemplate template) {
+            return new Prize(template.getId(), template.getPrizeName(), template.getPrizeDescription(),
+                    template.getPrizeType(), template.getPrizeValue(), template.getColor(), template.getDisplayOrder());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,9 @@ public class WheelConfigurationService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private WheelConfigurationCache wheelConfigurationCache;
+    
     /**
      * Get the active wheel configuration for a user
      */
@@ -48,6 +52,13 @@ public class WheelConfigurationService {
         return getActiveWheelConfiguration(currentUser);
     }
     
+    /**
+     * Get the cached wheel of an owner, including its pre-rendered response body
+     */
+    public WheelConfigurationCache.CachedWheel getCachedWheel(Long ownerUserId) {
+        return wheelConfigurationCache.get(ownerUserId);
+    }
+    
     /**
      * Get the active wheel configuration for a user by user ID
      */
@@ -99,13 +110,15 @@ public class WheelConfigurationService {
         WheelConfiguration wheelConfiguration = new WheelConfiguration(ownerUser, configuredByUser);
         WheelConfiguration savedConfiguration = wheelConfigurationRepository.save(wheelConfiguration);
         
-        // Save prize templates
+        // Save prize templates in one JDBC batch
         for (int i = 0; i < prizeTemplates.size(); i++) {
             WheelPrizeTemplate template = prizeTemplates.get(i);
             template.setWheelConfiguration(savedConfiguration);
             template.setDisplayOrder(i + 1);
-            wheelPrizeTemplateRepository.save(template);
         }
+        wheelPrizeTemplateRepository.saveAll(prizeTemplates);
+        
+        wheelConfigurationCache.evict(ownerUser.getId());
         
         logger.info("Wheel configuration saved for owner: {} by configurator: {} with {} prizes", 
                    ownerUser.getUsername(), configuredByUser.getUsername(), prizeTemplates.size());
@@ -147,9 +160,17 @@ public class WheelConfigurationService {
     }
     
     /**
-     * Create default wheel configuration for a user if none exists
+     * Create default wheel configuration for a user if none exists. Of two concurrent
+     * calls, one fails on the one-active-configuration-per-owner index with a
+     * DataIntegrityViolationException and rolls back.
      */
     public WheelConfiguration createDefaultWheelConfiguration(User ownerUser) {
+        // Another request may have created it since the caller checked
+        Optional<WheelConfiguration> existing = wheelConfigurationRepository.findByOwnerUserAndIsActiveTrue(ownerUser);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        
         String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
         User configuredByUser = userDetailsService.getUserByUsername(currentUsername);
         
@@ -165,8 +186,9 @@ public class WheelConfigurationService {
             new BigDecimal("2.50"), new BigDecimal("1.50"), new BigDecimal("0.50"), new BigDecimal("0.50")
         };
         
+        List<WheelPrizeTemplate> templates = new ArrayList<>(amounts.length);
         for (int i = 0; i < amounts.length; i++) {
-            WheelPrizeTemplate template = new WheelPrizeTemplate(
+            templates.add(new WheelPrizeTemplate(
                 savedConfiguration,
                 "$" + amounts[i],
                 "Win $" + amounts[i] + " love points",
@@ -175,9 +197,11 @@ public class WheelConfigurationService {
                 probabilities[i],
                 colors[i],
                 i + 1
-            );
-            wheelPrizeTemplateRepository.save(template);
+            ));
         }
+        wheelPrizeTemplateRepository.saveAll(templates);
+        
+        wheelConfigurationCache.evict(ownerUser.getId());
         
         logger.info("Default wheel configuration created for owner: {} by configurator: {}", 
                    ownerUser.getUsername(), configuredByUser.getUsername());
@@ -25,35 +25,20 @@ public class WheelPrizeService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+    
     /**
-     * Record a wheel prize for the current user
+     * Record a wheel prize for a user
      */
-    public WheelPrize recordPrize(String prizeType, Integer prizeValue, String prizeDescription) {
-        try {
-            logger.info("Starting prize recording process...");
-            
-            String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            logger.info("Current authenticated username: {}", currentUsername);
-            
-            User currentUser = userDetailsService.getUserByUsername(currentUsername);
-            logger.info("Found user: {} with ID: {}", currentUser.getUsername(), currentUser.getId());
-            
-            WheelPrize wheelPrize = new WheelPrize(currentUser, prizeType, prizeValue, prizeDescription);
-            logger.info("Created WheelPrize object: {}", wheelPrize);
-            
-            WheelPrize savedPrize = wheelPrizeRepository.save(wheelPrize);
-            logger.info("Successfully saved prize with ID: {} for user: {}", savedPrize.getId(), currentUsername);
-            
-            logger.info("Wheel prize recorded for user: {} - Type: {}, Value: {}", 
-                       currentUsername, prizeType, prizeValue);
-            
-            return savedPrize;
-            
-        } catch (Exception e) {
-            logger.error("Error recording wheel prize for user. Exception type: {}, Message: {}", 
-                        e.getClass().getSimpleName(), e.getMessage(), e);
-            throw new RuntimeException("Failed to record wheel prize: " + e.getMessage());
-        }
+    public WheelPrize recordPrize(User user, String prizeType, Integer prizeValue, String prizeDescription) {
+        WheelPrize savedPrize = wheelPrizeRepository.save(new WheelPrize(user, prizeType, prizeValue, prizeDescription));
+        calendarRollupService.touch(CalendarRollupService.Kind.PRIZES, savedPrize.getWonAt());
+        
+        logger.info("Wheel prize recorded for user: {} - Type: {}, Value: {}", 
+                   user.getUsername(), prizeType, prizeValue);
+        
+        return savedPrize;
     }
     
     /**
@@ -0,0 +1,98 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.WheelPrize;
+import com.couplewebsite.entity.WheelUsage;
+import com.couplewebsite.service.WheelConfigurationCache.CachedWheel;
+import com.couplewebsite.service.WheelConfigurationCache.Prize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * Spins a user's wheel on the server.
+ *
+ * The prize is drawn from the alias table in the owner's cached wheel, so a spin
+ * does not read the templates. The draw, the weekly usage (or saved opportunity)
+ * and the prize are written in one transaction.
+ */
+@Service
+public class WheelSpinService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WheelSpinService.class);
+
+    public static final String SOURCE_WEEKLY = "weekly";
+    public static final String SOURCE_SAVED_OPPORTUNITY = "saved_opportunity";
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    // SplittableRandom is not thread safe; each thread gets its own, seeded securely
+    private static final ThreadLocal<SplittableRandom> RANDOM =
+            ThreadLocal.withInitial(() -> new SplittableRandom(SEEDS.nextLong()));
+
+    @Autowired
+    private WheelConfigurationCache wheelConfigurationCache;
+
+    @Autowired
+    private WheelUsageService wheelUsageService;
+
+    @Autowired
+    private SavedOpportunityService savedOpportunityService;
+
+    @Autowired
+    private WheelPrizeService wheelPrizeService;
+
+    /**
+     * Spin the user's own wheel. The weekly spin is used first, then the oldest saved
+     * opportunity. Throws IllegalStateException if the user has no wheel or no spin left.
+     */
+    @Transactional
+    public SpinResult spin(User user) {
+        CachedWheel wheel = wheelConfigurationCache.get(user.getId());
+        if (!wheel.configured()) {
+            throw new IllegalStateException("No wheel configuration found");
+        }
+
+        String source;
+        if (wheelUsageService.canUseWheel(user)) {
+            source = SOURCE_WEEKLY;
+        } else if (savedOpportunityService.useOldestOpportunity(user).isPresent()) {
+            source = SOURCE_SAVED_OPPORTUNITY;
+        } else {
+            throw new IllegalStateException("Wheel already used this week");
+        }
+
+        int index = wheel.table().sample(RANDOM.get());
+        Prize prize = wheel.prizes().get(index);
+
+        // The unique (user, week) index turns a concurrent weekly spin into a rollback
+        WheelUsage usage = SOURCE_WEEKLY.equals(source)
+                ? wheelUsageService.recordWheelUsage(user, prize.prizeValue(), source)
+                : null;
+        WheelPrize wheelPrize = wheelPrizeService.recordPrize(user, prize.prizeType(), prize.prizeValue(),
+                prize.prizeDescription());
+
+        logger.info("User {} spun {} from configuration {} ({})", user.getUsername(), prize.prizeName(),
+                wheel.configurationId(), source);
+
+        return new SpinResult(index, prize, source, usage, wheelPrize);
+    }
+
+    /**
+     * Whether the owner has an active wheel to spin
+     */
+    public boolean hasWheel(Long ownerUserId) {
+        return wheelConfigurationCache.get(ownerUserId).configured();
+    }
+
+    /**
+     * Outcome of a spin. index is the prize's position on the wheel; usage is null
+     * when a saved opportunity was spent instead of the weekly spin.
+     */
+    public record SpinResult(int index, Prize prize, String source, WheelUsage usage, WheelPrize wheelPrize) {}
+}
@@ -1,6 +1,7 @@
 package com.couplewebsite.service;
 
 import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.UserStats;
 import com.couplewebsite.entity.WheelUsage;
 import com.couplewebsite.repository.WheelUsageRepository;
 import org.slf4j.Logger;
@@ -24,6 +25,9 @@ public class WheelUsageService {
     @Autowired
     private WheelUsageRepository wheelUsageRepository;
     
+    @Autowired
+    private UserStatsService userStatsService;
+    
     /**
      * Get the start of the current week (Sunday at 00:00:00)
      */
@@ -68,6 +72,7 @@ public class WheelUsageService {
         // Create new wheel usage record
         WheelUsage wheelUsage = new WheelUsage(user, weekStart, prizeAmount, source);
         WheelUsage savedUsage = wheelUsageRepository.save(wheelUsage);
+        userStatsService.recordWheelUsage(user, prizeAmount);
         
         logger.info("Recorded wheel usage for user {} - Prize: {}, Source: {}", 
                 user.getUsername(), prizeAmount, source);
@@ -86,14 +91,14 @@ public class WheelUsageService {
      * Get total prizes won by user
      */
     public Integer getTotalPrizesWon(User user) {
-        return wheelUsageRepository.getTotalPrizesWonByUser(user);
+        return userStatsService.getStats(user).getWheelPrizeTotal().intValue();
     }
     
     /**
      * Get wheel usage count for user
      */
     public Long getWheelUsageCount(User user) {
-        return wheelUsageRepository.getWheelUsageCountByUser(user);
+        return userStatsService.getStats(user).getWheelUsageCount();
     }
     
     /**
@@ -107,17 +112,15 @@ public class WheelUsageService {
      * Get wheel usage stats for user
      */
     public WheelUsageStats getWheelUsageStats(User user) {
-        boolean canUse = canUseWheel(user);
-        Optional<WheelUsage> thisWeekUsage = getWheelUsageThisWeek(user);
-        Integer totalPrizes = getTotalPrizesWon(user);
-        Long totalUsages = getWheelUsageCount(user);
         LocalDateTime weekStart = getCurrentWeekStart();
+        Optional<WheelUsage> thisWeekUsage = wheelUsageRepository.findByUserAndWeek(user, weekStart);
+        UserStats stats = userStatsService.getStats(user);
         
         return new WheelUsageStats(
-                canUse,
+                thisWeekUsage.isEmpty(),
                 thisWeekUsage.orElse(null),
-                totalPrizes,
-                totalUsages,
+                stats.getWheelPrizeTotal().intValue(),
+                stats.getWheelUsageCount(),
                 weekStart
         );
     }
@@ -0,0 +1,13 @@
+-- Append-only shared note history: full checkpoints plus deflated deltas between them
+CREATE TABLE IF NOT EXISTS shared_note_revisions (
+    id BIGSERIAL PRIMARY KEY,
+    note_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    base_version BIGINT NOT NULL,
+    chain_size INTEGER NOT NULL,
+    content_length INTEGER NOT NULL,
+    data BYTEA NOT NULL,
+    author_user_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_shared_note_revisions_note_version UNIQUE (note_id, version)
+);
@@ -0,0 +1,14 @@
+-- Calendar position of each memory's date so anniversary lookups can use an index
+-- instead of loading every memory. day_of_year is the position in a leap year
+-- (Feb 29 = 60, Mar 1 = 61) so the order is the same every year.
+ALTER TABLE memories ADD COLUMN month INTEGER;
+ALTER TABLE memories ADD COLUMN day_of_month INTEGER;
+ALTER TABLE memories ADD COLUMN day_of_year INTEGER;
+
+UPDATE memories SET
+    month = EXTRACT(MONTH FROM date),
+    day_of_month = EXTRACT(DAY FROM date),
+    day_of_year = EXTRACT(DOY FROM make_date(2000, EXTRACT(MONTH FROM date)::int, EXTRACT(DAY FROM date)::int));
+
+CREATE INDEX idx_memories_month_day ON memories(month, day_of_month);
+CREATE INDEX idx_memories_day_of_year ON memories(day_of_year);
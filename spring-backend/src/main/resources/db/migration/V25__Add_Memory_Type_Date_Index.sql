@@ -0,0 +1,2 @@
+-- Memories page filters by type and a date window, sorted by date
+CREATE INDEX idx_memories_type_date ON memories(type, date);
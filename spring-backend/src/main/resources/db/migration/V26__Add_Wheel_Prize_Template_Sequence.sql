@@ -0,0 +1,10 @@
+-- Wheel prize template ids come from a sequence so Hibernate can batch the inserts
+-- (IDENTITY columns force one round trip per row). The increment matches the entity's
+-- allocationSize of 50; Hibernate treats each value as the top of a block of 50 ids,
+-- so start one block past the highest existing id.
+
+CREATE SEQUENCE IF NOT EXISTS wheel_prize_templates_seq INCREMENT BY 50;
+
+SELECT setval('wheel_prize_templates_seq',
+              (SELECT COALESCE(MAX(id), 0) + 50 FROM wheel_prize_templates),
+              false);
@@ -0,0 +1,3 @@
+-- Covers the grouped prize history stats query: the recipient's rows are read
+-- from the index alone, already grouped by completion type
+CREATE INDEX idx_prize_history_recipient_type_claimed ON prize_history(recipient_id, completion_type, claimed_at);
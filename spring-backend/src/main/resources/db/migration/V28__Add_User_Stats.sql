@@ -0,0 +1,26 @@
+-- Running per-user totals for wheel spins, saved opportunities and earnings,
+-- updated in place by the services that write those tables
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    wheel_usage_count BIGINT NOT NULL DEFAULT 0,
+    wheel_prize_total BIGINT NOT NULL DEFAULT 0,
+    opportunities_total BIGINT NOT NULL DEFAULT 0,
+    opportunities_used BIGINT NOT NULL DEFAULT 0,
+    earnings_count BIGINT NOT NULL DEFAULT 0,
+    earnings_total BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Seed from the existing rows
+INSERT INTO user_stats (user_id, wheel_usage_count, wheel_prize_total, opportunities_total,
+                        opportunities_used, earnings_count, earnings_total, updated_at)
+SELECT u.id,
+       (SELECT COUNT(*) FROM wheel_usage w WHERE w.user_id = u.id),
+       (SELECT COALESCE(SUM(w.prize_amount), 0) FROM wheel_usage w WHERE w.user_id = u.id),
+       (SELECT COUNT(*) FROM saved_opportunities o WHERE o.user_id = u.id),
+       (SELECT COUNT(*) FROM saved_opportunities o WHERE o.user_id = u.id AND o.is_used = TRUE),
+       (SELECT COUNT(*) FROM earnings e WHERE e.user_id = u.id),
+       (SELECT COALESCE(SUM(e.amount), 0) FROM earnings e WHERE e.user_id = u.id),
+       CURRENT_TIMESTAMP
+FROM users u
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,4 @@
+-- Optional key a client sends with an award so a retried request is recorded once
+ALTER TABLE earnings ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(100);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_earnings_user_idempotency_key ON earnings(user_id, idempotency_key);
@@ -0,0 +1,10 @@
+-- At most one active wheel configuration per owner. Two concurrent first spins could
+-- each create a default configuration; keep only the newest of any active duplicates.
+UPDATE wheel_configurations wc SET is_active = false
+WHERE wc.is_active = true AND EXISTS (
+    SELECT 1 FROM wheel_configurations newer
+    WHERE newer.owner_user_id = wc.owner_user_id AND newer.is_active = true AND newer.id > wc.id
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_wheel_configurations_active_owner
+    ON wheel_configurations(owner_user_id) WHERE is_active = true;
@@ -0,0 +1,41 @@
+package com.couplewebsite;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread, for tests that check
+ * how many statements an operation sends. Batched inserts are prepared once per
+ * batch. Registered for the test profile in application-test.yml.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    /**
+     * Start recording on this thread, dropping anything recorded before
+     */
+    public static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    /**
+     * Stop recording on this thread and return what was prepared since start()
+     */
+    public static List<String> stop() {
+        List<String> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded != null ? recorded : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,58 @@
+package com.couplewebsite.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeteredAsyncAppenderTest {
+
+    @Test
+    void dropsAndCountsInsteadOfBlockingWhenWriterIsStuck() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger("metered-async-test");
+        CountDownLatch release = new CountDownLatch(1);
+
+        AppenderBase<ILoggingEvent> stuckWriter = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stuckWriter.setContext(context);
+        stuckWriter.start();
+
+        MeteredAsyncAppender appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(16);
+        appender.setNeverBlock(true);
+        appender.addAppender(stuckWriter);
+        appender.start();
+
+        long droppedBefore = MeteredAsyncAppender.droppedCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            appender.doAppend(new LoggingEvent("test", logger, Level.ERROR, "event {}", null, new Object[] { i }));
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        release.countDown();
+        appender.stop();
+
+        assertTrue(elapsedMillis < 1_000, "Appending blocked for " + elapsedMillis + "ms");
+        assertTrue(MeteredAsyncAppender.droppedCount() - droppedBefore >= 900,
+                "Expected most events to be dropped and counted");
+    }
+}
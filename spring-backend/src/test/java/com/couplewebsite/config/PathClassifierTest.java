@@ -0,0 +1,68 @@
+package com.couplewebsite.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PathClassifierTest {
+
+    private static final List<String> PATHS = List.of(
+        "/", "/index.html", "/scott", "/zoe", "/scotty", "/health", "/healthz",
+        "/assets/index-4f3a.js", "/assets/data.json", "/assets/font.eot", "/static/logo.png",
+        "/uploads/2024/photo.jpeg", "/api/auth/login", "/api/auth/logout", "/api/auth/validate",
+        "/api/photos", "/api/photos/", "/api/photos/12", "/api/photos/image/12", "/api/photos/test",
+        "/api/categories", "/api/categories/3", "/api/health", "/api/health/db", "/api/debug/info",
+        "/actuator/health/liveness", "/actuator/metrics", "/api/memories", "/api/love/increment",
+        "/favicon.ico", "/fonts/a.woff2", "/fonts/a.woff", "/fonts/a.ttf", "/img/a.gif", "/img/a.svg",
+        "/styles/main.css", "/data.json", "/api/shared-notes/4/versions", "/api/user/earnings",
+        "/ws/info", "/api/love-updates/subscribe"
+    );
+
+    private static final Map<String, String> MIME_TYPES = Map.ofEntries(
+        Map.entry(".css", "text/css"), Map.entry(".js", "application/javascript"),
+        Map.entry(".json", "application/json"), Map.entry(".svg", "image/svg+xml"),
+        Map.entry(".ico", "image/x-icon"), Map.entry(".png", "image/png"),
+        Map.entry(".jpg", "image/jpeg"), Map.entry(".jpeg", "image/jpeg"),
+        Map.entry(".woff", "font/woff"), Map.entry(".woff2", "font/woff2"),
+        Map.entry(".ttf", "font/ttf"), Map.entry(".eot", "application/vnd.ms-fontobject")
+    );
+
+    private final PathClassifier classifier = new PathClassifier();
+
+    @Test
+    void matchesPreviousFilterRules() {
+        for (String path : PATHS) {
+            assertEquals(legacyIsPublic(path), classifier.isPublic(path), path);
+            assertEquals(legacyMimeType(path), classifier.staticMimeType(path), path);
+        }
+    }
+
+    // The checks JwtAuthenticationFilter and StaticResourceFilter used to run
+
+    private static boolean legacyIsPublic(String path) {
+        return path.equals("/") || path.equals("/index.html") || path.equals("/scott") || path.equals("/zoe")
+                || path.startsWith("/assets/") || path.startsWith("/static/") || path.startsWith("/uploads/")
+                || path.equals("/api/auth/login") || path.equals("/api/auth/validate")
+                || path.startsWith("/api/photos/image/") || path.equals("/api/photos/test")
+                || path.equals("/api/photos") || path.equals("/api/categories") || path.equals("/health")
+                || path.startsWith("/api/health") || path.startsWith("/api/debug/")
+                || path.startsWith("/actuator/health") || path.endsWith(".css") || path.endsWith(".js")
+                || path.endsWith(".html") || path.endsWith(".ico") || path.endsWith(".png")
+                || path.endsWith(".jpg") || path.endsWith(".jpeg") || path.endsWith(".gif")
+                || path.endsWith(".svg") || path.endsWith(".woff") || path.endsWith(".woff2")
+                || path.endsWith(".ttf");
+    }
+
+    private static String legacyMimeType(String uri) {
+        if (uri.startsWith("/assets/") || uri.matches(".*\\.(css|js|svg|ico|png|jpg|jpeg|woff|woff2|ttf|eot)$")) {
+            int lastDotIndex = uri.lastIndexOf('.');
+            if (lastDotIndex > 0 && lastDotIndex < uri.length() - 1) {
+                return MIME_TYPES.get(uri.substring(lastDotIndex));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.couplewebsite.dto;
+
+import com.couplewebsite.entity.SurpriseBox;
+import com.couplewebsite.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoxNotificationTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void jsonMatchesThePreviousMapPayload() throws Exception {
+        SurpriseBox box = box();
+
+        assertSameJson(legacy("BOX_DROPPED", box, "Dropped"),
+                BoxNotification.of("BOX_DROPPED", box, "Dropped"));
+
+        Map<String, Object> rejected = legacy("BOX_REJECTED", box, "Rejected");
+        rejected.put("rejectionReason", null);
+        assertSameJson(rejected, BoxNotification.of("BOX_REJECTED", box, "Rejected").withRejectionReason(null));
+
+        box.setRejectionReason("Blurry photo");
+        rejected.put("rejectionReason", "Blurry photo");
+        assertSameJson(rejected, BoxNotification.of("BOX_REJECTED", box, "Rejected")
+                .withRejectionReason(box.getRejectionReason()));
+
+        Map<String, Object> countdown = legacy("COUNTDOWN_UPDATE", box, "Soon");
+        countdown.put("minutesRemaining", 3L);
+        assertSameJson(countdown, BoxNotification.of("COUNTDOWN_UPDATE", box, "Soon").withMinutesRemaining(3));
+    }
+
+    @Test
+    void allocatesLessThanTheMapPayloadForTwoDestinations() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SurpriseBox box = box();
+        int notifications = 2_000;
+
+        // Warm up both paths so class loading and serializer caches are not counted
+        long legacyBytes = 0;
+        long recordBytes = 0;
+        for (int round = 0; round < 2; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < notifications; i++) {
+                Map<String, Object> payload = legacy("BOX_EXPIRED", box, "Expired");
+                // The message converter serialized the map once per destination
+                objectMapper.writeValueAsBytes(payload);
+                objectMapper.writeValueAsBytes(payload);
+            }
+            legacyBytes = threads.getCurrentThreadAllocatedBytes() - before;
+
+            before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < notifications; i++) {
+                objectMapper.writeValueAsBytes(BoxNotification.of("BOX_EXPIRED", box, "Expired"));
+            }
+            recordBytes = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+
+        assertTrue(recordBytes < legacyBytes, "Expected fewer bytes allocated per notification, got "
+                + recordBytes / notifications + " vs " + legacyBytes / notifications);
+    }
+
+    private void assertSameJson(Map<String, Object> expected, BoxNotification actual) throws Exception {
+        JsonNode expectedTree = objectMapper.readTree(objectMapper.writeValueAsBytes(expected));
+        JsonNode actualTree = objectMapper.readTree(objectMapper.writeValueAsBytes(actual));
+        // Both stamp the current time
+        ((ObjectNode) expectedTree).remove("timestamp");
+        ((ObjectNode) actualTree).remove("timestamp");
+        assertEquals(expectedTree, actualTree);
+    }
+
+    // The payload SurpriseBoxWebSocketController built before notifications were records
+    private static Map<String, Object> legacy(String type, SurpriseBox box, String message) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("type", type);
+        notification.put("timestamp", LocalDateTime.now().toString());
+
+        Map<String, Object> boxInfo = new HashMap<>();
+        boxInfo.put("id", box.getId());
+        boxInfo.put("prizeName", box.getPrizeName());
+        boxInfo.put("status", box.getStatus().name());
+        boxInfo.put("completionType", box.getCompletionType().name());
+        boxInfo.put("dropAt", box.getDropAt());
+        boxInfo.put("expiresAt", box.getCalculatedExpiresAt());
+        boxInfo.put("isExpired", box.isExpired());
+        if (box.getOwner() != null) {
+            boxInfo.put("owner", Map.of("id", box.getOwner().getId(), "name", box.getOwner().getName(),
+                    "username", box.getOwner().getUsername()));
+        }
+        if (box.getRecipient() != null) {
+            boxInfo.put("recipient", Map.of("id", box.getRecipient().getId(), "name", box.getRecipient().getName(),
+                    "username", box.getRecipient().getUsername()));
+        }
+        notification.put("box", boxInfo);
+        notification.put("message", message);
+        return notification;
+    }
+
+    private static SurpriseBox box() {
+        User owner = new User("scott", "hash", "Scott", LocalDate.of(2020, 8, 6));
+        owner.setId(1L);
+        SurpriseBox box = new SurpriseBox();
+        box.setId(7L);
+        box.setOwner(owner);
+        box.setPrizeName("Dinner");
+        box.setStatus(SurpriseBox.BoxStatus.DROPPED);
+        box.setCompletionType(SurpriseBox.CompletionType.TASK);
+        // Not opened, so expiresAt is null; no recipient, so that key is left out
+        return box;
+    }
+}
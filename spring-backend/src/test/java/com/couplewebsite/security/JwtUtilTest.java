@@ -0,0 +1,69 @@
+package com.couplewebsite.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-for-jwt-token-generation-must-be-long-enough";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void verifiesOwnTokensAndRejectsOthers() {
+        String token = jwtUtil.generateToken(7L, "scott");
+
+        Claims claims = jwtUtil.verify(token);
+        assertNotNull(claims);
+        assertEquals("scott", claims.getSubject());
+        assertEquals(7L, JwtUtil.userId(claims));
+        assertEquals(7L, jwtUtil.extractUserId(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertNull(jwtUtil.verify(tampered));
+        assertNull(jwtUtil.verify("not-a-token"));
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1_000L);
+        String expired = jwtUtil.generateToken(7L, "scott");
+
+        assertNull(jwtUtil.verify(expired));
+    }
+
+    @Test
+    void secondVerifyReturnsCachedClaimsWithoutParsing() {
+        String token = jwtUtil.generateToken(7L, "scott");
+        Claims first = jwtUtil.verify(token);
+        assertNotNull(first);
+
+        // A parser with another key rejects the token, so only a cache hit can return claims
+        SecretKey otherKey = Keys.hmacShaKeyFor("another-secret-key-that-did-not-sign-this-token".getBytes());
+        ReflectionTestUtils.setField(jwtUtil, "parser", Jwts.parser().verifyWith(otherKey).build());
+
+        assertSame(first, jwtUtil.verify(token));
+        assertEquals("scott", jwtUtil.extractUsername(token));
+        // A token not seen before still goes through the parser
+        assertNull(jwtUtil.verify(jwtUtil.generateToken(8L, "zoe")));
+    }
+}
@@ -0,0 +1,43 @@
+package com.couplewebsite.security;
+
+import com.couplewebsite.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Test
+    void everyLookupGetsItsOwnCopy() {
+        User first = userCache.findByUsername("zoe").orElseThrow();
+        User second = userCache.findById(first.getId()).orElseThrow();
+
+        assertNotSame(first, second);
+        first.setName("Changed by one caller");
+        assertEquals("Zoe", userCache.findByUsername("zoe").orElseThrow().getName());
+    }
+
+    @Test
+    void erasedCredentialsDoNotReachTheCache() {
+        UserDetails details = userDetailsService.loadUserByUsername("scott");
+        // What the authentication manager does to the principal after a login
+        ((CredentialsContainer) details).eraseCredentials();
+
+        assertNotNull(userDetailsService.loadUserByUsername("scott").getPassword());
+    }
+}
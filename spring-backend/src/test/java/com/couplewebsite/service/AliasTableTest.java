@@ -0,0 +1,49 @@
+package com.couplewebsite.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliasTableTest {
+
+    // The default wheel's probabilities
+    private static final double[] WEIGHTS = {45.00, 25.00, 15.00, 10.00, 2.50, 1.50, 0.50, 0.50};
+
+    @Test
+    void drawsMatchTheWeights() {
+        AliasTable table = AliasTable.of(WEIGHTS);
+        SplittableRandom random = new SplittableRandom(42);
+        int draws = 2_000_000;
+        int[] counts = new int[WEIGHTS.length];
+        for (int i = 0; i < draws; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            double expected = WEIGHTS[i] / 100.0;
+            double observed = (double) counts[i] / draws;
+            assertEquals(expected, observed, 0.002, "Slot " + i);
+        }
+    }
+
+    @Test
+    void zeroWeightsAreNeverDrawn() {
+        AliasTable table = AliasTable.of(new double[] {0, 3, 0, 1});
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            int index = table.sample(random);
+            assertTrue(index == 1 || index == 3, "Drew zero-weight slot " + index);
+        }
+    }
+
+    @Test
+    void rejectsUnusableWeights() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[] {0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[] {1, -1}));
+    }
+}
@@ -0,0 +1,74 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.EarningsRepository;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs on H2 in PostgreSQL mode so concurrent awards commit concurrently
+@SpringBootTest
+@ActiveProfiles({"test", "h2"})
+class CalendarRollupServiceTest {
+
+    private static final int THREADS = 4;
+    private static final int AWARDS_PER_THREAD = 50;
+
+    @Autowired
+    private CalendarRollupService calendarRollupService;
+
+    @Autowired
+    private EarningsService earningsService;
+
+    @Autowired
+    private EarningsRepository earningsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentAwardsLeaveTodaysRollupMatchingTheDatabase() throws Exception {
+        User user = userRepository.save(new User("rollup-" + System.nanoTime(), "password", "Rollup",
+                LocalDate.of(2020, 1, 1)));
+        LocalDate today = LocalDate.now();
+        // Build the rollups first so every award below is recounted, not rebuilt
+        calendarRollupService.getRange(today, today);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < AWARDS_PER_THREAD; i++) {
+                    earningsService.addEarnings(user, thread + 1, "rollup_test");
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        Object[] counted = earningsRepository.countAndSumBetween(today.atStartOfDay(),
+                today.plusDays(1).atStartOfDay()).get(0);
+        CalendarRollupService.DayRollup rollup = calendarRollupService.getRange(today, today).get(0);
+        assertEquals(((Number) counted[0]).intValue(), rollup.earnings());
+        assertEquals(((Number) counted[1]).longValue(), rollup.earningsAmount());
+    }
+}
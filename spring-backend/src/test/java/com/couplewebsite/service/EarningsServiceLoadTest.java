@@ -0,0 +1,97 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.Earnings;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs on H2 in PostgreSQL mode: SQLite fails a contended write at once, while
+// there concurrent awards wait on the user's row lock as they do on PostgreSQL
+@SpringBootTest
+@ActiveProfiles({"test", "h2"})
+class EarningsServiceLoadTest {
+
+    private static final int THREADS = 4;
+    private static final int AWARDS_PER_THREAD = 100;
+
+    @Autowired
+    private EarningsService earningsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentAwardsAreNotLost() throws Exception {
+        User user = newUser();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Earnings>>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                List<Earnings> recorded = new ArrayList<>();
+                for (int i = 0; i < AWARDS_PER_THREAD; i++) {
+                    recorded.add(earningsService.addEarnings(user, thread + 1, "load_test",
+                            "load-" + thread + "-" + i));
+                }
+                return recorded;
+            }));
+        }
+
+        start.countDown();
+        List<Earnings> recorded = new ArrayList<>();
+        for (Future<List<Earnings>> worker : workers) {
+            recorded.addAll(worker.get());
+        }
+        pool.shutdown();
+
+        int awards = THREADS * AWARDS_PER_THREAD;
+        int expectedTotal = 0;
+        for (int t = 0; t < THREADS; t++) {
+            expectedTotal += (t + 1) * AWARDS_PER_THREAD;
+        }
+
+        assertEquals(expectedTotal, earningsService.getTotalEarnings(user));
+        assertEquals(awards, earningsService.getEarningsHistory(user).size());
+        // Every award saw its own balance, and the last one is the final total
+        Set<Integer> balances = recorded.stream().map(Earnings::getTotalAfter).collect(Collectors.toSet());
+        assertEquals(awards, balances.size());
+        assertTrue(balances.contains(expectedTotal));
+    }
+
+    @Test
+    void repeatedIdempotencyKeyIsRecordedOnce() {
+        User user = newUser();
+
+        Earnings first = earningsService.addEarnings(user, 30, "prize_wheel", "spin-1");
+        Earnings retry = earningsService.addEarnings(user, 30, "prize_wheel", "spin-1");
+        earningsService.addEarnings(user, 5, "prize_wheel", "spin-2");
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(35, earningsService.getTotalEarnings(user));
+        assertEquals(2, earningsService.getEarningsHistory(user).size());
+    }
+
+    private User newUser() {
+        return userRepository.save(new User("earner-" + System.nanoTime(), "password", "Earner",
+                LocalDate.of(2020, 1, 1)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.EditSession;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EditControlServiceTest {
+
+    @Autowired
+    private EditControlService editControlService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void currentEditSessionIsEmptyWhenNobodyHoldsTheLease() {
+        Long noteId = System.nanoTime();
+        User scott = userRepository.findByUsername("scott").orElseThrow();
+        User zoe = userRepository.findByUsername("zoe").orElseThrow();
+
+        assertTrue(editControlService.getCurrentEditSession(noteId).isEmpty());
+
+        editControlService.requestEditControl(noteId, scott);
+        Optional<EditSession> session = editControlService.getCurrentEditSession(noteId);
+        assertTrue(session.isPresent());
+        assertEquals(scott.getId(), session.get().getCurrentEditor().getId());
+
+        // A request from the other user does not change the holder
+        editControlService.requestEditControl(noteId, zoe);
+        assertEquals(scott.getId(), editControlService.getCurrentEditSession(noteId).orElseThrow()
+                .getCurrentEditor().getId());
+
+        editControlService.releaseEditControl(noteId, scott);
+        assertTrue(editControlService.getCurrentEditSession(noteId).isEmpty());
+    }
+}
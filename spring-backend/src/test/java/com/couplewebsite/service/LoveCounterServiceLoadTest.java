@@ -0,0 +1,91 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.Love;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.LoveRepository;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoveCounterServiceLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int TAPS_PER_THREAD = 2_500;
+
+    @Autowired
+    private LoveCounterService loveCounterService;
+
+    @Autowired
+    private LoveRepository loveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentTapsAreNotLost() throws Exception {
+        User user = newUser();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < TAPS_PER_THREAD; i++) {
+                    loveCounterService.increment(user.getUsername());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        int taps = THREADS * TAPS_PER_THREAD;
+        assertEquals(taps, loveCounterService.get(user.getUsername()));
+
+        loveCounterService.flushAll();
+        assertEquals(taps, storedCount(user));
+    }
+
+    @Test
+    void setReplacesUnwrittenTaps() {
+        User user = newUser();
+
+        for (int i = 0; i < 5; i++) {
+            loveCounterService.increment(user.getUsername());
+        }
+        loveCounterService.set(user.getUsername(), 42);
+        loveCounterService.increment(user.getUsername());
+        loveCounterService.flushAll();
+
+        assertEquals(43, loveCounterService.get(user.getUsername()));
+        assertEquals(43, storedCount(user));
+    }
+
+    private long storedCount(User user) {
+        return loveRepository.findByUserId(user.getId()).map(Love::getCountValue).orElse(0L);
+    }
+
+    private User newUser() {
+        return userRepository.save(new User("lover-" + System.nanoTime(), "password", "Lover",
+                LocalDate.of(2020, 1, 1)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.Love;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.LoveRepository;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LovePushServiceTest {
+
+    @Autowired
+    private LovePushService lovePushService;
+
+    @Autowired
+    private LoveCounterService loveCounterService;
+
+    @Autowired
+    private LoveRepository loveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private RealtimeGateway realtimeGateway;
+
+    @Test
+    void milestonesPassedBeforeStartupAreNotAnnouncedAgain() {
+        // 1000 taps were stored by a previous run, so 520 was already announced
+        User user = newUser();
+        loveRepository.save(new Love(user, 1000L));
+
+        tap(user, 40);
+
+        assertEquals(List.of(1040L), announcedMilestones(user));
+    }
+
+    @Test
+    void everyCrossedMultipleIsAnnounced() {
+        User user = newUser();
+        loveCounterService.set(user.getUsername(), LovePushService.MILESTONE * 3 - 1);
+
+        tap(user, 1);
+
+        assertEquals(List.of(520L, 1040L, 1560L), announcedMilestones(user));
+    }
+
+    private void tap(User user, int taps) {
+        for (int i = 0; i < taps; i++) {
+            long count = loveCounterService.increment(user.getUsername());
+            lovePushService.onLoveIncremented(new LoveService.LoveIncrementedEvent(user.getUsername(), count));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> announcedMilestones(User user) {
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(realtimeGateway, atLeast(0)).sendToUser(eq(user.getUsername()),
+                eq(LovePushService.MILESTONE_STREAM), eq(LovePushService.LOVE_MILESTONE), payloads.capture());
+        return payloads.getAllValues().stream()
+                .map(payload -> (Long) ((Map<String, Object>) payload).get("milestone"))
+                .toList();
+    }
+
+    private User newUser() {
+        return userRepository.save(new User("milestone-" + System.nanoTime(), "password", "Milestone",
+                LocalDate.of(2020, 1, 1)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.Memory;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.MemoryRepository;
+import com.couplewebsite.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MemoryServiceTest {
+
+    private static final LocalDate LEAP_DAY = LocalDate.of(2020, 2, 29);
+
+    @Autowired
+    private MemoryService memoryService;
+
+    @Autowired
+    private MemoryRepository memoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void upcomingMemoriesMatchTheDaysUntilOrder() {
+        LocalDate today = LocalDate.now();
+        List<Memory> memories = saveMemories(today);
+        Memory event = memoryRepository.save(new Memory("Concert", "Front row", today.minusYears(1).plusDays(1),
+                Memory.MemoryType.EVENT, creator()));
+
+        List<Long> expected = memories.stream()
+                .sorted(Comparator.comparingLong((Memory memory) -> daysUntil(memory.getDate(), today))
+                        .thenComparingInt(memory -> Memory.dayOfYear(memory.getDate().getMonthValue(),
+                                memory.getDate().getDayOfMonth())))
+                .map(Memory::getId)
+                .toList();
+        Set<Long> ids = Set.copyOf(expected);
+
+        List<Memory> all = memoryService.getUpcomingMemoriesExcludingEvents(Integer.MAX_VALUE);
+        assertEquals(expected, all.stream().map(Memory::getId).filter(ids::contains).toList());
+        assertFalse(all.stream().anyMatch(memory -> memory.getId().equals(event.getId())));
+
+        // A limit cuts the same order short, including when it stops past the year end
+        for (int limit = 1; limit <= all.size(); limit++) {
+            assertEquals(all.subList(0, limit).stream().map(Memory::getId).toList(),
+                    memoryService.getUpcomingMemoriesExcludingEvents(limit).stream().map(Memory::getId).toList(),
+                    "Limit " + limit);
+        }
+    }
+
+    @Test
+    void backfillFillsInMissingCalendarFields() {
+        List<Long> ids = saveMemories(LocalDate.now()).stream().map(Memory::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Memory m SET m.month = null, m.dayOfMonth = null, m.dayOfYear = null " +
+                        "WHERE m.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate());
+
+        memoryService.backfillCalendarFields();
+
+        for (Memory memory : memoryRepository.findAllById(ids)) {
+            LocalDate date = memory.getDate();
+            assertEquals(date.getMonthValue(), memory.getMonth());
+            assertEquals(date.getDayOfMonth(), memory.getDayOfMonth());
+            assertEquals(Memory.dayOfYear(date.getMonthValue(), date.getDayOfMonth()), memory.getDayOfYear());
+            if (date.equals(LEAP_DAY)) {
+                assertEquals(60, memory.getDayOfYear());
+            }
+        }
+    }
+
+    // One memory per calendar day: before, on and after today, both ends of the year and Feb 29
+    private List<Memory> saveMemories(LocalDate today) {
+        LocalDate past = today.minusYears(3);
+        Map<MonthDay, LocalDate> dates = new LinkedHashMap<>();
+        for (LocalDate date : List.of(LEAP_DAY, LocalDate.of(2019, 2, 28), LocalDate.of(2019, 3, 1),
+                LocalDate.of(2019, 3, 2), LocalDate.of(2018, 1, 1), LocalDate.of(2018, 12, 31),
+                past.minusDays(40), past.minusDays(1), past, past.plusDays(1), past.plusDays(40),
+                past.plusDays(200))) {
+            dates.putIfAbsent(MonthDay.from(date), date);
+        }
+
+        User creator = creator();
+        List<Memory> memories = new ArrayList<>();
+        for (LocalDate date : dates.values()) {
+            memories.add(memoryRepository.save(new Memory("Memory " + date, "On " + date, date,
+                    Memory.MemoryType.SPECIAL_MOMENT, creator)));
+        }
+        return memories;
+    }
+
+    // The sort key the service used before the day-of-year index: an anniversary
+    // on or before today counts from next year. That code threw for Feb 29 outside
+    // leap years; here it falls on Mar 1 and sorts before a real Mar 1.
+    private static long daysUntil(LocalDate date, LocalDate today) {
+        LocalDate next = anniversary(date, today.getYear());
+        if (!next.isAfter(today)) {
+            next = anniversary(date, today.getYear() + 1);
+        }
+        return ChronoUnit.DAYS.between(today, next);
+    }
+
+    private static LocalDate anniversary(LocalDate date, int year) {
+        MonthDay monthDay = MonthDay.from(date);
+        return monthDay.isValidYear(year) ? monthDay.atYear(year) : LocalDate.of(year, 3, 1);
+    }
+
+    private User creator() {
+        return userRepository.findByUsername("scott").orElseThrow();
+    }
+}
@@ -0,0 +1,70 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.dto.PresenceMessage;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PresenceRegistryTest {
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void userIsOnlineWhileAnySessionIsConnected() {
+        User zoe = userRepository.findByUsername("zoe").orElseThrow();
+        String tab = "presence-tab-" + System.nanoTime();
+        String phone = "presence-phone-" + System.nanoTime();
+
+        presenceRegistry.connect(zoe, tab);
+        presenceRegistry.heartbeat(zoe, phone);
+        assertTrue(presenceRegistry.isOnline(zoe.getId()));
+
+        presenceRegistry.disconnect(tab);
+        assertTrue(presenceRegistry.isOnline(zoe.getId()));
+
+        presenceRegistry.disconnect(phone);
+        assertFalse(presenceRegistry.isOnline(zoe.getId()));
+        assertTrue(presenceRegistry.getPresence().stream()
+                .anyMatch(presence -> presence.userId().equals(zoe.getId()) && !presence.online()));
+
+        // Once the final state is stored the sessions are forgotten, and a reconnect is indexed again
+        presenceRegistry.snapshot();
+        assertFalse(presenceRegistry.isOnline(zoe.getId()));
+        presenceRegistry.connect(zoe, tab);
+        assertTrue(presenceRegistry.isOnline(zoe.getId()));
+        presenceRegistry.disconnect(tab);
+    }
+
+    @Test
+    void typingIsOnlyReportedForOnlineUsers() {
+        User scott = userRepository.findByUsername("scott").orElseThrow();
+        String session = "presence-typing-" + System.nanoTime();
+
+        presenceRegistry.connect(scott, session);
+        presenceRegistry.setTyping(scott, true);
+        assertTrue(current(scott).typing());
+
+        presenceRegistry.disconnect(session);
+        assertFalse(current(scott).typing());
+        presenceRegistry.setTyping(scott, false);
+    }
+
+    private PresenceMessage current(User user) {
+        return presenceRegistry.getPresence().stream()
+                .filter(presence -> presence.userId().equals(user.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,93 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.SqlStatementCounter;
+import com.couplewebsite.entity.PrizeHistory;
+import com.couplewebsite.entity.SurpriseBox;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.repository.PrizeHistoryRepository;
+import com.couplewebsite.repository.SurpriseBoxRepository;
+import com.couplewebsite.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PrizeHistoryServiceTest {
+
+    @Autowired
+    private PrizeHistoryService prizeHistoryService;
+
+    @Autowired
+    private PrizeHistoryRepository prizeHistoryRepository;
+
+    @Autowired
+    private SurpriseBoxRepository surpriseBoxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void statsComeFromOneQuery() {
+        User owner = userRepository.findByUsername("scott").orElseThrow();
+        User recipient = userRepository.save(new User("stats-" + System.nanoTime(), "password", "Stats",
+                LocalDate.of(2020, 1, 1)));
+        SurpriseBox box = box(owner, recipient);
+
+        LocalDateTime now = LocalDateTime.now();
+        prize(box, SurpriseBox.CompletionType.TASK, now.minusDays(1));
+        prize(box, SurpriseBox.CompletionType.TASK, now.minusDays(20));
+        prize(box, SurpriseBox.CompletionType.PHOTO, now.minusDays(3));
+        prize(box, SurpriseBox.CompletionType.PHOTO, now.minusMonths(6));
+        prize(box, SurpriseBox.CompletionType.PAYMENT, now.minusYears(2));
+
+        SqlStatementCounter.start();
+        PrizeHistoryService.PrizeHistoryStats stats = prizeHistoryService.getPrizeHistoryStats(recipient.getId());
+        List<String> statements = SqlStatementCounter.stop();
+
+        assertEquals(1, statements.size(), "Unexpected statements: " + statements);
+        assertEquals(5, stats.getTotalPrizes());
+        assertEquals(2, stats.getPrizesThisWeek());
+        assertEquals(3, stats.getPrizesThisMonth());
+        assertEquals(4, stats.getPrizesThisYear());
+        assertEquals(Map.of("TASK", 2L, "PAYMENT", 1L, "LOCATION", 0L, "TIME", 0L, "PHOTO", 2L),
+                stats.getCompletionTypeBreakdown());
+    }
+
+    private SurpriseBox box(User owner, User recipient) {
+        SurpriseBox box = new SurpriseBox();
+        box.setOwner(owner);
+        box.setRecipient(recipient);
+        box.setPrizeName("Dinner");
+        box.setTaskDescription("Cook together");
+        box.setStatus(SurpriseBox.BoxStatus.CLAIMED);
+        return surpriseBoxRepository.save(box);
+    }
+
+    private void prize(SurpriseBox box, SurpriseBox.CompletionType type, LocalDateTime claimedAt) {
+        PrizeHistory saved = prizeHistoryRepository.save(
+                new PrizeHistory(box, box.getRecipient(), box.getPrizeName(), box.getTaskDescription(), type));
+        // claimed_at is stamped on insert, so backdate it with a bulk update
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE PrizeHistory ph SET ph.claimedAt = :claimedAt WHERE ph.id = :id")
+                .setParameter("claimedAt", claimedAt)
+                .setParameter("id", saved.getId())
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,118 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.entity.SharedNoteRevision;
+import com.couplewebsite.repository.SharedNoteRevisionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SharedNoteHistoryServiceTest {
+
+    private static final long AUTHOR_ID = 1L;
+
+    @Autowired
+    private SharedNoteHistoryService historyService;
+
+    @Autowired
+    private SharedNoteRevisionRepository revisionRepository;
+
+    @Test
+    void everyVersionIsRebuiltAcrossCheckpoints() {
+        Long noteId = System.nanoTime();
+        List<String> versions = recordEdits(noteId, 2 * SharedNoteHistoryService.MAX_CHAIN_LENGTH + 30);
+        int latest = versions.size() - 1;
+
+        List<SharedNoteRevision> stored = revisionRepository.findRange(noteId, 1L, (long) latest);
+        assertEquals(latest, stored.size());
+        List<Long> checkpoints = stored.stream()
+                .filter(SharedNoteRevision::isCheckpoint)
+                .map(SharedNoteRevision::getVersion)
+                .toList();
+        // The first version, the chain length limit twice, and the full rewrite
+        assertTrue(checkpoints.size() >= 4, "Checkpoints: " + checkpoints);
+        assertEquals(1L, checkpoints.get(0));
+        for (SharedNoteRevision revision : stored) {
+            assertTrue(revision.getVersion() - revision.getBaseVersion() <= SharedNoteHistoryService.MAX_CHAIN_LENGTH);
+        }
+
+        for (int version = 1; version <= latest; version++) {
+            assertEquals(versions.get(version), historyService.getRevision(noteId, version).content(),
+                    "Version " + version);
+        }
+    }
+
+    @Test
+    void rangeOperationsReplayTheStoredVersions() {
+        Long noteId = System.nanoTime();
+        List<String> versions = recordEdits(noteId, SharedNoteHistoryService.MAX_CHAIN_LENGTH + 20);
+        int latest = versions.size() - 1;
+
+        assertRangeMatches(noteId, versions, 0, latest);
+        // Starting inside a delta chain and ending past the next checkpoint
+        assertRangeMatches(noteId, versions, 37, SharedNoteHistoryService.MAX_CHAIN_LENGTH + 5);
+        assertRangeMatches(noteId, versions, latest - 1, latest);
+
+        assertThrows(IllegalArgumentException.class, () -> historyService.getRange(noteId, 5, 5));
+        assertThrows(IllegalArgumentException.class, () -> historyService.getRange(noteId, 0, latest + 1));
+    }
+
+    @Test
+    void unchangedContentIsNotRecorded() {
+        Long noteId = System.nanoTime();
+        historyService.record(noteId, "same", AUTHOR_ID);
+        historyService.record(noteId, "same", AUTHOR_ID);
+
+        assertEquals(1, revisionRepository.findRange(noteId, 1L, 10L).size());
+    }
+
+    private void assertRangeMatches(Long noteId, List<String> versions, int from, int to) {
+        SharedNoteHistoryService.RevisionRange range = historyService.getRange(noteId, from, to);
+        assertEquals(to - from, range.operations().size());
+
+        String content = versions.get(from);
+        for (SharedNoteHistoryService.VersionOperation step : range.operations()) {
+            int version = (int) step.version();
+            // The same operation record() diffed from the previous version
+            assertEquals(TextOperation.diff(versions.get(version - 1), versions.get(version)).toJson(), step.operation(),
+                    "Operation for version " + version);
+            content = TextOperation.fromJson(step.operation()).apply(content);
+            assertEquals(versions.get(version), content, "Content after version " + version);
+        }
+    }
+
+    // Small random edits with one rewrite in the middle; index 0 is the empty note
+    private List<String> recordEdits(Long noteId, int edits) {
+        Random random = new Random(noteId);
+        List<String> versions = new ArrayList<>();
+        versions.add("");
+
+        StringBuilder text = new StringBuilder("Dear diary, ".repeat(40));
+        for (int i = 1; i <= edits; i++) {
+            if (i == edits / 2) {
+                text = new StringBuilder("Rewritten from scratch ".repeat(30));
+            } else {
+                int position = random.nextInt(text.length());
+                if (random.nextBoolean() && text.length() > 20) {
+                    text.delete(position, Math.min(text.length(), position + 1 + random.nextInt(5)));
+                } else {
+                    text.insert(position, "edit " + i + " ");
+                }
+            }
+            String content = text.toString();
+            historyService.record(noteId, content, AUTHOR_ID);
+            versions.add(content);
+        }
+        return versions;
+    }
+}
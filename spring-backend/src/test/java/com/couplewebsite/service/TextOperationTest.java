@@ -0,0 +1,79 @@
+package com.couplewebsite.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextOperationTest {
+
+    @Test
+    void appliesJsonOperation() {
+        TextOperation operation = TextOperation.fromJson(List.of(6, "dear ", -5, 1));
+
+        assertEquals("hello dear !", operation.apply("hello world!"));
+    }
+
+    @Test
+    void diffOnlyTouchesChangedPart() {
+        TextOperation operation = TextOperation.diff("we love cats", "we love dogs");
+
+        assertEquals(List.of(8, "dog", -3, 1), operation.toJson());
+        assertEquals("we love dogs", operation.apply("we love cats"));
+        assertTrue(TextOperation.diff("same", "same").isNoop());
+    }
+
+    @Test
+    void rejectsOperationForDifferentLength() {
+        TextOperation operation = TextOperation.fromJson(List.of(3, "x"));
+
+        assertThrows(IllegalArgumentException.class, () -> operation.apply("four"));
+    }
+
+    @Test
+    void concurrentOperationsConverge() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String document = randomText(random, random.nextInt(20));
+            TextOperation a = randomOperation(random, document);
+            TextOperation b = randomOperation(random, document);
+
+            TextOperation[] transformed = TextOperation.transform(a, b);
+
+            assertEquals(transformed[1].apply(a.apply(document)), transformed[0].apply(b.apply(document)));
+        }
+    }
+
+    private static TextOperation randomOperation(Random random, String document) {
+        TextOperation operation = new TextOperation();
+        int remaining = document.length();
+        while (remaining > 0) {
+            int n = 1 + random.nextInt(remaining);
+            switch (random.nextInt(3)) {
+                case 0 -> operation.retain(n);
+                case 1 -> operation.delete(n);
+                default -> {
+                    operation.insert(randomText(random, 1 + random.nextInt(4)));
+                    operation.retain(n);
+                }
+            }
+            remaining -= n;
+        }
+        if (random.nextBoolean()) {
+            operation.insert(randomText(random, 1 + random.nextInt(4)));
+        }
+        return operation;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.SqlStatementCounter;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.UserStats;
+import com.couplewebsite.repository.UserRepository;
+import com.couplewebsite.repository.UserStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserStatsServiceTest {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private WheelUsageService wheelUsageService;
+
+    @Autowired
+    private SavedOpportunityService savedOpportunityService;
+
+    @Autowired
+    private EarningsService earningsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void totalsFollowTheWritesAndMatchARecount() {
+        User user = userRepository.save(new User("stats-" + System.nanoTime(), "password", "Stats",
+                LocalDate.of(2020, 1, 1)));
+
+        // The first write finds no row and counts one
+        savedOpportunityService.createSavedOpportunity(user, "test");
+        savedOpportunityService.createSavedOpportunity(user, "test");
+        savedOpportunityService.createSavedOpportunity(user, "test");
+        savedOpportunityService.useOldestOpportunity(user);
+        wheelUsageService.recordWheelUsage(user, 25, WheelSpinService.SOURCE_WEEKLY);
+        // Already used this week, so nothing is recorded
+        wheelUsageService.recordWheelUsage(user, 40, WheelSpinService.SOURCE_WEEKLY);
+        earningsService.addEarnings(user, 10, "test");
+        earningsService.addEarnings(user, 15, "test");
+
+        UserStats stats = userStatsRepository.findById(user.getId()).orElseThrow();
+        assertEquals(1, stats.getWheelUsageCount());
+        assertEquals(25, stats.getWheelPrizeTotal());
+        assertEquals(3, stats.getOpportunitiesTotal());
+        assertEquals(1, stats.getOpportunitiesUsed());
+        assertEquals(2, stats.getOpportunitiesUnused());
+        assertEquals(2, stats.getEarningsCount());
+        assertEquals(25, stats.getEarningsTotal());
+
+        savedOpportunityService.clearUnusedOpportunities(user);
+        earningsService.clearEarningsHistory(user);
+
+        stats = userStatsRepository.findById(user.getId()).orElseThrow();
+        UserStats recounted = userStatsService.recount(user);
+        assertEquals(1, stats.getOpportunitiesTotal());
+        assertEquals(0, stats.getOpportunitiesUnused());
+        assertEquals(0, stats.getEarningsTotal());
+        assertEquals(recounted.getWheelUsageCount(), stats.getWheelUsageCount());
+        assertEquals(recounted.getWheelPrizeTotal(), stats.getWheelPrizeTotal());
+        assertEquals(recounted.getOpportunitiesTotal(), stats.getOpportunitiesTotal());
+        assertEquals(recounted.getOpportunitiesUsed(), stats.getOpportunitiesUsed());
+        assertEquals(recounted.getEarningsCount(), stats.getEarningsCount());
+    }
+
+    @Test
+    void opportunityStatsAreOneLookup() {
+        User zoe = userRepository.findByUsername("zoe").orElseThrow();
+
+        SqlStatementCounter.start();
+        savedOpportunityService.getOpportunityStats(zoe);
+        List<String> statements = SqlStatementCounter.stop();
+
+        assertEquals(1, statements.size(), "Unexpected statements: " + statements);
+    }
+}
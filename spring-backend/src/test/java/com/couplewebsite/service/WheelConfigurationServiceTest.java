@@ -0,0 +1,105 @@
+package com.couplewebsite.service;
+
+import com.couplewebsite.SqlStatementCounter;
+import com.couplewebsite.entity.User;
+import com.couplewebsite.entity.WheelConfiguration;
+import com.couplewebsite.entity.WheelPrizeTemplate;
+import com.couplewebsite.repository.UserRepository;
+import com.couplewebsite.repository.WheelConfigurationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs on H2 in PostgreSQL mode rather than SQLite, so templates get sequence ids
+// as in production and their inserts can be batched
+@SpringBootTest
+@ActiveProfiles({"test", "h2"})
+class WheelConfigurationServiceTest {
+
+    @Autowired
+    private WheelConfigurationService wheelConfigurationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WheelConfigurationRepository wheelConfigurationRepository;
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("scott", null, List.of()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void savingAConfigurationSendsOnlyTheNeededStatements() {
+        User zoe = userRepository.findByUsername("zoe").orElseThrow();
+
+        // First save warms the user cache and reserves a block of template ids
+        wheelConfigurationService.saveWheelConfiguration(zoe, templates(8));
+
+        SqlStatementCounter.start();
+        WheelConfiguration saved = wheelConfigurationService.saveWheelConfiguration(zoe, templates(8));
+        List<String> statements = SqlStatementCounter.stop();
+
+        // One deactivating update, one configuration insert, and one batch of template inserts
+        assertEquals(1, count(statements, "update wheel_configurations"));
+        assertEquals(1, count(statements, "insert into wheel_configurations"));
+        assertEquals(1, count(statements, "insert into wheel_prize_templates"));
+        assertEquals(3, statements.size(), "Unexpected statements: " + statements);
+
+        List<WheelPrizeTemplate> stored = wheelConfigurationService.getPrizeTemplates(saved);
+        assertEquals(8, stored.size());
+        assertEquals(8, stored.stream().map(WheelPrizeTemplate::getId).distinct().count());
+    }
+
+    @Test
+    void defaultConfigurationIsCreatedOnce() {
+        User owner = userRepository.save(new User("wheel-" + System.nanoTime(), "password", "Wheel",
+                LocalDate.of(2020, 1, 1)));
+
+        WheelConfiguration first = wheelConfigurationService.createDefaultWheelConfiguration(owner);
+        WheelConfiguration second = wheelConfigurationService.createDefaultWheelConfiguration(owner);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, wheelConfigurationRepository.findByOwnerUserOrderByUpdatedAtDesc(owner).size());
+        assertEquals(8, wheelConfigurationService.getPrizeTemplates(first).size());
+    }
+
+    private static long count(List<String> statements, String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    private static List<WheelPrizeTemplate> templates(int count) {
+        List<WheelPrizeTemplate> templates = new ArrayList<>();
+        BigDecimal each = new BigDecimal("100.00").divide(BigDecimal.valueOf(count));
+        for (int i = 0; i < count; i++) {
+            WheelPrizeTemplate template = new WheelPrizeTemplate();
+            template.setPrizeName("$" + (i + 1));
+            template.setPrizeDescription("Win $" + (i + 1) + " love points");
+            template.setPrizeType("MONEY");
+            template.setPrizeValue(i + 1);
+            template.setProbability(each);
+            template.setColor("#F3F4F6");
+            templates.add(template);
+        }
+        return templates;
+    }
+}